@@ -0,0 +1,13 @@
+package dev.lukashornych.miatapodium.loadgenerator;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class LoadGeneratorApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(LoadGeneratorApplication.class, args);
+	}
+
+}
@@ -0,0 +1,53 @@
+package dev.lukashornych.miatapodium.loadgenerator.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dev.lukashornych.miatapodium.loadgenerator.report.LatencyRecorder;
+import dev.lukashornych.miatapodium.loadgenerator.source.TimerSourceStore;
+import dev.lukashornych.miatapodium.loadgenerator.source.TimerSourceWebSocketHandler;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Spring configuration of the load generator. Exposes the simulated timer source at {@code /ws}
+ * and declares the shared lap store and latency recorder.
+ */
+@NullMarked
+@Configuration
+@EnableWebSocket
+@EnableConfigurationProperties(LoadGeneratorProperties.class)
+public class LoadGeneratorConfiguration implements WebSocketConfigurer {
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(timerSourceWebSocketHandler(), "/ws")
+            .setAllowedOrigins("*");
+    }
+
+    @Bean
+    @Primary
+    ObjectMapper loadGeneratorObjectMapper() {
+        return JsonMapper.builder().build();
+    }
+
+    @Bean
+    LatencyRecorder latencyRecorder() {
+        return new LatencyRecorder();
+    }
+
+    @Bean
+    TimerSourceStore timerSourceStore() {
+        return new TimerSourceStore(loadGeneratorObjectMapper(), latencyRecorder());
+    }
+
+    @Bean
+    TimerSourceWebSocketHandler timerSourceWebSocketHandler() {
+        return new TimerSourceWebSocketHandler(timerSourceStore(), loadGeneratorObjectMapper());
+    }
+}
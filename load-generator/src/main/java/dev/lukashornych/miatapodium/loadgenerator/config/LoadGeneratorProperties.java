@@ -0,0 +1,84 @@
+package dev.lukashornych.miatapodium.loadgenerator.config;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the load generator.
+ * Bound from the {@code miatapodium.loadgen} prefix in application properties.
+ *
+ * @param source    settings of the simulated timer source
+ * @param spectator settings of the simulated spectator clients
+ * @param run       settings of the load run as a whole
+ */
+@NullMarked
+@ConfigurationProperties(prefix = "miatapodium.loadgen")
+public record LoadGeneratorProperties(
+    Source source,
+    Spectator spectator,
+    Run run
+) {
+
+    /**
+     * Settings of the simulated timer source.
+     *
+     * @param raceId                          the external race ID emitted in laps; also overrides the race ID of replayed laps
+     * @param raceName                        the racetrack name of the synthetic race
+     * @param carCount                        the number of cars on track in the synthetic race
+     * @param speedFactor                     how many times faster than real time the race runs
+     * @param lapTimeFromMs                   the lower bound of synthetic lap times
+     * @param lapTimeToMs                     the upper bound of synthetic lap times
+     * @param burstSize                       the number of cars running together in a pack and crossing the line in a burst
+     * @param burstSpreadMs                   the time span within which all cars of a pack cross the line
+     * @param conditionsChangeIntervalSeconds how often (in race time) the synthetic track conditions change
+     * @param tickMs                          the real-time interval at which due laps are released
+     * @param seed                            the random seed making synthetic races repeatable
+     * @param replayFile                      a recorded {@code GET_DATA} response or lap array to replay instead of a synthetic race
+     */
+    public record Source(
+        int raceId,
+        String raceName,
+        int carCount,
+        double speedFactor,
+        int lapTimeFromMs,
+        int lapTimeToMs,
+        int burstSize,
+        int burstSpreadMs,
+        int conditionsChangeIntervalSeconds,
+        long tickMs,
+        long seed,
+        @Nullable String replayFile
+    ) {
+    }
+
+    /**
+     * Settings of the simulated spectator clients.
+     *
+     * @param serverUrl         the base URL of the server under test
+     * @param count             the number of concurrent spectators
+     * @param pollIntervalMs    how often each spectator refreshes its views
+     * @param startDelaySeconds the delay between starting the race and starting the spectators
+     */
+    public record Spectator(
+        String serverUrl,
+        int count,
+        long pollIntervalMs,
+        long startDelaySeconds
+    ) {
+    }
+
+    /**
+     * Settings of the load run as a whole.
+     *
+     * @param durationSeconds the duration of the run in real time
+     * @param reportFile      the file the JSON report is written to
+     * @param exitAfterReport whether the application exits once the report is written
+     */
+    public record Run(
+        long durationSeconds,
+        String reportFile,
+        boolean exitAfterReport
+    ) {
+    }
+}
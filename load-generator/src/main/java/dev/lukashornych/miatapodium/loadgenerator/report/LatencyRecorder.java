@@ -0,0 +1,111 @@
+package dev.lukashornych.miatapodium.loadgenerator.report;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the lifecycle of laps and spectator requests during a load run.
+ *
+ * <p>The lap-to-visible latency of a lap is the time between the lap being made available by the
+ * timer source and the first spectator seeing it in a server response. It therefore includes the
+ * server's poll interval, ingestion, and the spectators' own refresh interval.
+ */
+@NullMarked
+public class LatencyRecorder {
+
+    private final Map<Integer, Long> emittedAtNanos = new ConcurrentHashMap<>();
+    private final Map<Integer, Boolean> visible = new ConcurrentHashMap<>();
+    private final LongSamples lapToVisibleNanos = new LongSamples();
+    private final LongSamples requestNanos = new LongSamples();
+    private final LongAdder okResponses = new LongAdder();
+    private final LongAdder notModifiedResponses = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder failedPolls = new LongAdder();
+
+    /**
+     * Records that a lap has been made available by the timer source.
+     *
+     * @param lapId the external lap ID
+     */
+    public void recordEmitted(int lapId) {
+        emittedAtNanos.putIfAbsent(lapId, System.nanoTime());
+    }
+
+    /**
+     * Records that a spectator has seen a lap. Only the first sighting of each lap is counted.
+     *
+     * @param lapId      the external lap ID
+     * @param seenAtNanos the {@link System#nanoTime()} at which the response carrying the lap was received
+     */
+    public void recordVisible(int lapId, long seenAtNanos) {
+        final var emitted = emittedAtNanos.get(lapId);
+        if (emitted != null && visible.putIfAbsent(lapId, Boolean.TRUE) == null) {
+            lapToVisibleNanos.add(seenAtNanos - emitted);
+        }
+    }
+
+    /**
+     * Records a completed spectator request.
+     *
+     * @param statusCode    the HTTP status code
+     * @param durationNanos the request duration
+     * @param bytes         the size of the response body
+     */
+    public void recordRequest(int statusCode, long durationNanos, long bytes) {
+        requestNanos.add(durationNanos);
+        bytesReceived.add(bytes);
+        switch (statusCode) {
+            case 200 -> okResponses.increment();
+            case 304 -> notModifiedResponses.increment();
+            default -> failedRequests.increment();
+        }
+    }
+
+    /**
+     * Records a spectator request that failed without a response.
+     */
+    public void recordFailure() {
+        failedRequests.increment();
+    }
+
+    /**
+     * Records a spectator refresh that failed and is retried after a backoff.
+     */
+    public void recordFailedPoll() {
+        failedPolls.increment();
+    }
+
+    /**
+     * Builds the report of the run.
+     *
+     * @param durationSeconds the real duration of the run
+     * @param spectators      the number of spectators
+     * @return the report
+     */
+    public LoadReport report(double durationSeconds, int spectators) {
+        final var emitted = emittedAtNanos.size();
+        final var seen = visible.size();
+        final var requests = okResponses.sum() + notModifiedResponses.sum() + failedRequests.sum();
+        return new LoadReport(
+            durationSeconds,
+            emitted,
+            seen,
+            emitted - seen,
+            emitted / durationSeconds,
+            lapToVisibleNanos.summarize(1_000_000.0),
+            spectators,
+            requests,
+            okResponses.sum(),
+            notModifiedResponses.sum(),
+            failedRequests.sum(),
+            failedPolls.sum(),
+            requests / durationSeconds,
+            bytesReceived.sum(),
+            requestNanos.summarize(1_000_000.0)
+        );
+    }
+}
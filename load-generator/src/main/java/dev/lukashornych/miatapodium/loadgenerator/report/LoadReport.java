@@ -0,0 +1,42 @@
+package dev.lukashornych.miatapodium.loadgenerator.report;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Machine-readable result of a load run. Latencies are in milliseconds.
+ *
+ * @param durationSeconds        the real duration of the run
+ * @param lapsEmitted            the number of laps released by the timer source
+ * @param lapsVisible            the number of laps seen by at least one spectator
+ * @param lapsNeverVisible       the number of laps never seen, e.g. emitted too late to be ingested before the run ended
+ * @param lapsPerSecond          the lap throughput of the timer source
+ * @param lapToVisibleLatencyMs  the latency between a lap being released and first seen by a spectator
+ * @param spectators             the number of concurrent spectators
+ * @param requests               the number of spectator requests
+ * @param okResponses            the number of {@code 200} responses
+ * @param notModifiedResponses   the number of {@code 304} responses
+ * @param failedRequests         the number of failed requests or error responses
+ * @param failedPolls            the number of spectator refreshes that failed and were retried after a backoff
+ * @param requestsPerSecond      the spectator request throughput
+ * @param bytesReceived          the total size of response bodies
+ * @param requestLatencyMs       the latency of spectator requests
+ */
+@NullMarked
+public record LoadReport(
+    double durationSeconds,
+    long lapsEmitted,
+    long lapsVisible,
+    long lapsNeverVisible,
+    double lapsPerSecond,
+    LongSamples.Summary lapToVisibleLatencyMs,
+    int spectators,
+    long requests,
+    long okResponses,
+    long notModifiedResponses,
+    long failedRequests,
+    long failedPolls,
+    double requestsPerSecond,
+    long bytesReceived,
+    LongSamples.Summary requestLatencyMs
+) {
+}
@@ -0,0 +1,81 @@
+package dev.lukashornych.miatapodium.loadgenerator.report;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Arrays;
+
+/**
+ * Growable, thread-safe collection of primitive long samples with percentile summaries.
+ */
+@NullMarked
+public class LongSamples {
+
+    private long[] values = new long[1024];
+    private int size;
+
+    /**
+     * Adds a sample.
+     *
+     * @param value the sample value
+     */
+    public synchronized void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Summarizes the samples collected so far.
+     *
+     * @param scale the divisor converting sample units to summary units, e.g. {@code 1_000_000} for nanos to millis
+     * @return the summary
+     */
+    public synchronized Summary summarize(double scale) {
+        if (size == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0, 0);
+        }
+        final var sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        double sum = 0;
+        for (final var value : sorted) {
+            sum += value;
+        }
+        return new Summary(
+            size,
+            sorted[0] / scale,
+            sum / size / scale,
+            percentile(sorted, 0.50) / scale,
+            percentile(sorted, 0.90) / scale,
+            percentile(sorted, 0.99) / scale,
+            sorted[size - 1] / scale
+        );
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        final var index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Percentile summary of a set of samples.
+     *
+     * @param count the number of samples
+     * @param min   the smallest sample
+     * @param mean  the arithmetic mean
+     * @param p50   the median
+     * @param p90   the 90th percentile
+     * @param p99   the 99th percentile
+     * @param max   the largest sample
+     */
+    public record Summary(
+        long count,
+        double min,
+        double mean,
+        double p50,
+        double p90,
+        double p99,
+        double max
+    ) {
+    }
+}
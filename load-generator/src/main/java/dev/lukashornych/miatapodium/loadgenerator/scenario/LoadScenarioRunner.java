@@ -0,0 +1,115 @@
+package dev.lukashornych.miatapodium.loadgenerator.scenario;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.loadgenerator.config.LoadGeneratorProperties;
+import dev.lukashornych.miatapodium.loadgenerator.report.LatencyRecorder;
+import dev.lukashornych.miatapodium.loadgenerator.source.RaceClock;
+import dev.lukashornych.miatapodium.loadgenerator.source.RaceSource;
+import dev.lukashornych.miatapodium.loadgenerator.source.RaceSourceDriver;
+import dev.lukashornych.miatapodium.loadgenerator.source.RecordedRaceSource;
+import dev.lukashornych.miatapodium.loadgenerator.source.SyntheticRaceSource;
+import dev.lukashornych.miatapodium.loadgenerator.source.TimerSourceStore;
+import dev.lukashornych.miatapodium.loadgenerator.spectator.SpectatorLoad;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Runs a single load scenario: starts the simulated race, lets spectators follow it once the
+ * server has ingested the race, stops everything after the configured duration, and writes
+ * the {@link dev.lukashornych.miatapodium.loadgenerator.report.LoadReport}.
+ */
+@NullMarked
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoadScenarioRunner implements ApplicationRunner {
+
+    private final LoadGeneratorProperties properties;
+    private final TimerSourceStore store;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        final var sourceProperties = properties.source();
+        final var spectatorProperties = properties.spectator();
+        final var runProperties = properties.run();
+
+        final var clock = new RaceClock(Instant.now(), sourceProperties.speedFactor());
+        final var source = createSource(sourceProperties, clock.start());
+        final var runStarted = System.nanoTime();
+        final var deadline = runStarted + Duration.ofSeconds(runProperties.durationSeconds()).toNanos();
+
+        try (
+            final var driver = new RaceSourceDriver(source, clock, store, sourceProperties.tickMs());
+            final var spectators = new SpectatorLoad(
+                spectatorProperties.serverUrl(),
+                spectatorProperties.count(),
+                spectatorProperties.pollIntervalMs(),
+                recorder,
+                objectMapper
+            )
+        ) {
+            driver.start();
+            Thread.sleep(Duration.ofSeconds(spectatorProperties.startDelaySeconds()));
+            if (spectatorProperties.count() > 0) {
+                final var raceId = spectators.awaitRace(sourceProperties.raceId(), Duration.ofNanos(deadline - System.nanoTime()));
+                spectators.start(raceId);
+            }
+            while (System.nanoTime() < deadline && !source.isExhausted()) {
+                Thread.sleep(1000);
+            }
+        }
+
+        final var durationSeconds = (System.nanoTime() - runStarted) / 1_000_000_000.0;
+        final var report = recorder.report(durationSeconds, spectatorProperties.count());
+        final var reportFile = Path.of(runProperties.reportFile());
+        writeReport(reportFile, report);
+        log.info("Load run finished: {}", objectMapper.writeValueAsString(report));
+        log.info("Report written to {}", reportFile.toAbsolutePath());
+
+        if (runProperties.exitAfterReport()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    private RaceSource createSource(LoadGeneratorProperties.Source sourceProperties, Instant start) throws IOException {
+        final var replayFile = sourceProperties.replayFile();
+        if (replayFile != null && !replayFile.isBlank()) {
+            return new RecordedRaceSource(Path.of(replayFile), objectMapper, sourceProperties.raceId(), start);
+        }
+        return new SyntheticRaceSource(
+            sourceProperties.raceId(),
+            sourceProperties.raceName(),
+            start,
+            sourceProperties.carCount(),
+            sourceProperties.lapTimeFromMs(),
+            sourceProperties.lapTimeToMs(),
+            sourceProperties.burstSize(),
+            sourceProperties.burstSpreadMs(),
+            sourceProperties.conditionsChangeIntervalSeconds(),
+            sourceProperties.seed()
+        );
+    }
+
+    private void writeReport(Path reportFile, Object report) throws IOException {
+        final var parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+    }
+}
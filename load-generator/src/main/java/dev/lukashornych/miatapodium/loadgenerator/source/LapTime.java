@@ -0,0 +1,67 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A single lap record in the upstream timer source format, as served in {@code SUCCESS}
+ * responses to {@code GET_DATA} requests. Field names use {@link JsonProperty} to match
+ * the API's PascalCase naming convention; timestamps are kept as ISO-8601 strings.
+ */
+@NullMarked
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record LapTime(
+    @JsonProperty("Id") int id,
+    @JsonProperty("RaceId") int raceId,
+    @JsonProperty("RFIDId") int rfidId,
+    @JsonProperty("Time") String time,
+    @JsonProperty("TimePrev") String timePrev,
+    @JsonProperty("Tag") String tag,
+    @JsonProperty("LapTime") int lapTime,
+    @JsonProperty("TimeS1") String timeS1,
+    @JsonProperty("TimeS2") String timeS2,
+    @JsonProperty("TimeS3") String timeS3,
+    @JsonProperty("S1") int s1,
+    @JsonProperty("S2") int s2,
+    @JsonProperty("S3") int s3,
+    @JsonProperty("Temp1") float temp1,
+    @JsonProperty("Temp2") float temp2,
+    @JsonProperty("Temp3") float temp3,
+    @JsonProperty("Round") int round,
+    @JsonProperty("CarNumber") int carNumber,
+    @JsonProperty("Category") String category,
+    @JsonProperty("Make") String make,
+    @JsonProperty("Model") String model,
+    @JsonProperty("Tires") @Nullable String tires,
+    @JsonProperty("FirstName") String firstName,
+    @JsonProperty("LastName") String lastName,
+    @JsonProperty("Name") String name,
+    @JsonProperty("Date") String date,
+    @JsonProperty("IsRaceLap") int isRaceLap
+) {
+
+    /**
+     * Returns a copy of this lap moved in time and assigned to another race.
+     *
+     * @param raceId   the external race ID of the copy
+     * @param offsetMs the number of milliseconds all timestamps are shifted by
+     * @return the shifted copy
+     */
+    public LapTime shifted(int raceId, long offsetMs) {
+        return new LapTime(
+            id, raceId, rfidId,
+            shift(time, offsetMs), shift(timePrev, offsetMs), tag, lapTime,
+            shift(timeS1, offsetMs), shift(timeS2, offsetMs), shift(timeS3, offsetMs),
+            s1, s2, s3, temp1, temp2, temp3, round, carNumber, category, make, model, tires,
+            firstName, lastName, name, date, isRaceLap
+        );
+    }
+
+    private static String shift(String instant, long offsetMs) {
+        return Instant.parse(instant).plusMillis(offsetMs).toString();
+    }
+}
@@ -0,0 +1,44 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Instant;
+
+/**
+ * Clock of a simulated race running a configurable number of times faster than real time.
+ */
+@NullMarked
+public class RaceClock {
+
+    private final Instant start;
+    private final double speedFactor;
+    private final long startNanos;
+
+    public RaceClock(Instant start, double speedFactor) {
+        if (speedFactor <= 0) {
+            throw new IllegalArgumentException("Speed factor must be positive, got " + speedFactor);
+        }
+        this.start = start;
+        this.speedFactor = speedFactor;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns the race time at which the race started.
+     *
+     * @return the start of the race
+     */
+    public Instant start() {
+        return start;
+    }
+
+    /**
+     * Returns the current race time.
+     *
+     * @return the current race time
+     */
+    public Instant now() {
+        final var elapsedNanos = (long) ((System.nanoTime() - startNanos) * speedFactor);
+        return start.plusNanos(elapsedNanos);
+    }
+}
@@ -0,0 +1,28 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Source of laps of a simulated race. Laps are released in race time order as the race clock advances.
+ */
+@NullMarked
+public interface RaceSource {
+
+    /**
+     * Returns the laps completed after the previous call and no later than the given race time.
+     *
+     * @param raceTime the current race time
+     * @return the newly completed laps in order of completion
+     */
+    List<LapTime> lapsDueUntil(Instant raceTime);
+
+    /**
+     * Returns whether the source has no more laps to release.
+     *
+     * @return {@code true} once every lap has been released
+     */
+    boolean isExhausted();
+}
@@ -0,0 +1,75 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Advances a {@link RaceSource} along a {@link RaceClock} and moves due laps into the {@link TimerSourceStore}
+ * at a fixed real-time tick.
+ */
+@NullMarked
+@Slf4j
+public class RaceSourceDriver implements AutoCloseable {
+
+    private final RaceSource source;
+    private final RaceClock clock;
+    private final TimerSourceStore store;
+    private final long tickMs;
+    private final AtomicLong releasedLaps = new AtomicLong();
+    private @Nullable ScheduledExecutorService executor;
+
+    public RaceSourceDriver(RaceSource source, RaceClock clock, TimerSourceStore store, long tickMs) {
+        this.source = source;
+        this.clock = clock;
+        this.store = store;
+        this.tickMs = tickMs;
+    }
+
+    /**
+     * Starts releasing laps.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        final var scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("race-source").factory());
+        scheduler.scheduleAtFixedRate(this::tick, 0, tickMs, TimeUnit.MILLISECONDS);
+        executor = scheduler;
+        log.info("Race started at race time {}", clock.start());
+    }
+
+    /**
+     * Returns the number of laps released so far.
+     *
+     * @return the released lap count
+     */
+    public long releasedLaps() {
+        return releasedLaps.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        final var scheduler = executor;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            executor = null;
+            log.info("Race stopped after {} laps", releasedLaps.get());
+        }
+    }
+
+    private void tick() {
+        try {
+            final var due = source.lapsDueUntil(clock.now());
+            store.append(due);
+            releasedLaps.addAndGet(due.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to release due laps", e);
+        }
+    }
+}
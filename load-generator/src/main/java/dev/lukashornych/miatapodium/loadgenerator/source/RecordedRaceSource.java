@@ -0,0 +1,70 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Replays a recorded race. The recording is either a captured {@code SUCCESS} response of the
+ * timer source or a plain JSON array of laps. All laps are moved in time so that the earliest
+ * recorded lap start coincides with the start of the race clock, and are assigned to the
+ * configured race so that repeated replays do not collide with previously ingested data.
+ */
+@NullMarked
+@Slf4j
+public class RecordedRaceSource implements RaceSource {
+
+    private final List<LapTime> laps;
+    private final List<Instant> completions;
+    private int nextIndex;
+
+    public RecordedRaceSource(Path recording, ObjectMapper objectMapper, int raceId, Instant start) throws IOException {
+        final var recorded = read(recording, objectMapper);
+        if (recorded.isEmpty()) {
+            throw new IllegalArgumentException("Recording " + recording + " contains no laps");
+        }
+
+        final var recordedStart = recorded.stream()
+            .map(lap -> Instant.parse(lap.timePrev()))
+            .min(Comparator.naturalOrder())
+            .orElseThrow();
+        final var offsetMs = start.toEpochMilli() - recordedStart.toEpochMilli();
+
+        this.laps = recorded.stream()
+            .map(lap -> lap.shifted(raceId, offsetMs))
+            .sorted(Comparator.comparing(LapTime::time))
+            .toList();
+        this.completions = this.laps.stream()
+            .map(lap -> Instant.parse(lap.time()))
+            .toList();
+        log.info("Loaded {} recorded laps from {}", laps.size(), recording);
+    }
+
+    @Override
+    public synchronized List<LapTime> lapsDueUntil(Instant raceTime) {
+        final var due = new ArrayList<LapTime>();
+        while (nextIndex < laps.size() && !completions.get(nextIndex).isAfter(raceTime)) {
+            due.add(laps.get(nextIndex++));
+        }
+        return due;
+    }
+
+    @Override
+    public synchronized boolean isExhausted() {
+        return nextIndex >= laps.size();
+    }
+
+    private static List<LapTime> read(Path recording, ObjectMapper objectMapper) throws IOException {
+        final var tree = objectMapper.readTree(recording.toFile());
+        final var lapsNode = tree.isArray() ? tree : tree.path("payload");
+        return objectMapper.convertValue(lapsNode, new TypeReference<List<LapTime>>() {});
+    }
+}
@@ -0,0 +1,196 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Generates an endless synthetic race with a configurable number of cars.
+ *
+ * <p>Cars run in packs of {@code burstSize}. All cars of a pack share the lap time of each round
+ * (with a little jitter) and keep their staggered positions within the pack, so every pack crosses
+ * the line as a burst of laps within {@code burstSpreadMs}. A burst size of one makes every car
+ * independent. All randomness derives from a single seed, so a race can be repeated exactly.
+ */
+@NullMarked
+public class SyntheticRaceSource implements RaceSource {
+
+    private static final String[] FIRST_NAMES = {
+        "Marco", "Emma", "Luca", "Sophie", "Jan", "Petra", "Tomáš", "Eva", "Jakub", "Lucie",
+        "Martin", "Tereza", "David", "Anna", "Ondřej", "Klára", "Filip", "Barbora", "Adam", "Karolína"
+    };
+    private static final String[] LAST_NAMES = {
+        "Rossi", "Schmidt", "Ferrari", "Martin", "Novák", "Svobodová", "Dvořák", "Černá", "Procházka", "Kučerová",
+        "Veselý", "Horáková", "Němec", "Marková", "Pokorný", "Králová", "Jelínek", "Růžičková", "Beneš", "Fialová"
+    };
+    private static final String[] CATEGORIES = { "Open", "Touring", "Racing", "Ultimate" };
+    private static final String[][] CARS = {
+        { "Mazda", "MX-5" }, { "Hyundai", "i30N" }, { "BMW", "M3" }, { "Toyota", "GR86" }, { "Honda", "Civic Type R" }
+    };
+    private static final int JITTER_MS = 150;
+
+    private final int raceId;
+    private final String raceName;
+    private final String raceDate;
+    private final int lapTimeFromMs;
+    private final int lapTimeToMs;
+    private final int burstSize;
+    private final long seed;
+    private final long conditionsChangeIntervalMs;
+    private final Instant start;
+    private final PriorityQueue<SimulatedCar> queue = new PriorityQueue<>(Comparator.comparing(SimulatedCar::nextCrossing));
+    private int nextLapId = 1;
+
+    public SyntheticRaceSource(
+        int raceId,
+        String raceName,
+        Instant start,
+        int carCount,
+        int lapTimeFromMs,
+        int lapTimeToMs,
+        int burstSize,
+        int burstSpreadMs,
+        int conditionsChangeIntervalSeconds,
+        long seed
+    ) {
+        this.raceId = raceId;
+        this.raceName = raceName;
+        this.raceDate = start.atZone(ZoneOffset.UTC).toLocalDate().atStartOfDay(ZoneOffset.UTC).toInstant().toString();
+        this.lapTimeFromMs = lapTimeFromMs;
+        this.lapTimeToMs = lapTimeToMs;
+        this.burstSize = Math.max(1, burstSize);
+        this.seed = seed;
+        this.conditionsChangeIntervalMs = conditionsChangeIntervalSeconds * 1000L;
+        this.start = start;
+
+        final var packCount = (carCount + this.burstSize - 1) / this.burstSize;
+        // packs are spread evenly over the first lap, cars within a pack evenly over the burst spread
+        final var packGapMs = lapTimeFromMs / Math.max(1, packCount);
+        final var carGapMs = burstSpreadMs / this.burstSize;
+        for (int i = 0; i < carCount; i++) {
+            final var rfid = 101 + i;
+            final var pack = i / this.burstSize;
+            final var offsetMs = (long) pack * packGapMs + (long) (i % this.burstSize) * carGapMs;
+            final var car = new SimulatedCar(
+                rfid,
+                pack,
+                FIRST_NAMES[i % FIRST_NAMES.length],
+                LAST_NAMES[(i / FIRST_NAMES.length + i) % LAST_NAMES.length],
+                CATEGORIES[i % CATEGORIES.length],
+                CARS[i % CARS.length]
+            );
+            car.startLap(start.plusMillis(offsetMs), lapTimeMs(car));
+            queue.add(car);
+        }
+    }
+
+    @Override
+    public synchronized List<LapTime> lapsDueUntil(Instant raceTime) {
+        final var laps = new ArrayList<LapTime>();
+        while (!queue.isEmpty() && !queue.peek().nextCrossing().isAfter(raceTime)) {
+            final var car = queue.poll();
+            laps.add(completeLap(car));
+            car.round++;
+            car.startLap(car.nextCrossing, lapTimeMs(car));
+            queue.add(car);
+        }
+        return laps;
+    }
+
+    @Override
+    public boolean isExhausted() {
+        return false;
+    }
+
+    private int lapTimeMs(SimulatedCar car) {
+        final var packRandom = new Random(seed ^ (car.pack * 0x9E3779B97F4A7C15L) ^ car.round);
+        final var packLapTime = lapTimeFromMs + packRandom.nextInt(Math.max(1, lapTimeToMs - lapTimeFromMs));
+        final var carRandom = new Random(seed ^ (car.rfid * 0xC2B2AE3D27D4EB4FL) ^ car.round);
+        return packLapTime + carRandom.nextInt(2 * JITTER_MS + 1) - JITTER_MS;
+    }
+
+    private LapTime completeLap(SimulatedCar car) {
+        final var lapStart = car.lapStart;
+        final var lapEnd = car.nextCrossing;
+        final var lapTimeMs = car.lapTimeMs;
+        final var random = new Random(seed ^ lapEnd.toEpochMilli());
+        final var s1 = (int) (lapTimeMs * (0.20 + random.nextDouble() * 0.20));
+        final var s2 = (int) ((lapTimeMs - s1) * (0.25 + random.nextDouble() * 0.20));
+        final var s3 = lapTimeMs - s1 - s2;
+
+        // conditions change in steps shared by all cars, like the readings of a single weather station
+        final var conditionsStep = conditionsChangeIntervalMs > 0
+            ? (lapEnd.toEpochMilli() - start.toEpochMilli()) / conditionsChangeIntervalMs
+            : 0;
+        final var conditionsRandom = new Random(seed ^ conditionsStep);
+
+        return new LapTime(
+            nextLapId++,
+            raceId,
+            car.rfid,
+            lapEnd.toString(),
+            lapStart.toString(),
+            "E55202107040000000000" + String.format("%04d", car.rfid),
+            lapTimeMs,
+            lapStart.plusMillis(s1).toString(),
+            lapStart.plusMillis(s1 + s2).toString(),
+            lapEnd.toString(),
+            s1,
+            s2,
+            s3,
+            15.0f + conditionsRandom.nextInt(10) * 0.5f,
+            20.0f + conditionsRandom.nextInt(20) * 0.5f,
+            60.0f + conditionsRandom.nextInt(30),
+            car.round,
+            car.rfid - 100,
+            car.category,
+            car.car[0],
+            car.car[1],
+            null,
+            car.firstName,
+            car.lastName,
+            raceName,
+            raceDate,
+            0
+        );
+    }
+
+    private static final class SimulatedCar {
+
+        private final int rfid;
+        private final int pack;
+        private final String firstName;
+        private final String lastName;
+        private final String category;
+        private final String[] car;
+        private Instant lapStart = Instant.EPOCH;
+        private Instant nextCrossing = Instant.EPOCH;
+        private int lapTimeMs;
+        private int round;
+
+        private SimulatedCar(int rfid, int pack, String firstName, String lastName, String category, String[] car) {
+            this.rfid = rfid;
+            this.pack = pack;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.category = category;
+            this.car = car;
+        }
+
+        private void startLap(Instant lapStart, int lapTimeMs) {
+            this.lapStart = lapStart;
+            this.lapTimeMs = lapTimeMs;
+            this.nextCrossing = lapStart.plusMillis(lapTimeMs);
+        }
+
+        private Instant nextCrossing() {
+            return nextCrossing;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.loadgenerator.report.LatencyRecorder;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates all laps released by the race source, like the store of the mock timer source
+ * server. Every {@code GET_DATA} request is answered with all laps accumulated so far. The
+ * serialized response is cached until new laps arrive, so frequent polls cost nothing extra.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class TimerSourceStore {
+
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder latencyRecorder;
+    private final List<LapTime> laps = new ArrayList<>();
+    private @Nullable String cachedResponse;
+
+    /**
+     * Adds newly released laps and records the moment they became available to the server under test.
+     *
+     * @param newLaps the released laps
+     */
+    public synchronized void append(List<LapTime> newLaps) {
+        if (newLaps.isEmpty()) {
+            return;
+        }
+        laps.addAll(newLaps);
+        cachedResponse = null;
+        for (final var lap : newLaps) {
+            latencyRecorder.recordEmitted(lap.id());
+        }
+    }
+
+    /**
+     * Returns the serialized {@code SUCCESS} response holding all laps accumulated so far.
+     *
+     * @return the response JSON
+     */
+    public synchronized String successResponse() throws JsonProcessingException {
+        var response = cachedResponse;
+        if (response == null) {
+            response = objectMapper.writeValueAsString(new WebSocketMessage<>("SUCCESS", laps));
+            cachedResponse = response;
+        }
+        return response;
+    }
+
+    /**
+     * Returns the number of laps accumulated so far.
+     *
+     * @return the lap count
+     */
+    public synchronized int size() {
+        return laps.size();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * WebSocket handler speaking the timer source protocol expected by the server's lap data client:
+ * a {@code GET_DATA} request is answered with a {@code SUCCESS} message carrying all accumulated laps,
+ * anything else with an {@code ERROR} message.
+ */
+@NullMarked
+@Slf4j
+@RequiredArgsConstructor
+public class TimerSourceWebSocketHandler extends TextWebSocketHandler {
+
+    private final TimerSourceStore store;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        final WebSocketMessage<?> request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), WebSocketMessage.class);
+        } catch (JsonProcessingException e) {
+            session.sendMessage(new TextMessage(error("Invalid JSON")));
+            return;
+        }
+
+        if (!"GET_DATA".equals(request.type())) {
+            session.sendMessage(new TextMessage(error("Unknown message type")));
+            return;
+        }
+
+        log.debug("Serving {} laps to {}", store.size(), session.getRemoteAddress());
+        session.sendMessage(new TextMessage(store.successResponse()));
+    }
+
+    private String error(String reason) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(new WebSocketMessage<>("ERROR", reason));
+    }
+}
@@ -0,0 +1,21 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Generic envelope for messages exchanged over the timer source WebSocket API.
+ * Used for both requests (e.g., {@code GET_DATA}) and responses (e.g., {@code SUCCESS}).
+ *
+ * @param type    the message type identifier
+ * @param payload the message payload, which varies by message type
+ * @param <T>     the type of the payload
+ */
+@NullMarked
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record WebSocketMessage<T>(
+    String type,
+    @Nullable T payload
+) {
+}
@@ -0,0 +1,241 @@
+package dev.lukashornych.miatapodium.loadgenerator.spectator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.loadgenerator.report.LatencyRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates spectators following a race. Every spectator runs on its own virtual thread and
+ * periodically refreshes the standings and latest laps of the race, revalidating its cached
+ * copies with {@code If-None-Match} like a browser would.
+ *
+ * <p>Laps seen by a spectator are reported to the {@link LatencyRecorder}. The latest laps view
+ * holds only the most recent laps, so whenever it changes, the spectator also pages through the
+ * lap history of the race from where it stopped the last time. Laps pushed out of the latest
+ * laps view by a burst are therefore still seen, just one history request later.
+ *
+ * <p>A failed refresh, i.e. a request without a response or a response that cannot be parsed,
+ * does not end the spectator: it is counted and retried after an exponentially growing backoff.
+ */
+@NullMarked
+@Slf4j
+public class SpectatorLoad implements AutoCloseable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int HISTORY_PAGE_SIZE = 100;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final String serverUrl;
+    private final int spectatorCount;
+    private final long pollIntervalMs;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private @Nullable ExecutorService executor;
+
+    public SpectatorLoad(String serverUrl, int spectatorCount, long pollIntervalMs, LatencyRecorder recorder, ObjectMapper objectMapper) {
+        this.serverUrl = serverUrl;
+        this.spectatorCount = spectatorCount;
+        this.pollIntervalMs = pollIntervalMs;
+        this.recorder = recorder;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    }
+
+    /**
+     * Waits until the server has ingested the race with the given external ID and returns its surrogate ID.
+     *
+     * @param raceExternalId the external race ID emitted by the timer source
+     * @param timeout        how long to wait
+     * @return the surrogate race ID used by the server API
+     */
+    public long awaitRace(int raceExternalId, Duration timeout) throws IOException, InterruptedException {
+        final var deadline = System.nanoTime() + timeout.toNanos();
+        final var request = HttpRequest.newBuilder(URI.create(serverUrl + "/api/races")).timeout(REQUEST_TIMEOUT).build();
+        while (System.nanoTime() < deadline) {
+            final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 200) {
+                for (final var race : objectMapper.readTree(response.body())) {
+                    if (race.path("externalId").asInt() == raceExternalId) {
+                        return race.path("id").asLong();
+                    }
+                }
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Race " + raceExternalId + " was not ingested by the server within " + timeout);
+    }
+
+    /**
+     * Starts all spectators following the given race.
+     *
+     * @param raceId the surrogate race ID used by the server API
+     */
+    public synchronized void start(long raceId) {
+        if (executor != null) {
+            return;
+        }
+        final var spectators = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < spectatorCount; i++) {
+            spectators.submit(() -> follow(raceId));
+        }
+        executor = spectators;
+        log.info("Started {} spectators following race {}", spectatorCount, raceId);
+    }
+
+    @Override
+    public synchronized void close() throws InterruptedException {
+        final var spectators = executor;
+        if (spectators != null) {
+            spectators.shutdownNow();
+            spectators.awaitTermination(10, TimeUnit.SECONDS);
+            executor = null;
+        }
+        httpClient.close();
+    }
+
+    private void follow(long raceId) {
+        final var standings = new View(URI.create(serverUrl + "/api/races/" + raceId + "/standings"));
+        final var latestLaps = new View(URI.create(serverUrl + "/api/races/" + raceId + "/laps/latest"));
+        final var history = new LapHistory(serverUrl + "/api/races/" + raceId + "/laps?limit=" + HISTORY_PAGE_SIZE);
+        var failures = 0;
+        try {
+            // spread the spectators evenly over the poll interval
+            Thread.sleep(ThreadLocalRandom.current().nextLong(Math.max(1, pollIntervalMs)));
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    poll(standings, latestLaps, history);
+                    failures = 0;
+                    Thread.sleep(pollIntervalMs);
+                } catch (IOException e) {
+                    failures++;
+                    recorder.recordFailedPoll();
+                    final var backoffMs = backoffMs(failures);
+                    log.debug("Spectator refresh failed {} times in a row, retrying in {} ms", failures, backoffMs, e);
+                    Thread.sleep(backoffMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void poll(View standings, View latestLaps, LapHistory history) throws IOException, InterruptedException {
+        refresh(standings);
+        final var body = refresh(latestLaps);
+        if (body != null) {
+            // marked before parsing, so a failed refresh leaves the history to be read on retry
+            history.stale = true;
+            final var seenAt = System.nanoTime();
+            for (final var lap : objectMapper.readTree(body).path("laps")) {
+                recorder.recordVisible(lap.path("externalId").asInt(), seenAt);
+            }
+        }
+        if (history.stale) {
+            readHistory(history);
+            history.stale = false;
+        }
+    }
+
+    /**
+     * Reads the lap history of the race from the last full page read so far up to its end. The
+     * last page is partial and has no cursor of its own, so it is read again next time and its
+     * laps are ignored by the recorder as already seen.
+     */
+    private void readHistory(LapHistory history) throws IOException, InterruptedException {
+        while (true) {
+            final var uri = history.after == null
+                ? history.uri
+                : history.uri + "&after=" + URLEncoder.encode(history.after, StandardCharsets.US_ASCII);
+            final var body = send(HttpRequest.newBuilder(URI.create(uri)).timeout(REQUEST_TIMEOUT).build());
+            if (body == null) {
+                return;
+            }
+            final var page = objectMapper.readTree(body);
+            final var seenAt = System.nanoTime();
+            for (final var lap : page.path("laps")) {
+                recorder.recordVisible(lap.path("externalId").asInt(), seenAt);
+            }
+            final var nextCursor = page.path("nextCursor");
+            if (!nextCursor.isTextual()) {
+                return;
+            }
+            history.after = nextCursor.asText();
+        }
+    }
+
+    private byte @Nullable [] refresh(View view) throws IOException, InterruptedException {
+        final var builder = HttpRequest.newBuilder(view.uri).timeout(REQUEST_TIMEOUT);
+        if (view.etag != null) {
+            builder.header("If-None-Match", view.etag);
+        }
+        final var response = sendForResponse(builder.build());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        view.etag = response.headers().firstValue("ETag").orElse(null);
+        return response.body();
+    }
+
+    private byte @Nullable [] send(HttpRequest request) throws IOException, InterruptedException {
+        final var response = sendForResponse(request);
+        return response.statusCode() == 200 ? response.body() : null;
+    }
+
+    private HttpResponse<byte[]> sendForResponse(HttpRequest request) throws IOException, InterruptedException {
+        final var started = System.nanoTime();
+        try {
+            final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.recordRequest(response.statusCode(), System.nanoTime() - started, response.body().length);
+            return response;
+        } catch (IOException e) {
+            recorder.recordFailure();
+            throw e;
+        }
+    }
+
+    private long backoffMs(int failures) {
+        // doubles from the poll interval with every consecutive failure
+        final var base = Math.max(100, pollIntervalMs);
+        return Math.min(MAX_BACKOFF_MS, base << Math.min(failures - 1, 16));
+    }
+
+    private static final class View {
+
+        private final URI uri;
+        private @Nullable String etag;
+
+        private View(URI uri) {
+            this.uri = uri;
+        }
+    }
+
+    private static final class LapHistory {
+
+        private final String uri;
+        private @Nullable String after;
+        private boolean stale;
+
+        private LapHistory(String uri) {
+            this.uri = uri;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.lukashornych.miatapodium.loadgenerator.report;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link LatencyRecorder} verifying that every lap contributes at most one
+ * lap-to-visible sample and that requests and retried refreshes are counted by their outcome.
+ */
+@NullMarked
+class LatencyRecorderTest {
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    @Test
+    void recordVisible_shouldCountOnlyFirstSightingOfEmittedLaps() {
+        recorder.recordEmitted(1);
+        recorder.recordEmitted(2);
+        recorder.recordEmitted(3);
+        final var seenAt = System.nanoTime() + 5_000_000;
+
+        recorder.recordVisible(1, seenAt);
+        recorder.recordVisible(1, seenAt + 1_000_000_000);
+        recorder.recordVisible(2, seenAt);
+        // a lap never emitted, e.g. one stored before the run started
+        recorder.recordVisible(99, seenAt);
+
+        final var report = recorder.report(2.0, 1);
+        assertEquals(3, report.lapsEmitted());
+        assertEquals(2, report.lapsVisible());
+        assertEquals(1, report.lapsNeverVisible());
+        assertEquals(1.5, report.lapsPerSecond());
+        final var latency = report.lapToVisibleLatencyMs();
+        assertEquals(2, latency.count(), "Repeated sightings should not add samples");
+        assertTrue(latency.min() >= 5, "Latency should span from emission to the sighting");
+        assertTrue(latency.max() < 1_000, "Only the first sighting should be measured");
+    }
+
+    @Test
+    void recordRequest_shouldCountResponsesByStatusAndFailedPolls() {
+        recorder.recordRequest(200, 4_000_000, 1_000);
+        recorder.recordRequest(200, 2_000_000, 1_000);
+        recorder.recordRequest(304, 1_000_000, 0);
+        recorder.recordRequest(500, 3_000_000, 100);
+        recorder.recordFailure();
+        recorder.recordFailedPoll();
+
+        final var report = recorder.report(5.0, 10);
+        assertEquals(10, report.spectators());
+        assertEquals(5, report.requests());
+        assertEquals(2, report.okResponses());
+        assertEquals(1, report.notModifiedResponses());
+        assertEquals(2, report.failedRequests());
+        assertEquals(1, report.failedPolls(), "Retried refreshes should be counted apart from requests");
+        assertEquals(1.0, report.requestsPerSecond());
+        assertEquals(2_100, report.bytesReceived());
+        final var latency = report.requestLatencyMs();
+        assertEquals(4, latency.count(), "Requests without a response have no duration");
+        assertEquals(2.0, latency.p50());
+        assertEquals(4.0, latency.max());
+    }
+}
@@ -0,0 +1,66 @@
+package dev.lukashornych.miatapodium.loadgenerator.report;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit test for {@link LongSamples} verifying nearest-rank percentiles, scaling and growth
+ * beyond the initial capacity.
+ */
+@NullMarked
+class LongSamplesTest {
+
+    @Test
+    void summarize_shouldComputeNearestRankPercentiles() {
+        final var samples = new LongSamples();
+        // added in reverse to check that the summary does not depend on insertion order
+        for (int value = 100; value >= 1; value--) {
+            samples.add(value);
+        }
+
+        final var summary = samples.summarize(1);
+        assertEquals(100, summary.count());
+        assertEquals(1, summary.min());
+        assertEquals(50.5, summary.mean());
+        assertEquals(50, summary.p50());
+        assertEquals(90, summary.p90());
+        assertEquals(99, summary.p99());
+        assertEquals(100, summary.max());
+    }
+
+    @Test
+    void summarize_shouldScaleSamples() {
+        final var samples = new LongSamples();
+        samples.add(1_500_000);
+        samples.add(2_500_000);
+
+        final var summary = samples.summarize(1_000_000.0);
+        assertEquals(1.5, summary.min());
+        assertEquals(2.0, summary.mean());
+        assertEquals(1.5, summary.p50());
+        assertEquals(2.5, summary.p99());
+        assertEquals(2.5, summary.max());
+    }
+
+    @Test
+    void summarize_shouldKeepSamplesBeyondInitialCapacity() {
+        final var samples = new LongSamples();
+        for (int value = 0; value < 5_000; value++) {
+            samples.add(value);
+        }
+
+        final var summary = samples.summarize(1);
+        assertEquals(5_000, summary.count());
+        assertEquals(0, summary.min());
+        assertEquals(2_499, summary.p50());
+        assertEquals(4_949, summary.p99());
+        assertEquals(4_999, summary.max());
+    }
+
+    @Test
+    void summarize_shouldReturnZerosWithoutSamples() {
+        assertEquals(new LongSamples.Summary(0, 0, 0, 0, 0, 0, 0), new LongSamples().summarize(1_000_000.0));
+    }
+}
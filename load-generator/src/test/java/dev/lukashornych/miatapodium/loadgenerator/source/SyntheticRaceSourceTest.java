@@ -0,0 +1,115 @@
+package dev.lukashornych.miatapodium.loadgenerator.source;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link SyntheticRaceSource} verifying the pacing of the generated race: laps are
+ * released in race time order no later than they are due, every car keeps its lap times within
+ * the configured range, packs cross the line in bursts, and a seed reproduces the race exactly.
+ */
+@NullMarked
+class SyntheticRaceSourceTest {
+
+    private static final Instant START = Instant.parse("2025-09-13T10:00:00Z");
+    private static final int CARS = 12;
+    private static final int LAP_TIME_FROM_MS = 60_000;
+    private static final int LAP_TIME_TO_MS = 70_000;
+    private static final int BURST_SIZE = 4;
+    private static final int BURST_SPREAD_MS = 1_200;
+    // every car deviates from the lap time of its pack by up to 150 ms either way
+    private static final int JITTER_MS = 150;
+
+    @Test
+    void lapsDueUntil_shouldReleaseLapsInOrderOnceDue() {
+        final var source = source(42);
+        assertTrue(source.lapsDueUntil(START).isEmpty(), "No lap should be completed at the start");
+
+        final var released = new ArrayList<LapTime>();
+        for (var raceTime = START; raceTime.isBefore(START.plus(Duration.ofMinutes(10))); raceTime = raceTime.plusSeconds(7)) {
+            final var laps = source.lapsDueUntil(raceTime);
+            for (final var lap : laps) {
+                assertFalse(Instant.parse(lap.time()).isAfter(raceTime), "Lap should not be released before it is due");
+            }
+            released.addAll(laps);
+        }
+
+        for (int i = 1; i < released.size(); i++) {
+            final var previous = released.get(i - 1);
+            final var current = released.get(i);
+            assertFalse(Instant.parse(current.time()).isBefore(Instant.parse(previous.time())), "Laps should be released in race time order");
+            assertEquals(previous.id() + 1, current.id(), "Lap IDs should follow the release order");
+        }
+        // almost ten minutes of laps between 60 and 70 seconds, the first one delayed by up to 41 seconds of stagger
+        final var laps = released.stream().collect(Collectors.groupingBy(LapTime::rfidId));
+        assertEquals(CARS, laps.size());
+        laps.values().forEach(carLaps -> assertTrue(carLaps.size() >= 7 && carLaps.size() <= 9, "Unexpected lap count " + carLaps.size()));
+    }
+
+    @Test
+    void lapsDueUntil_shouldKeepCarsWithinLapTimeRange() {
+        final var source = source(7);
+        final var lastCrossing = new HashMap<Integer, LapTime>();
+        for (final var lap : source.lapsDueUntil(START.plus(Duration.ofHours(1)))) {
+            assertTrue(lap.lapTime() >= LAP_TIME_FROM_MS - JITTER_MS && lap.lapTime() <= LAP_TIME_TO_MS + JITTER_MS, "Lap time out of range: " + lap.lapTime());
+            assertEquals(lap.lapTime(), lap.s1() + lap.s2() + lap.s3(), "Sectors should add up to the lap time");
+            assertEquals(
+                Duration.between(Instant.parse(lap.timePrev()), Instant.parse(lap.time())).toMillis(),
+                lap.lapTime(),
+                "Lap should span from the previous crossing"
+            );
+
+            final var previous = lastCrossing.put(lap.rfidId(), lap);
+            if (previous != null) {
+                assertEquals(previous.time(), lap.timePrev(), "Next lap should start at the previous crossing");
+                assertEquals(previous.round() + 1, lap.round());
+            }
+        }
+    }
+
+    @Test
+    void lapsDueUntil_shouldReleasePacksInBursts() {
+        final var firstRound = source(42).lapsDueUntil(START.plusMillis(2L * LAP_TIME_TO_MS)).stream()
+            .filter(lap -> lap.round() == 0)
+            .toList();
+        assertEquals(CARS, firstRound.size());
+
+        // cars 101-104 form the first pack, 105-108 the second and so on
+        final var packs = firstRound.stream().collect(Collectors.groupingBy(lap -> (lap.rfidId() - 101) / BURST_SIZE));
+        assertEquals(CARS / BURST_SIZE, packs.size());
+        packs.values().forEach(pack -> {
+            final var crossings = pack.stream().map(lap -> Instant.parse(lap.time())).sorted().toList();
+            final var spreadMs = Duration.between(crossings.getFirst(), crossings.getLast()).toMillis();
+            assertTrue(spreadMs <= BURST_SPREAD_MS + 2 * JITTER_MS, "Pack should cross within the burst spread, took " + spreadMs + " ms");
+        });
+    }
+
+    @Test
+    void lapsDueUntil_shouldRepeatRaceOfSameSeed() {
+        final var end = START.plus(Duration.ofMinutes(15));
+        final var inOneStep = source(42).lapsDueUntil(end);
+
+        final var stepwise = source(42);
+        final var inSteps = new ArrayList<LapTime>();
+        for (var raceTime = START; !raceTime.isAfter(end); raceTime = raceTime.plusMillis(2_500)) {
+            inSteps.addAll(stepwise.lapsDueUntil(raceTime));
+        }
+
+        assertEquals(inOneStep, inSteps, "Pacing of the clock should not change the race");
+        assertFalse(inOneStep.equals(source(43).lapsDueUntil(end)), "Another seed should produce another race");
+    }
+
+    private static SyntheticRaceSource source(long seed) {
+        return new SyntheticRaceSource(1, "Synthetic Ring", START, CARS, LAP_TIME_FROM_MS, LAP_TIME_TO_MS, BURST_SIZE, BURST_SPREAD_MS, 60, seed);
+    }
+}
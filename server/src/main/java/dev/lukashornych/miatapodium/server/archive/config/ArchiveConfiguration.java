@@ -0,0 +1,69 @@
+package dev.lukashornych.miatapodium.server.archive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.archive.repository.RaceArchiveRepository;
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.archive.service.LapArchiveStore;
+import dev.lukashornych.miatapodium.server.archive.service.RaceArchivalService;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportService;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * Spring configuration for the archive module. Declares the archive file store, the read
+ * access to archived laps used by race- and racer-scoped reads, the scheduled archival job, and
+ * the startup indexing of racers of races archived before their racers were recorded.
+ */
+@NullMarked
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfiguration {
+
+    @Bean
+    RaceArchiveRepository raceArchiveRepository(JdbcClient jdbcClient) {
+        return new RaceArchiveRepository(jdbcClient);
+    }
+
+    @Bean
+    LapArchiveStore lapArchiveStore(ArchiveProperties properties, ObjectMapper objectMapper) {
+        return new LapArchiveStore(Path.of(properties.directory()).toAbsolutePath(), objectMapper);
+    }
+
+    @Bean
+    LapArchive lapArchive(RaceArchiveRepository raceArchiveRepository, LapArchiveStore lapArchiveStore) {
+        return new LapArchive(raceArchiveRepository, lapArchiveStore);
+    }
+
+    @Bean
+    RaceArchivalService raceArchivalService(
+        RaceArchiveRepository raceArchiveRepository,
+        LapArchiveStore lapArchiveStore,
+        LapArchive lapArchive,
+        LapExportService lapExportService,
+        PlatformTransactionManager transactionManager,
+        ArchiveProperties properties
+    ) {
+        return new RaceArchivalService(
+            raceArchiveRepository,
+            lapArchiveStore,
+            lapArchive,
+            lapExportService,
+            new TransactionTemplate(transactionManager),
+            properties.enabled(),
+            properties.retention()
+        );
+    }
+
+    @Bean
+    ApplicationRunner archivedRacersIndexer(RaceArchivalService raceArchivalService) {
+        return args -> raceArchivalService.indexArchivedRacers();
+    }
+}
@@ -0,0 +1,25 @@
+package dev.lukashornych.miatapodium.server.archive.config;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the archival of finished races.
+ * Bound from the {@code miatapodium.archive} prefix in application properties.
+ *
+ * @param enabled         whether finished races are archived automatically
+ * @param directory       the local directory holding the archive files
+ * @param retention       how long a race must receive no lap before it is considered finished
+ * @param checkIntervalMs the delay between two runs of the archival job
+ */
+@NullMarked
+@ConfigurationProperties(prefix = "miatapodium.archive")
+public record ArchiveProperties(
+    boolean enabled,
+    String directory,
+    Duration retention,
+    long checkIntervalMs
+) {
+}
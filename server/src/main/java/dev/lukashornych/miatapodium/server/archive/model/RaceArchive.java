@@ -0,0 +1,24 @@
+package dev.lukashornych.miatapodium.server.archive.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Instant;
+
+/**
+ * Record of a race whose laps were moved out of the {@code laps} table into an archive file.
+ *
+ * @param raceId     the surrogate ID of the race
+ * @param archivedAt the moment the race was archived
+ * @param path       the location of the archive file
+ * @param lapCount   the number of laps in the archive file
+ * @param sizeBytes  the size of the archive file
+ */
+@NullMarked
+public record RaceArchive(
+    long raceId,
+    Instant archivedAt,
+    String path,
+    int lapCount,
+    long sizeBytes
+) {
+}
@@ -0,0 +1,198 @@
+package dev.lukashornych.miatapodium.server.archive.repository;
+
+import dev.lukashornych.miatapodium.server.archive.model.RaceArchive;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for the archived races kept in {@code race_archives} and for the hot-table
+ * statements used while archiving a race.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class RaceArchiveRepository {
+
+    private static final String FIND_ALL_SQL = """
+        SELECT race_id, archived_at, path, lap_count, size_bytes
+        FROM race_archives
+        ORDER BY race_id
+        """;
+
+    // both lap subqueries are answered from the (race_id, time, id) keyset index
+    private static final String FIND_FINISHED_RACE_IDS_SQL = """
+        SELECT r.id
+        FROM races r
+        WHERE NOT EXISTS (SELECT 1 FROM race_archives a WHERE a.race_id = r.id)
+          AND EXISTS (SELECT 1 FROM laps l WHERE l.race_id = r.id)
+          AND NOT EXISTS (SELECT 1 FROM laps l WHERE l.race_id = r.id AND l.time >= :cutoff)
+        ORDER BY r.id
+        """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO race_archives (race_id, archived_at, path, lap_count, size_bytes)
+        VALUES (:raceId, :archivedAt, :path, :lapCount, :sizeBytes)
+        """;
+
+    private static final String INSERT_RACERS_FROM_LAPS_SQL = """
+        INSERT INTO race_archive_racers (racer_id, race_id)
+        SELECT DISTINCT racer_id, race_id
+        FROM laps
+        WHERE race_id = :raceId
+        """;
+
+    private static final String INSERT_RACER_SQL = """
+        INSERT INTO race_archive_racers (racer_id, race_id)
+        VALUES (:racerId, :raceId)
+        ON CONFLICT DO NOTHING
+        """;
+
+    private static final String FIND_RACE_IDS_WITHOUT_RACERS_SQL = """
+        SELECT a.race_id
+        FROM race_archives a
+        WHERE NOT EXISTS (SELECT 1 FROM race_archive_racers r WHERE r.race_id = a.race_id)
+        ORDER BY a.race_id
+        """;
+
+    private final JdbcClient jdbcClient;
+
+    /**
+     * Returns all archived races.
+     *
+     * @return the archived races ordered by race ID
+     */
+    public List<RaceArchive> findAll() {
+        return jdbcClient.sql(FIND_ALL_SQL)
+            .query((rs, rowNum) -> new RaceArchive(
+                rs.getLong("race_id"),
+                rs.getObject("archived_at", OffsetDateTime.class).toInstant(),
+                rs.getString("path"),
+                rs.getInt("lap_count"),
+                rs.getLong("size_bytes")
+            ))
+            .list();
+    }
+
+    /**
+     * Finds races that are not archived yet, have laps, and received no lap since the given moment.
+     *
+     * @param cutoff the moment after which a finished race has no laps
+     * @return the surrogate IDs of the finished races
+     */
+    public List<Long> findFinishedRaceIds(Instant cutoff) {
+        return jdbcClient.sql(FIND_FINISHED_RACE_IDS_SQL)
+            .param("cutoff", OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC))
+            .query(Long.class)
+            .list();
+    }
+
+    /**
+     * Stores the record of an archived race.
+     *
+     * @param archive the archived race
+     */
+    public void insert(RaceArchive archive) {
+        jdbcClient.sql(INSERT_SQL)
+            .param("raceId", archive.raceId())
+            .param("archivedAt", OffsetDateTime.ofInstant(archive.archivedAt(), ZoneOffset.UTC))
+            .param("path", archive.path())
+            .param("lapCount", archive.lapCount())
+            .param("sizeBytes", archive.sizeBytes())
+            .update();
+    }
+
+    /**
+     * Records the racers of the race from its laps still stored in the {@code laps} table.
+     * Must run in the transaction archiving the race, before its laps are deleted.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the number of recorded racers
+     */
+    public int insertRacersFromLaps(long raceId) {
+        return jdbcClient.sql(INSERT_RACERS_FROM_LAPS_SQL)
+            .param("raceId", raceId)
+            .update();
+    }
+
+    /**
+     * Records the racers of an archived race, skipping the ones already recorded.
+     *
+     * @param raceId   the surrogate ID of the race
+     * @param racerIds the surrogate IDs of the racers
+     */
+    public void insertRacers(long raceId, Collection<Long> racerIds) {
+        for (final var racerId : racerIds) {
+            jdbcClient.sql(INSERT_RACER_SQL)
+                .param("racerId", racerId)
+                .param("raceId", raceId)
+                .update();
+        }
+    }
+
+    /**
+     * Finds the archived races the racer drove a lap in.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @return the surrogate IDs of the races in ascending order
+     */
+    public List<Long> findRaceIdsByRacerId(long racerId) {
+        return jdbcClient.sql("SELECT race_id FROM race_archive_racers WHERE racer_id = :racerId ORDER BY race_id")
+            .param("racerId", racerId)
+            .query(Long.class)
+            .list();
+    }
+
+    /**
+     * Finds archived races without recorded racers, i.e. the ones archived before racers were recorded.
+     *
+     * @return the surrogate IDs of the races in ascending order
+     */
+    public List<Long> findRaceIdsWithoutRacers() {
+        return jdbcClient.sql(FIND_RACE_IDS_WITHOUT_RACERS_SQL)
+            .query(Long.class)
+            .list();
+    }
+
+    /**
+     * Counts the laps of the race still stored in the {@code laps} table.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the number of laps
+     */
+    public long countLaps(long raceId) {
+        return jdbcClient.sql("SELECT COUNT(*) FROM laps WHERE race_id = :raceId")
+            .param("raceId", raceId)
+            .query(Long.class)
+            .single();
+    }
+
+    /**
+     * Deletes all laps of the race from the {@code laps} table.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the number of deleted laps
+     */
+    public int deleteLaps(long raceId) {
+        return jdbcClient.sql("DELETE FROM laps WHERE race_id = :raceId")
+            .param("raceId", raceId)
+            .update();
+    }
+
+    /**
+     * Deletes all standings checkpoints of the race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the number of deleted checkpoints
+     */
+    public int deleteStandingsCheckpoints(long raceId) {
+        return jdbcClient.sql("DELETE FROM standings_checkpoints WHERE race_id = :raceId")
+            .param("raceId", raceId)
+            .update();
+    }
+}
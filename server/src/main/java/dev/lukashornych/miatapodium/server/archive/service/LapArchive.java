@@ -0,0 +1,178 @@
+package dev.lukashornych.miatapodium.server.archive.service;
+
+import dev.lukashornych.miatapodium.server.archive.repository.RaceArchiveRepository;
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.service.LapStreams;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Read access to the laps of archived races. Race-scoped reads ask this component first and
+ * fall back to the {@code laps} table only for races that are not archived, so archived races
+ * are served transparently from their archive files.
+ *
+ * <p>The set of archived races is loaded once from {@code race_archives} and then kept up to
+ * date by {@link RaceArchivalService}. Racer-scoped reads open only the archives of the races
+ * the racer drove in, as recorded in {@code race_archive_racers}, and merge them by position. Archives are decoded while they are read, so a read never
+ * holds a whole race in memory.
+ */
+@NullMarked
+@Slf4j
+public class LapArchive {
+
+    private final RaceArchiveRepository archiveRepository;
+    private final LapArchiveStore store;
+    private final Map<Long, Path> archivedRaces = new ConcurrentHashMap<>();
+    private final Map<Long, int[]> archivedExternalIds = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public LapArchive(RaceArchiveRepository archiveRepository, LapArchiveStore store) {
+        this.archiveRepository = archiveRepository;
+        this.store = store;
+    }
+
+    /**
+     * Checks whether the race is archived.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return {@code true} if the laps of the race are served from its archive file
+     */
+    public boolean isArchived(long raceId) {
+        return archivedRaces().containsKey(raceId);
+    }
+
+    /**
+     * Checks whether the archive of the race contains the lap. The upstream IDs of an archive
+     * are read on the first check and then kept, which stays cheap as upstream resends only the
+     * laps of recent races.
+     *
+     * @param raceId     the surrogate ID of the race
+     * @param externalId the upstream ID of the lap
+     * @return {@code true} if the race is archived and its archive contains the lap
+     */
+    public boolean containsLap(long raceId, int externalId) {
+        final var path = archivedRaces().get(raceId);
+        if (path == null) {
+            return false;
+        }
+        final var externalIds = archivedExternalIds.computeIfAbsent(raceId, id -> store.externalIds(path));
+        return Arrays.binarySearch(externalIds, externalId) >= 0;
+    }
+
+    /**
+     * Streams all laps of an archived race. The returned stream holds the archive file open and
+     * must be closed.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the laps in {@code (time, id)} order, or {@code null} if the race is not archived
+     */
+    public @Nullable Stream<LapView> streamLaps(long raceId) {
+        return streamLaps(raceId, null);
+    }
+
+    /**
+     * Streams the laps of an archived race positioned after the cursor. The returned stream
+     * holds the archive file open and must be closed.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param after  the position to continue after, or {@code null} to start with the first lap
+     * @return the laps in {@code (time, id)} order, or {@code null} if the race is not archived
+     */
+    public @Nullable Stream<LapView> streamLaps(long raceId, @Nullable LapCursor after) {
+        final var path = archivedRaces().get(raceId);
+        if (path == null) {
+            return null;
+        }
+        log.debug("Streaming archived laps of race {} after {}", raceId, after);
+        return store.stream(path, after);
+    }
+
+    /**
+     * Streams the laps of the racer in all archived races the racer drove in, after the cursor.
+     * The returned stream holds the archive files open and must be closed.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @param after   the position to continue after, or {@code null} to start with the first lap
+     * @return the racer's archived laps in {@code (time, id)} order, empty if none of them are archived
+     */
+    public Stream<LapView> streamRacerLaps(long racerId, @Nullable LapCursor after) {
+        final var races = new ArrayList<Stream<LapView>>();
+        try {
+            for (final var raceId : archiveRepository.findRaceIdsByRacerId(racerId)) {
+                final var path = archivedRaces().get(raceId);
+                if (path != null) {
+                    races.add(store.streamRacer(path, racerId, after));
+                }
+            }
+        } catch (RuntimeException e) {
+            races.forEach(Stream::close);
+            throw e;
+        }
+        log.debug("Streaming archived laps of racer {} from {} races after {}", racerId, races.size(), after);
+        return LapStreams.mergeByPosition(races);
+    }
+
+    /**
+     * Streams the laps of all archived races, race by race in ascending race ID order and each
+     * race in {@code (time, id)} order. Only one archive file is open at a time, and the returned
+     * stream must be closed.
+     *
+     * @param raceIds the archived races to stream, as returned by {@link #archivedRaceIds()}
+     * @return the laps of the races
+     */
+    public Stream<LapView> streamLaps(Collection<Long> raceIds) {
+        return raceIds.stream()
+            .sorted()
+            .flatMap(raceId -> {
+                final var path = archivedRaces().get(raceId);
+                return path == null ? Stream.empty() : store.stream(path, null);
+            });
+    }
+
+    /**
+     * Returns the races archived at the moment of the call.
+     *
+     * @return the surrogate IDs of the archived races
+     */
+    public Set<Long> archivedRaceIds() {
+        return Set.copyOf(archivedRaces().keySet());
+    }
+
+    @Nullable Path pathOf(long raceId) {
+        return archivedRaces().get(raceId);
+    }
+
+    void register(long raceId, Path path) {
+        archivedRaces().put(raceId, path);
+    }
+
+    void unregister(long raceId) {
+        archivedRaces.remove(raceId);
+        archivedExternalIds.remove(raceId);
+    }
+
+    private Map<Long, Path> archivedRaces() {
+        if (!loaded) {
+            synchronized (archivedRaces) {
+                if (!loaded) {
+                    for (final var archive : archiveRepository.findAll()) {
+                        archivedRaces.putIfAbsent(archive.raceId(), Path.of(archive.path()));
+                    }
+                    loaded = true;
+                }
+            }
+        }
+        return archivedRaces;
+    }
+}
@@ -0,0 +1,242 @@
+package dev.lukashornych.miatapodium.server.archive.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local-disk storage of race archives. Each archived race is a single gzip-compressed
+ * newline-delimited JSON file holding the race's laps as {@link LapView}s in {@code (time, id)} order.
+ *
+ * <p>Files are first written under a temporary name and then atomically moved into place, so
+ * a crash mid-write never leaves a truncated archive behind under the final name.
+ */
+@NullMarked
+public class LapArchiveStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final ObjectReader lapReader;
+    private final ObjectReader positionReader;
+
+    public LapArchiveStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.lapReader = objectMapper.readerFor(LapView.class);
+        this.positionReader = objectMapper.readerFor(LapPosition.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Returns the location of the archive file of the race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the archive file path
+     */
+    public Path pathOf(long raceId) {
+        return directory.resolve("race-" + raceId + ".ndjson.gz");
+    }
+
+    /**
+     * Writes the archive file of the race.
+     *
+     * @param raceId  the surrogate ID of the race
+     * @param content writes the uncompressed laps to the given stream and returns their count
+     * @return the number of laps written by {@code content}
+     */
+    public long write(long raceId, ToLongFunction<OutputStream> content) {
+        try {
+            Files.createDirectories(directory);
+            final var temp = Files.createTempFile(directory, "race-" + raceId + "-", ".tmp");
+            try {
+                final long count;
+                try (final var out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE), BUFFER_SIZE)) {
+                    count = content.applyAsLong(out);
+                }
+                Files.move(temp, pathOf(raceId), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return count;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts the laps in an archive file by decompressing it, without deserializing the laps.
+     *
+     * @param path the archive file
+     * @return the number of laps
+     */
+    public long countLaps(Path path) {
+        try (final var reader = open(path)) {
+            long count = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    count++;
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Streams the laps of an archive file, decoding one line at a time. The returned stream
+     * holds the file open and must be closed.
+     *
+     * <p>Laps at or before the cursor are skipped decoding only their position, so a page deep
+     * into a race costs one pass over the file but never holds more than the requested laps.
+     *
+     * @param path  the archive file
+     * @param after the position to continue after, or {@code null} to start with the first lap
+     * @return the laps in {@code (time, id)} order
+     */
+    public Stream<LapView> stream(Path path, @Nullable LapCursor after) {
+        return stream(path, after, null);
+    }
+
+    /**
+     * Streams the laps of a single racer in an archive file. Laps of other racers are skipped
+     * decoding only their position. The returned stream holds the file open and must be closed.
+     *
+     * @param path    the archive file
+     * @param racerId the surrogate ID of the racer
+     * @param after   the position to continue after, or {@code null} to start with the first lap
+     * @return the racer's laps in {@code (time, id)} order
+     */
+    public Stream<LapView> streamRacer(Path path, long racerId, @Nullable LapCursor after) {
+        return stream(path, after, racerId);
+    }
+
+    /**
+     * Collects the racers that drove a lap in an archive file, decoding only the lap positions.
+     *
+     * @param path the archive file
+     * @return the surrogate IDs of the racers
+     */
+    public Set<Long> racerIds(Path path) {
+        try (final var positions = lines(path).map(line -> decode(line, positionReader))) {
+            return positions.map(LapPosition::racerId).collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Collects the upstream IDs of the laps in an archive file, decoding only the lap positions.
+     *
+     * @param path the archive file
+     * @return the upstream lap IDs in ascending order
+     */
+    public int[] externalIds(Path path) {
+        try (final var positions = lines(path).map(line -> decode(line, positionReader))) {
+            return positions.mapToInt(LapPosition::externalId).sorted().toArray();
+        }
+    }
+
+    /**
+     * Returns the size of an archive file.
+     *
+     * @param path the archive file
+     * @return the size in bytes
+     */
+    public long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the archive file of the race, if it exists.
+     *
+     * @param raceId the surrogate ID of the race
+     */
+    public void delete(long raceId) {
+        try {
+            Files.deleteIfExists(pathOf(raceId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Stream<LapView> stream(Path path, @Nullable LapCursor after, @Nullable Long racerId) {
+        var lines = lines(path);
+        if (after != null) {
+            lines = lines.dropWhile(line -> !isAfter(decode(line, positionReader), after));
+        }
+        if (racerId != null) {
+            lines = lines.filter(line -> decode(line, positionReader).racerId() == racerId);
+        }
+        return lines.map(line -> decode(line, lapReader));
+    }
+
+    private static Stream<String> lines(Path path) {
+        final BufferedReader reader;
+        try {
+            reader = open(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return reader.lines()
+            .filter(line -> !line.isEmpty())
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    private static boolean isAfter(LapPosition lap, LapCursor cursor) {
+        final var comparison = lap.time().compareTo(cursor.time());
+        return comparison > 0 || (comparison == 0 && lap.id() > cursor.id());
+    }
+
+    private static <T> T decode(String line, ObjectReader reader) {
+        try {
+            return reader.readValue(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedReader open(Path path) throws IOException {
+        return new BufferedReader(
+            new InputStreamReader(new GZIPInputStream(Files.newInputStream(path), BUFFER_SIZE), StandardCharsets.UTF_8),
+            BUFFER_SIZE
+        );
+    }
+
+    /**
+     * Position, racer and upstream ID of an archived lap, decoded without the rest of the lap.
+     */
+    record LapPosition(long id, Instant time, long racerId, int externalId) {
+    }
+}
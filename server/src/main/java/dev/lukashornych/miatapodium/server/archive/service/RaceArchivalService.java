@@ -0,0 +1,136 @@
+package dev.lukashornych.miatapodium.server.archive.service;
+
+import dev.lukashornych.miatapodium.server.archive.model.RaceArchive;
+import dev.lukashornych.miatapodium.server.archive.repository.RaceArchiveRepository;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportFormat;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Retention job moving the laps of finished races out of the {@code laps} table, keeping the
+ * hot table and its indexes limited to races that are still running.
+ *
+ * <p>A race is finished once it received no lap for the configured retention period. Its laps
+ * are exported into a compressed archive file, the file is read back and its lap count is
+ * checked against the table, and only then are the race's laps and standings checkpoints
+ * deleted, in the same transaction that records the archive. Any mismatch leaves the race in
+ * the hot table to be retried by the next run. Lap charts and career statistics are derived
+ * tables and stay in the database; they are maintained incrementally, so they keep counting the
+ * laps of archived races. A rebuild of career statistics reads archived races from their archives.
+ *
+ * <p>The job runs on the scheduler thread shared with lap ingestion, so it never overlaps an
+ * ingestion run. Once a race is archived, ingestion skips any lap of it still sent by upstream.
+ */
+@NullMarked
+@Slf4j
+@RequiredArgsConstructor
+public class RaceArchivalService {
+
+    private final RaceArchiveRepository archiveRepository;
+    private final LapArchiveStore store;
+    private final LapArchive lapArchive;
+    private final LapExportService lapExportService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+
+    /**
+     * Archives every race that received no lap for the retention period.
+     * Runs on a fixed delay configured via {@code miatapodium.archive.check-interval-ms}.
+     */
+    @Scheduled(
+        fixedDelayString = "${miatapodium.archive.check-interval-ms}",
+        initialDelayString = "${miatapodium.archive.check-interval-ms}"
+    )
+    public void archiveFinishedRaces() {
+        if (!enabled) {
+            return;
+        }
+        final var raceIds = archiveRepository.findFinishedRaceIds(Instant.now().minus(retention));
+        for (final var raceId : raceIds) {
+            try {
+                archiveRace(raceId);
+            } catch (RuntimeException e) {
+                log.error("Failed to archive race {}", raceId, e);
+            }
+        }
+    }
+
+    /**
+     * Archives the race regardless of when it received its last lap.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return {@code true} if the race was archived, {@code false} if it had no laps or its archive failed verification
+     */
+    public boolean archiveRace(long raceId) {
+        final var expected = archiveRepository.countLaps(raceId);
+        if (expected == 0) {
+            return false;
+        }
+
+        final var path = store.pathOf(raceId);
+        final var exported = store.write(raceId, out -> lapExportService.exportRaceLaps(raceId, LapExportFormat.NDJSON, out));
+        final var stored = store.countLaps(path);
+        if (exported != expected || stored != expected) {
+            log.error(
+                "Archive of race {} failed verification: {} laps in table, {} exported, {} stored, keeping laps in table",
+                raceId, expected, exported, stored
+            );
+            store.delete(raceId);
+            return false;
+        }
+        final var sizeBytes = store.size(path);
+
+        // readers switch to the archive before the laps disappear from the table
+        lapArchive.register(raceId, path);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                archiveRepository.insert(new RaceArchive(raceId, Instant.now(), path.toString(), (int) expected, sizeBytes));
+                archiveRepository.insertRacersFromLaps(raceId);
+                archiveRepository.deleteStandingsCheckpoints(raceId);
+                final var deleted = archiveRepository.deleteLaps(raceId);
+                if (deleted != expected) {
+                    throw new IllegalStateException(
+                        "Race " + raceId + " received laps while being archived, expected " + expected + " but deleted " + deleted
+                    );
+                }
+            });
+        } catch (RuntimeException e) {
+            lapArchive.unregister(raceId);
+            store.delete(raceId);
+            throw e;
+        }
+
+        log.info("Archived {} laps of race {} into {} ({} bytes)", expected, raceId, path, sizeBytes);
+        return true;
+    }
+
+    /**
+     * Records the racers of archived races that have none recorded, reading them from the
+     * archive files. Races archived since racers are recorded are skipped, so after the first
+     * run this only checks that nothing is left to index.
+     *
+     * @return the number of indexed races
+     */
+    public int indexArchivedRacers() {
+        int indexed = 0;
+        for (final var raceId : archiveRepository.findRaceIdsWithoutRacers()) {
+            final var path = lapArchive.pathOf(raceId);
+            if (path == null) {
+                continue;
+            }
+            final var racerIds = store.racerIds(path);
+            transactionTemplate.executeWithoutResult(status -> archiveRepository.insertRacers(raceId, racerIds));
+            log.info("Indexed {} racers of archived race {}", racerIds.size(), raceId);
+            indexed++;
+        }
+        return indexed;
+    }
+}
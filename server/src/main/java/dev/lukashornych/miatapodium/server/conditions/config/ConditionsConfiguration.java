@@ -0,0 +1,32 @@
+package dev.lukashornych.miatapodium.server.conditions.config;
+
+import dev.lukashornych.miatapodium.server.conditions.repository.TrackConditionReadingRepository;
+import dev.lukashornych.miatapodium.server.conditions.service.TrackConditionsService;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+/**
+ * Spring configuration for the track conditions module. Declares the reading repository
+ * and the service recording and serving the conditions time series.
+ */
+@NullMarked
+@Configuration
+@EnableConfigurationProperties(ConditionsProperties.class)
+public class ConditionsConfiguration {
+
+    @Bean
+    TrackConditionReadingRepository trackConditionReadingRepository(JdbcClient jdbcClient) {
+        return new TrackConditionReadingRepository(jdbcClient);
+    }
+
+    @Bean
+    TrackConditionsService trackConditionsService(
+        TrackConditionReadingRepository trackConditionReadingRepository,
+        ConditionsProperties properties
+    ) {
+        return new TrackConditionsService(trackConditionReadingRepository, properties.chartMaxPoints());
+    }
+}
@@ -0,0 +1,17 @@
+package dev.lukashornych.miatapodium.server.conditions.config;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the track conditions time series.
+ * Bound from the {@code miatapodium.conditions} prefix in application properties.
+ *
+ * @param chartMaxPoints the default and maximum number of readings returned by a conditions chart
+ */
+@NullMarked
+@ConfigurationProperties(prefix = "miatapodium.conditions")
+public record ConditionsProperties(
+    int chartMaxPoints
+) {
+}
@@ -0,0 +1,68 @@
+package dev.lukashornych.miatapodium.server.conditions.controller;
+
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditionReading;
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditionsChartResponse;
+import dev.lukashornych.miatapodium.server.conditions.service.TrackConditionsService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+
+/**
+ * REST controller serving the track conditions time series of a race.
+ */
+@NullMarked
+@RestController
+@RequestMapping("/api/races/{raceId}/conditions")
+@RequiredArgsConstructor
+public class TrackConditionsController {
+
+    private final TrackConditionsService trackConditionsService;
+
+    /**
+     * Returns the track conditions of a race over a time range.
+     *
+     * @param raceId    the surrogate ID of the race
+     * @param from      the start of the range as an ISO-8601 instant, or the start of the race if omitted
+     * @param to        the end of the range as an ISO-8601 instant, or the end of the race if omitted
+     * @param maxPoints the maximum number of returned readings
+     * @return the conditions chart
+     */
+    @GetMapping
+    public TrackConditionsChartResponse chart(
+        @PathVariable long raceId,
+        @RequestParam(required = false) @Nullable Instant from,
+        @RequestParam(required = false) @Nullable Instant to,
+        @RequestParam(required = false) @Nullable Integer maxPoints
+    ) {
+        try {
+            return trackConditionsService.chart(raceId, from, to, maxPoints);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the track conditions of a race at the given moment.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param time   the moment, as an ISO-8601 instant
+     * @return the reading current at the moment
+     */
+    @GetMapping("/at")
+    public TrackConditionReading conditionsAt(@PathVariable long raceId, @RequestParam Instant time) {
+        return trackConditionsService.conditionsAt(raceId, time)
+            .orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "Race " + raceId + " has no track conditions at " + time
+            ));
+    }
+}
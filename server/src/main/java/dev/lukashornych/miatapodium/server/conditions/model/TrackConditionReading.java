@@ -0,0 +1,56 @@
+package dev.lukashornych.miatapodium.server.conditions.model;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A single reading of the track conditions of a race, valid from its time until the next reading.
+ *
+ * @param time      the moment the conditions were first reported
+ * @param airTemp   the ambient air temperature, or {@code null} if not reported
+ * @param trackTemp the track surface temperature, or {@code null} if not reported
+ * @param humidity  the relative humidity, or {@code null} if not reported
+ */
+@NullMarked
+public record TrackConditionReading(
+    Instant time,
+    @Nullable Float airTemp,
+    @Nullable Float trackTemp,
+    @Nullable Float humidity
+) {
+
+    /**
+     * Creates a reading of the given conditions.
+     *
+     * @param time       the moment the conditions were reported
+     * @param conditions the conditions
+     * @return the reading
+     */
+    public static TrackConditionReading of(Instant time, TrackConditions conditions) {
+        return new TrackConditionReading(time, conditions.airTemp(), conditions.trackTemp(), conditions.humidity());
+    }
+
+    /**
+     * Returns the same conditions reported at another moment.
+     *
+     * @param time the moment the conditions were reported
+     * @return the reading
+     */
+    public TrackConditionReading at(Instant time) {
+        return new TrackConditionReading(time, airTemp, trackTemp, humidity);
+    }
+
+    /**
+     * Returns the conditions of this reading.
+     *
+     * @return the conditions, or {@code null} if any of them was not reported
+     */
+    public @Nullable TrackConditions conditions() {
+        if (airTemp == null || trackTemp == null || humidity == null) {
+            return null;
+        }
+        return new TrackConditions(airTemp, trackTemp, humidity);
+    }
+}
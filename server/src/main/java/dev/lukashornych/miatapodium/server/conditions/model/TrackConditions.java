@@ -1,9 +1,9 @@
-package dev.lukashornych.miatapodium.server.lap.model;
+package dev.lukashornych.miatapodium.server.conditions.model;
 
 import org.jspecify.annotations.NullMarked;
 
 /**
- * Embedded value object representing the environmental conditions during a lap.
+ * Value object representing the environmental conditions at a racetrack.
  * Captures ambient air temperature, track surface temperature, and relative humidity.
  */
 @NullMarked
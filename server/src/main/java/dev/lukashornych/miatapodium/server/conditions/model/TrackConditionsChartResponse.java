@@ -0,0 +1,20 @@
+package dev.lukashornych.miatapodium.server.conditions.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+
+/**
+ * Track conditions of a race over time, suitable for charting.
+ *
+ * @param raceId      the surrogate ID of the race
+ * @param downsampled whether readings were averaged into time buckets to fit the point limit
+ * @param readings    the readings in time order; the first one is the reading current at the start of the range
+ */
+@NullMarked
+public record TrackConditionsChartResponse(
+    long raceId,
+    boolean downsampled,
+    List<TrackConditionReading> readings
+) {
+}
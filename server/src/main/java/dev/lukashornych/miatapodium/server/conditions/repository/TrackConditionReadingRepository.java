@@ -0,0 +1,151 @@
+package dev.lukashornych.miatapodium.server.conditions.repository;
+
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditionReading;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the track condition time series kept in {@code track_condition_readings}.
+ * Every lookup is a range or backward scan of the {@code (race_id, time)} primary key, or of the
+ * {@code (race_id, time, id)} index of laps.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class TrackConditionReadingRepository {
+
+    private static final String FIND_AT_SQL = """
+        SELECT time, air_temp, track_temp, humidity
+        FROM track_condition_readings
+        WHERE race_id = :raceId AND time <= :at
+        ORDER BY time DESC
+        LIMIT 1
+        """;
+
+    private static final String FIND_LATEST_SQL = """
+        SELECT time, air_temp, track_temp, humidity
+        FROM track_condition_readings
+        WHERE race_id = :raceId
+        ORDER BY time DESC
+        LIMIT 1
+        """;
+
+    private static final String FIND_BETWEEN_SQL = """
+        SELECT time, air_temp, track_temp, humidity
+        FROM track_condition_readings
+        WHERE race_id = :raceId AND time > :from AND time <= :to
+        ORDER BY time
+        """;
+
+    private static final String FIND_NEXT_LAP_TIME_SQL = """
+        SELECT time
+        FROM laps
+        WHERE race_id = :raceId AND time > :after
+        ORDER BY time
+        LIMIT 1
+        """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO track_condition_readings (race_id, time, air_temp, track_temp, humidity)
+        VALUES (:raceId, :time, :airTemp, :trackTemp, :humidity)
+        ON CONFLICT (race_id, time) DO NOTHING
+        """;
+
+    private static final RowMapper<TrackConditionReading> ROW_MAPPER = (rs, rowNum) -> new TrackConditionReading(
+        rs.getObject("time", OffsetDateTime.class).toInstant(),
+        rs.getObject("air_temp", Float.class),
+        rs.getObject("track_temp", Float.class),
+        rs.getObject("humidity", Float.class)
+    );
+
+    private final JdbcClient jdbcClient;
+
+    /**
+     * Finds the reading of the race current at the given moment.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param at     the moment
+     * @return the latest reading at or before the moment, if any
+     */
+    public Optional<TrackConditionReading> findAt(long raceId, Instant at) {
+        return jdbcClient.sql(FIND_AT_SQL)
+            .param("raceId", raceId)
+            .param("at", toOffsetDateTime(at))
+            .query(ROW_MAPPER)
+            .optional();
+    }
+
+    /**
+     * Finds the latest reading of the race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the latest reading, if any
+     */
+    public Optional<TrackConditionReading> findLatest(long raceId) {
+        return jdbcClient.sql(FIND_LATEST_SQL)
+            .param("raceId", raceId)
+            .query(ROW_MAPPER)
+            .optional();
+    }
+
+    /**
+     * Finds the readings of the race taken after {@code from} and at or before {@code to}.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param from   the start of the range, exclusive
+     * @param to     the end of the range, inclusive
+     * @return the readings in time order
+     */
+    public List<TrackConditionReading> findBetween(long raceId, Instant from, Instant to) {
+        return jdbcClient.sql(FIND_BETWEEN_SQL)
+            .param("raceId", raceId)
+            .param("from", toOffsetDateTime(from))
+            .param("to", toOffsetDateTime(to))
+            .query(ROW_MAPPER)
+            .list();
+    }
+
+    /**
+     * Finds the completion time of the first stored lap of the race completed after the given moment.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param after  the moment, exclusive
+     * @return the completion time of the lap, if any
+     */
+    public Optional<Instant> findNextLapTime(long raceId, Instant after) {
+        return jdbcClient.sql(FIND_NEXT_LAP_TIME_SQL)
+            .param("raceId", raceId)
+            .param("after", toOffsetDateTime(after))
+            .query((rs, rowNum) -> rs.getObject("time", OffsetDateTime.class).toInstant())
+            .optional();
+    }
+
+    /**
+     * Stores a reading unless the race already has a reading at the same time, which is kept
+     * as the stored laps completed at that time resolved their conditions from it.
+     *
+     * @param raceId  the surrogate ID of the race
+     * @param reading the reading
+     * @return {@code true} if the reading was stored
+     */
+    public boolean insertIfAbsent(long raceId, TrackConditionReading reading) {
+        return jdbcClient.sql(INSERT_SQL)
+            .param("raceId", raceId)
+            .param("time", toOffsetDateTime(reading.time()))
+            .param("airTemp", reading.airTemp())
+            .param("trackTemp", reading.trackTemp())
+            .param("humidity", reading.humidity())
+            .update() > 0;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
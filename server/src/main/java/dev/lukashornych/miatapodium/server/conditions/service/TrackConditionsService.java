@@ -0,0 +1,199 @@
+package dev.lukashornych.miatapodium.server.conditions.service;
+
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditionReading;
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditions;
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditionsChartResponse;
+import dev.lukashornych.miatapodium.server.conditions.repository.TrackConditionReadingRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Service maintaining the track conditions time series of races.
+ *
+ * <p>Upstream reports the conditions with every lap, although they are the same for every car
+ * and change only every few minutes. A reading is stored only when the reported conditions
+ * differ from the reading current at the lap's time, so the series holds exactly the changes.
+ * The latest reading of every race is cached in memory, so an unchanged report costs a map
+ * lookup. The cache is dropped when the ingest transaction rolls back.
+ *
+ * <p>The conditions of a lap are the reading of its race current at the lap's time. Stored
+ * readings are never rewritten, so the conditions of a stored lap stay those reported with it;
+ * when laps completed at the same moment report different conditions, the first report is kept.
+ * Charts of long sessions are downsampled when they are read.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class TrackConditionsService {
+
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final TrackConditionReadingRepository readingRepository;
+    private final int chartMaxPoints;
+    private final Map<Long, Optional<TrackConditionReading>> latestReadings = new ConcurrentHashMap<>();
+
+    /**
+     * Records the conditions reported with a lap. Must be called inside the ingest transaction.
+     *
+     * @param raceId     the surrogate ID of the race
+     * @param time       the time the lap was completed
+     * @param conditions the reported conditions
+     */
+    public void record(long raceId, Instant time, TrackConditions conditions) {
+        dropCacheOnRollback();
+        final var latest = latestReadings.computeIfAbsent(raceId, readingRepository::findLatest).orElse(null);
+
+        if (latest != null && time.isBefore(latest.time())) {
+            recordLate(raceId, time, conditions);
+            return;
+        }
+        if (latest != null && (latest.time().equals(time) || conditions.equals(latest.conditions()))) {
+            // unchanged, or the reading first reported at this moment is kept
+            return;
+        }
+        final var reading = TrackConditionReading.of(time, conditions);
+        if (readingRepository.insertIfAbsent(raceId, reading)) {
+            latestReadings.put(raceId, Optional.of(reading));
+        } else {
+            // a reading of this moment is already stored, it is loaded again by the next report
+            latestReadings.remove(raceId);
+        }
+    }
+
+    /**
+     * Records the conditions of a lap arriving out of order. The reading inserted at the lap's
+     * time would also apply to the stored laps completed after it, so the conditions current
+     * before the insert are restored at the next stored lap, unless another reading starts by then.
+     */
+    private void recordLate(long raceId, Instant time, TrackConditions conditions) {
+        final var current = readingRepository.findAt(raceId, time).orElse(null);
+        if (current != null && (current.time().equals(time) || conditions.equals(current.conditions()))) {
+            // unchanged, or a stored lap completed at the same moment already reported the conditions
+            return;
+        }
+        readingRepository.insertIfAbsent(raceId, TrackConditionReading.of(time, conditions));
+        if (current == null) {
+            // every stored lap is completed at or after the first reading, which follows this one
+            return;
+        }
+        readingRepository.findNextLapTime(raceId, time)
+            .filter(nextLapTime -> readingRepository.findBetween(raceId, time, nextLapTime).isEmpty())
+            .ifPresent(nextLapTime -> readingRepository.insertIfAbsent(raceId, current.at(nextLapTime)));
+    }
+
+    /**
+     * Returns the conditions of the race at the given moment.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param at     the moment
+     * @return the reading current at the moment, if the race has any reading at or before it
+     */
+    public Optional<TrackConditionReading> conditionsAt(long raceId, Instant at) {
+        return readingRepository.findAt(raceId, at);
+    }
+
+    /**
+     * Returns the conditions of the race over a time range. When the range holds more readings
+     * than {@code maxPoints}, readings are averaged into equally long time buckets.
+     *
+     * @param raceId    the surrogate ID of the race
+     * @param from      the start of the range, or {@code null} for the start of the race
+     * @param to        the end of the range, or {@code null} for the end of the race
+     * @param maxPoints the maximum number of returned readings, or {@code null} for the configured maximum
+     * @return the conditions chart
+     */
+    public TrackConditionsChartResponse chart(
+        long raceId,
+        @Nullable Instant from,
+        @Nullable Instant to,
+        @Nullable Integer maxPoints
+    ) {
+        final var start = from == null ? Instant.EPOCH : from;
+        final var end = to == null ? END_OF_TIME : to;
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Range end " + end + " is before its start " + start);
+        }
+        if (maxPoints != null && maxPoints < 1) {
+            throw new IllegalArgumentException("Point limit must be positive, got " + maxPoints);
+        }
+        final var limit = maxPoints == null ? chartMaxPoints : Math.min(maxPoints, chartMaxPoints);
+
+        final var readings = new ArrayList<TrackConditionReading>();
+        readingRepository.findAt(raceId, start).ifPresent(readings::add);
+        readings.addAll(readingRepository.findBetween(raceId, start, end));
+        if (readings.size() <= limit) {
+            return new TrackConditionsChartResponse(raceId, false, readings);
+        }
+        return new TrackConditionsChartResponse(raceId, true, downsample(readings, limit));
+    }
+
+    private static List<TrackConditionReading> downsample(List<TrackConditionReading> readings, int buckets) {
+        final var first = readings.getFirst().time();
+        final var span = Duration.between(first, readings.getLast().time()).toMillis() + 1;
+        final var downsampled = new ArrayList<TrackConditionReading>(buckets);
+
+        var bucketStart = 0;
+        var bucket = 0L;
+        for (int i = 0; i <= readings.size(); i++) {
+            final var next = i == readings.size()
+                ? -1
+                : Duration.between(first, readings.get(i).time()).toMillis() * buckets / span;
+            if (i > 0 && next != bucket) {
+                downsampled.add(average(readings.subList(bucketStart, i)));
+                bucketStart = i;
+            }
+            bucket = next;
+        }
+        return downsampled;
+    }
+
+    private static TrackConditionReading average(List<TrackConditionReading> readings) {
+        return new TrackConditionReading(
+            readings.getFirst().time(),
+            average(readings, TrackConditionReading::airTemp),
+            average(readings, TrackConditionReading::trackTemp),
+            average(readings, TrackConditionReading::humidity)
+        );
+    }
+
+    private static @Nullable Float average(List<TrackConditionReading> readings, Function<TrackConditionReading, @Nullable Float> value) {
+        var sum = 0.0;
+        var count = 0;
+        for (final var reading : readings) {
+            final var reported = value.apply(reading);
+            if (reported != null) {
+                sum += reported;
+                count++;
+            }
+        }
+        return count == 0 ? null : (float) (sum / count);
+    }
+
+    private void dropCacheOnRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TrackConditionsService.this);
+                if (status != STATUS_COMMITTED) {
+                    // the cached readings may never have been committed
+                    latestReadings.clear();
+                }
+            }
+        });
+    }
+}
@@ -1,13 +1,18 @@
 package dev.lukashornych.miatapodium.server.datafetcher.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.conditions.service.TrackConditionsService;
 import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
 import dev.lukashornych.miatapodium.server.datafetcher.service.LapDataFetcherService;
 import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.lap.service.LapMetadataDictionary;
 import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
 import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.racer.service.CareerStatsService;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -32,8 +37,23 @@ public class DataFetcherConfiguration {
         LapDataWebSocketClient webSocketClient,
         RaceRepository raceRepository,
         RacerRepository racerRepository,
-        LapRepository lapRepository
+        LapRepository lapRepository,
+        LapMetadataDictionary lapMetadataDictionary,
+        LapArchive lapArchive,
+        CareerStatsService careerStatsService,
+        TrackConditionsService trackConditionsService,
+        ApplicationEventPublisher eventPublisher
     ) {
-        return new LapDataFetcherService(webSocketClient, raceRepository, racerRepository, lapRepository);
+        return new LapDataFetcherService(
+            webSocketClient,
+            raceRepository,
+            racerRepository,
+            lapRepository,
+            lapMetadataDictionary,
+            lapArchive,
+            careerStatsService,
+            trackConditionsService,
+            eventPublisher
+        );
     }
 }
@@ -0,0 +1,45 @@
+package dev.lukashornych.miatapodium.server.datafetcher.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * String deserializer returning one shared instance per distinct value. Applied to payload fields
+ * that repeat the same few values on every lap (names, category, car, tag), so that a poll response
+ * carrying thousands of laps holds each distinct value only once instead of once per lap.
+ *
+ * <p>The set of canonical values is bounded; once full, further values are returned as is.
+ */
+@NullMarked
+public class CanonicalStringDeserializer extends StdScalarDeserializer<String> {
+
+    private static final int MAX_CANONICAL_VALUES = 8192;
+    private static final Map<String, String> CANONICAL_VALUES = new ConcurrentHashMap<>();
+
+    public CanonicalStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        final var value = p.getValueAsString();
+        if (value == null) {
+            return (String) ctxt.handleUnexpectedToken(String.class, p);
+        }
+        final var canonical = CANONICAL_VALUES.get(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (CANONICAL_VALUES.size() >= MAX_CANONICAL_VALUES) {
+            return value;
+        }
+        final var existing = CANONICAL_VALUES.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
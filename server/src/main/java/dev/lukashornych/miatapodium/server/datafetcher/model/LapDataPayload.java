@@ -2,6 +2,7 @@ package dev.lukashornych.miatapodium.server.datafetcher.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import org.jspecify.annotations.NullMarked;
 
 import java.time.Instant;
@@ -10,6 +11,8 @@ import java.time.Instant;
  * DTO representing a single lap record from the upstream WebSocket API.
  * Field names use {@link JsonProperty} to map from the API's PascalCase naming convention.
  * The {@code Tires} field from the API is intentionally omitted per specification.
+ * Text fields repeated on every lap of a racer or race are deserialized into shared instances
+ * by {@link CanonicalStringDeserializer}.
  */
 @NullMarked
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -19,7 +22,7 @@ public record LapDataPayload(
     @JsonProperty("RFIDId") int rfidId,
     @JsonProperty("Time") Instant time,
     @JsonProperty("TimePrev") Instant timePrev,
-    @JsonProperty("Tag") String tag,
+    @JsonProperty("Tag") @JsonDeserialize(using = CanonicalStringDeserializer.class) String tag,
     @JsonProperty("LapTime") int lapTime,
     @JsonProperty("TimeS1") Instant timeS1,
     @JsonProperty("TimeS2") Instant timeS2,
@@ -32,12 +35,12 @@ public record LapDataPayload(
     @JsonProperty("Temp3") float temp3,
     @JsonProperty("Round") int round,
     @JsonProperty("CarNumber") int carNumber,
-    @JsonProperty("Category") String category,
-    @JsonProperty("Make") String make,
-    @JsonProperty("Model") String model,
-    @JsonProperty("FirstName") String firstName,
-    @JsonProperty("LastName") String lastName,
-    @JsonProperty("Name") String name,
+    @JsonProperty("Category") @JsonDeserialize(using = CanonicalStringDeserializer.class) String category,
+    @JsonProperty("Make") @JsonDeserialize(using = CanonicalStringDeserializer.class) String make,
+    @JsonProperty("Model") @JsonDeserialize(using = CanonicalStringDeserializer.class) String model,
+    @JsonProperty("FirstName") @JsonDeserialize(using = CanonicalStringDeserializer.class) String firstName,
+    @JsonProperty("LastName") @JsonDeserialize(using = CanonicalStringDeserializer.class) String lastName,
+    @JsonProperty("Name") @JsonDeserialize(using = CanonicalStringDeserializer.class) String name,
     @JsonProperty("Date") Instant date,
     @JsonProperty("IsRaceLap") int isRaceLap
 ) {
@@ -1,31 +1,49 @@
 package dev.lukashornych.miatapodium.server.datafetcher.service;
 
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditions;
+import dev.lukashornych.miatapodium.server.conditions.service.TrackConditionsService;
 import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
 import dev.lukashornych.miatapodium.server.datafetcher.model.LapDataPayload;
 import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
 import dev.lukashornych.miatapodium.server.lap.model.SectorTimes;
-import dev.lukashornych.miatapodium.server.lap.model.TrackConditions;
 import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.lap.service.LapMetadataDictionary;
 import dev.lukashornych.miatapodium.server.race.model.Race;
 import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
 import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
 import dev.lukashornych.miatapodium.server.racer.model.Racer;
 import dev.lukashornych.miatapodium.server.racer.model.RacerExternalId;
 import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.racer.service.CareerStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jdbc.core.mapping.AggregateReference;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service that periodically polls the upstream WebSocket API for lap data and persists
  * new, unique laps into the database. Ensures that referenced races and racers are created
  * if they do not yet exist. Uniqueness of laps is determined by the combination of
  * external lap ID and race ID.
+ *
+ * <p>Every poll that persists new laps publishes a single {@link LapsIngestedEvent} so that
+ * derived read models can react to the ingest commit. A poll that fails is rolled back as a
+ * whole, so no laps are committed without the event. Each new lap is flagged as a personal best
+ * when it beats the racer's previous best at the same track. The track conditions reported with
+ * each new lap are recorded in the conditions time series of its race. Laps of archived races
+ * are skipped, as upstream keeps sending them after the race was moved out of the {@code laps} table.
  */
 @NullMarked
 @Slf4j
@@ -36,6 +54,12 @@ public class LapDataFetcherService {
     private final RaceRepository raceRepository;
     private final RacerRepository racerRepository;
     private final LapRepository lapRepository;
+    private final LapMetadataDictionary lapMetadataDictionary;
+    private final LapArchive lapArchive;
+    private final CareerStatsService careerStatsService;
+    private final TrackConditionsService trackConditionsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<LateLap> rejectedLateLaps = ConcurrentHashMap.newKeySet();
 
     /**
      * Polls the upstream WebSocket API for accumulated lap data and persists any new laps.
@@ -49,22 +73,26 @@ public class LapDataFetcherService {
             final var laps = webSocketClient.fetchLapData();
             log.debug("Received {} lap records", laps.size());
 
-            int savedCount = 0;
+            final var savedLaps = new ArrayList<Lap>();
             for (final var payload : laps) {
-                if (processLapPayload(payload)) {
-                    savedCount++;
+                final var savedLap = processLapPayload(payload);
+                if (savedLap != null) {
+                    savedLaps.add(savedLap);
                 }
             }
 
-            if (savedCount > 0) {
-                log.info("Saved {} new laps", savedCount);
+            if (!savedLaps.isEmpty()) {
+                log.info("Saved {} new laps", savedLaps.size());
+                eventPublisher.publishEvent(new LapsIngestedEvent(savedLaps));
             }
         } catch (Exception e) {
-            log.error("Failed to poll and persist lap data", e);
+            // upstream resends all accumulated laps, so the next poll retries the laps of this one
+            log.error("Failed to poll and persist lap data, rolling back", e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
         }
     }
 
-    private boolean processLapPayload(LapDataPayload payload) {
+    private @Nullable Lap processLapPayload(LapDataPayload payload) {
         final var race = ensureRaceExists(payload);
         final var racer = ensureRacerExists(payload);
 
@@ -72,11 +100,17 @@ public class LapDataFetcherService {
         final var racerId = racer.id();
         if (raceId == null || racerId == null) {
             log.error("Race or racer ID is null after persistence — this should not happen");
-            return false;
+            return null;
         }
 
+        if (lapArchive.isArchived(raceId)) {
+            if (!lapArchive.containsLap(raceId, payload.id())) {
+                rejectLateLap(raceId, payload);
+            }
+            return null;
+        }
         if (lapRepository.existsByExternalIdAndRaceId(payload.id(), raceId)) {
-            return false;
+            return null;
         }
 
         final var lap = new Lap(
@@ -95,23 +129,42 @@ public class LapDataFetcherService {
                 payload.timeS2(),
                 payload.timeS3()
             ),
-            new TrackConditions(
-                payload.temp1(),
-                payload.temp2(),
-                payload.temp3()
-            ),
             payload.round(),
             payload.carNumber(),
-            payload.category(),
-            payload.make(),
-            payload.model(),
-            payload.tag(),
-            payload.isRaceLap() == 1
+            lapMetadataDictionary.categoryId(payload.category()),
+            lapMetadataDictionary.carId(payload.make(), payload.model()),
+            lapMetadataDictionary.tagId(payload.tag()),
+            payload.isRaceLap() == 1,
+            careerStatsService.recordPersonalBest(racerId, race.name(), payload.lapTime())
         );
 
-        lapRepository.save(lap);
+        trackConditionsService.record(
+            raceId,
+            payload.time(),
+            new TrackConditions(payload.temp1(), payload.temp2(), payload.temp3())
+        );
+        final var savedLap = lapRepository.save(lap);
         log.debug("Saved new lap: externalId={}, raceExternalId={}", payload.id(), payload.raceId());
-        return true;
+        return savedLap;
+    }
+
+    /**
+     * Returns the number of distinct laps rejected because they arrived after their race was archived.
+     *
+     * @return the number of rejected laps since startup
+     */
+    public long rejectedLateLapCount() {
+        return rejectedLateLaps.size();
+    }
+
+    private void rejectLateLap(long raceId, LapDataPayload payload) {
+        // upstream resends the lap on every poll, report it only once
+        if (rejectedLateLaps.add(new LateLap(raceId, payload.id()))) {
+            log.warn(
+                "Rejecting lap {} of race {} (external ID {}) received after the race was archived, {} late laps rejected so far",
+                payload.id(), raceId, payload.raceId(), rejectedLateLaps.size()
+            );
+        }
     }
 
     private Race ensureRaceExists(LapDataPayload payload) {
@@ -141,4 +194,10 @@ public class LapDataFetcherService {
                 return racerRepository.save(racer);
             });
     }
+
+    /**
+     * Lap of an archived race missing from its archive, identified by its race and upstream ID.
+     */
+    private record LateLap(long raceId, int externalId) {
+    }
 }
@@ -0,0 +1,87 @@
+package dev.lukashornych.miatapodium.server.graphql.config;
+
+import dev.lukashornych.miatapodium.server.graphql.service.CachingPreparsedDocumentProvider;
+import dev.lukashornych.miatapodium.server.graphql.service.ListFieldComplexityCalculator;
+import dev.lukashornych.miatapodium.server.graphql.service.PersistedQueryRegistry;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.schema.DataFetchingEnvironment;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.graphql.autoconfigure.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.graphql.execution.DataFetcherExceptionResolverAdapter;
+import org.springframework.graphql.execution.ErrorType;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Spring configuration for the GraphQL API. Registers persisted queries, caches parsed and
+ * validated documents, and caps the cost of any request by query depth and complexity limits.
+ * Invalid arguments, such as malformed page cursors, are reported as bad request errors.
+ */
+@NullMarked
+@Configuration
+@EnableConfigurationProperties(GraphQlApiProperties.class)
+public class GraphQlApiConfiguration {
+
+    @Bean
+    PersistedQueryRegistry persistedQueryRegistry(
+        ResourcePatternResolver resourcePatternResolver,
+        GraphQlApiProperties properties
+    ) throws IOException {
+        return PersistedQueryRegistry.load(resourcePatternResolver.getResources(properties.persistedQueriesLocation()));
+    }
+
+    @Bean
+    CachingPreparsedDocumentProvider cachingPreparsedDocumentProvider(
+        PersistedQueryRegistry persistedQueryRegistry,
+        GraphQlApiProperties properties
+    ) {
+        return new CachingPreparsedDocumentProvider(
+            persistedQueryRegistry,
+            properties.persistedQueriesOnly(),
+            properties.documentCacheMaxEntries()
+        );
+    }
+
+    @Bean
+    GraphQlSourceBuilderCustomizer preparsedDocumentProviderCustomizer(CachingPreparsedDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
+
+    @Bean
+    MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(GraphQlApiProperties properties) {
+        return new MaxQueryDepthInstrumentation(properties.maxQueryDepth());
+    }
+
+    @Bean
+    MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(GraphQlApiProperties properties) {
+        return new MaxQueryComplexityInstrumentation(
+            properties.maxQueryComplexity(),
+            new ListFieldComplexityCalculator(properties.assumedListSize())
+        );
+    }
+
+    @Bean
+    DataFetcherExceptionResolverAdapter illegalArgumentExceptionResolver() {
+        return new DataFetcherExceptionResolverAdapter() {
+            @Override
+            protected @Nullable GraphQLError resolveToSingleError(Throwable ex, DataFetchingEnvironment env) {
+                if (!(ex instanceof IllegalArgumentException)) {
+                    return null;
+                }
+                return GraphqlErrorBuilder.newError(env)
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .message(Objects.requireNonNullElse(ex.getMessage(), "Invalid argument."))
+                    .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package dev.lukashornych.miatapodium.server.graphql.config;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the GraphQL API.
+ * Bound from the {@code miatapodium.graphql} prefix in application properties.
+ *
+ * @param persistedQueriesLocation  the resource pattern of the persisted query documents
+ * @param persistedQueriesOnly      whether queries other than persisted ones are rejected
+ * @param documentCacheMaxEntries   the maximum number of parsed and validated documents kept in memory
+ * @param maxQueryDepth             the maximum nesting depth of a query
+ * @param maxQueryComplexity        the maximum complexity of a query
+ * @param assumedListSize           the number of elements assumed for list fields without a requested page size
+ */
+@NullMarked
+@ConfigurationProperties(prefix = "miatapodium.graphql")
+public record GraphQlApiProperties(
+    String persistedQueriesLocation,
+    boolean persistedQueriesOnly,
+    int documentCacheMaxEntries,
+    int maxQueryDepth,
+    int maxQueryComplexity,
+    int assumedListSize
+) {
+}
@@ -0,0 +1,102 @@
+package dev.lukashornych.miatapodium.server.graphql.service;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Provider of parsed and validated GraphQL documents that resolves persisted queries and caches
+ * documents by query text, so the few queries clients actually send are parsed and validated
+ * only once. Only documents without validation errors are cached; the least recently used
+ * documents are evicted once the cache holds more than the configured number of entries.
+ *
+ * <p>Persisted queries follow the Apollo protocol: the request carries the SHA-256 hash of the
+ * query in the {@code persistedQuery.sha256Hash} extension, and the query text may be omitted.
+ * Ad-hoc queries can be rejected entirely by enabling {@code persistedQueriesOnly}.
+ *
+ * <p>Depth and complexity limits are enforced by instrumentations at execution time, so they
+ * apply to cached documents as well.
+ */
+@NullMarked
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    private static final String PERSISTED_QUERY_EXTENSION = "persistedQuery";
+    private static final String PERSISTED_QUERY_HASH = "sha256Hash";
+
+    private final PersistedQueryRegistry persistedQueryRegistry;
+    private final boolean persistedQueriesOnly;
+    private final Map<String, PreparsedDocumentEntry> documents;
+
+    public CachingPreparsedDocumentProvider(
+        PersistedQueryRegistry persistedQueryRegistry,
+        boolean persistedQueriesOnly,
+        int maxEntries
+    ) {
+        this.persistedQueryRegistry = persistedQueryRegistry;
+        this.persistedQueriesOnly = persistedQueriesOnly;
+        this.documents = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+        ExecutionInput executionInput,
+        Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        final var hash = persistedQueryHash(executionInput);
+        if (hash != null) {
+            final var query = persistedQueryRegistry.find(hash);
+            if (query == null) {
+                return CompletableFuture.completedFuture(new PreparsedDocumentEntry(new PersistedQueryNotFound(hash)));
+            }
+            return CompletableFuture.completedFuture(
+                document(executionInput.transform(builder -> builder.query(query)), parseAndValidateFunction)
+            );
+        }
+        if (persistedQueriesOnly) {
+            return CompletableFuture.completedFuture(new PreparsedDocumentEntry(
+                GraphqlErrorBuilder.newError().message("Only persisted queries are accepted.").build()
+            ));
+        }
+        return CompletableFuture.completedFuture(document(executionInput, parseAndValidateFunction));
+    }
+
+    private PreparsedDocumentEntry document(
+        ExecutionInput executionInput,
+        Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+    ) {
+        final var query = executionInput.getQuery();
+        final var cached = documents.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        // parsing happens outside the lock; a concurrent miss merely parses the same query twice
+        final var entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors()) {
+            documents.put(query, entry);
+        }
+        return entry;
+    }
+
+    private static @Nullable String persistedQueryHash(ExecutionInput executionInput) {
+        if (executionInput.getExtensions().get(PERSISTED_QUERY_EXTENSION) instanceof Map<?, ?> persistedQuery
+            && persistedQuery.get(PERSISTED_QUERY_HASH) instanceof String hash) {
+            return hash;
+        }
+        return null;
+    }
+}
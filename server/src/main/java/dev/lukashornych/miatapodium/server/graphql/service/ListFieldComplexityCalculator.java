@@ -0,0 +1,47 @@
+package dev.lukashornych.miatapodium.server.graphql.service;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.schema.GraphQLTypeUtil;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Field complexity calculator that accounts for list fields: every list multiplies the cost of
+ * its elements by the requested page size ({@code first} argument of the field or of its parent
+ * field, e.g. {@code laps(first: 500) { laps { ... } }}), or by an assumed list size when no
+ * page size is requested. Scalar and object fields cost one plus the cost of their children.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class ListFieldComplexityCalculator implements FieldComplexityCalculator {
+
+    private static final String PAGE_SIZE_ARGUMENT = "first";
+
+    private final int assumedListSize;
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        final var fieldComplexity = 1L + childComplexity;
+        final var type = GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType());
+        if (!GraphQLTypeUtil.isList(type)) {
+            return saturate(fieldComplexity);
+        }
+        return saturate(fieldComplexity * listSize(environment));
+    }
+
+    private int listSize(FieldComplexityEnvironment environment) {
+        if (environment.getArguments().get(PAGE_SIZE_ARGUMENT) instanceof Integer first) {
+            return Math.max(first, 1);
+        }
+        final var parent = environment.getParentEnvironment();
+        if (parent != null && parent.getArguments().get(PAGE_SIZE_ARGUMENT) instanceof Integer first) {
+            return Math.max(first, 1);
+        }
+        return assumedListSize;
+    }
+
+    private static int saturate(long complexity) {
+        return (int) Math.min(complexity, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,77 @@
+package dev.lukashornych.miatapodium.server.graphql.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registry of persisted GraphQL queries keyed by the SHA-256 hash of their text. Clients send
+ * only the hash (in the {@code persistedQuery} request extension) instead of the whole query.
+ */
+@NullMarked
+@Slf4j
+public class PersistedQueryRegistry {
+
+    private final Map<String, String> queriesByHash;
+
+    public PersistedQueryRegistry(Map<String, String> queriesByHash) {
+        this.queriesByHash = Map.copyOf(queriesByHash);
+    }
+
+    /**
+     * Creates a registry of the queries in the given resources, one query document per resource.
+     *
+     * @param resources the query documents
+     * @return the registry
+     */
+    public static PersistedQueryRegistry load(Resource[] resources) {
+        final var queries = new HashMap<String, String>(resources.length * 2);
+        for (final var resource : resources) {
+            try {
+                final var query = resource.getContentAsString(StandardCharsets.UTF_8);
+                final var hash = hash(query);
+                queries.put(hash, query);
+                log.info("Registered persisted GraphQL query {} as {}", resource.getFilename(), hash);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read persisted GraphQL query " + resource, e);
+            }
+        }
+        return new PersistedQueryRegistry(queries);
+    }
+
+    /**
+     * Computes the hash under which a query is registered.
+     *
+     * @param query the query text
+     * @return the lowercase hexadecimal SHA-256 hash of the UTF-8 encoded query
+     */
+    public static String hash(String query) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(query.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Finds a persisted query by its hash.
+     *
+     * @param hash the SHA-256 hash of the query
+     * @return the query text, or {@code null} if no such query is registered
+     */
+    public @Nullable String find(String hash) {
+        return queriesByHash.get(hash.toLowerCase(Locale.ROOT));
+    }
+}
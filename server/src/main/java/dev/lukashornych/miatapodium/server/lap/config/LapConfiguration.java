@@ -0,0 +1,65 @@
+package dev.lukashornych.miatapodium.server.lap.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.lap.repository.LapViewRowMapper;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportService;
+import dev.lukashornych.miatapodium.server.lap.service.LapHistoryService;
+import dev.lukashornych.miatapodium.server.lap.service.LapMetadataDictionary;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Spring configuration for the lap module. Declares the lap metadata dictionary, the lap view
+ * row mapper referenced by {@link LapRepository} queries, and the lap history and export services.
+ */
+@NullMarked
+@Configuration
+@EnableConfigurationProperties(LapProperties.class)
+public class LapConfiguration {
+
+    @Bean
+    LapMetadataDictionary lapMetadataDictionary(JdbcClient jdbcClient, PlatformTransactionManager transactionManager) {
+        final var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new LapMetadataDictionary(jdbcClient, transactionTemplate);
+    }
+
+    @Bean
+    LapViewRowMapper lapViewRowMapper(LapMetadataDictionary lapMetadataDictionary) {
+        return new LapViewRowMapper(lapMetadataDictionary);
+    }
+
+    @Bean
+    LapHistoryService lapHistoryService(LapRepository lapRepository, LapArchive lapArchive, LapProperties properties) {
+        return new LapHistoryService(lapRepository, lapArchive, properties.defaultPageSize(), properties.maxPageSize());
+    }
+
+    @Bean
+    LapExportService lapExportService(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        LapViewRowMapper lapViewRowMapper,
+        LapArchive lapArchive,
+        LapProperties properties
+    ) {
+        final var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(properties.exportFetchSize());
+
+        final var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return new LapExportService(jdbcTemplate, transactionTemplate, objectMapper, lapViewRowMapper, lapArchive);
+    }
+}
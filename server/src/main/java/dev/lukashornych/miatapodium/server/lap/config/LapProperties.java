@@ -0,0 +1,21 @@
+package dev.lukashornych.miatapodium.server.lap.config;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for lap history reads and exports.
+ * Bound from the {@code miatapodium.lap} prefix in application properties.
+ *
+ * @param defaultPageSize the page size used when a client does not request one
+ * @param maxPageSize     the upper bound of the page size a client may request
+ * @param exportFetchSize the number of rows fetched from the database cursor at once during exports
+ */
+@NullMarked
+@ConfigurationProperties(prefix = "miatapodium.lap")
+public record LapProperties(
+    int defaultPageSize,
+    int maxPageSize,
+    int exportFetchSize
+) {
+}
@@ -0,0 +1,144 @@
+package dev.lukashornych.miatapodium.server.lap.controller;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapPage;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportFormat;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportService;
+import dev.lukashornych.miatapodium.server.lap.service.LapHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+/**
+ * REST controller exposing keyset-paginated lap history and streaming lap exports.
+ */
+@NullMarked
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+public class LapController {
+
+    private final LapHistoryService lapHistoryService;
+    private final LapExportService lapExportService;
+
+    /**
+     * Returns a page of laps of a race in chronological order.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param after  the {@link LapPage#nextCursor()} of the previous page, omitted for the first page
+     * @param limit  the requested page size
+     * @return the requested page
+     */
+    @GetMapping("/races/{raceId}/laps")
+    public LapPage raceLaps(
+        @PathVariable long raceId,
+        @RequestParam(required = false) @Nullable String after,
+        @RequestParam(required = false) @Nullable Integer limit
+    ) {
+        try {
+            return lapHistoryService.findRaceLaps(raceId, after == null ? null : LapCursor.decode(after), limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a page of laps of a racer across all races in chronological order.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @param after   the {@link LapPage#nextCursor()} of the previous page, omitted for the first page
+     * @param limit   the requested page size
+     * @return the requested page
+     */
+    @GetMapping("/racers/{racerId}/laps")
+    public LapPage racerLaps(
+        @PathVariable long racerId,
+        @RequestParam(required = false) @Nullable String after,
+        @RequestParam(required = false) @Nullable Integer limit
+    ) {
+        try {
+            return lapHistoryService.findRacerLaps(racerId, after == null ? null : LapCursor.decode(after), limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams all laps of a race as CSV or NDJSON.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param format the export format, {@code csv} or {@code ndjson}
+     * @return the streamed export
+     */
+    @GetMapping("/races/{raceId}/laps/export")
+    public ResponseEntity<StreamingResponseBody> exportRaceLaps(
+        @PathVariable long raceId,
+        @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        final var exportFormat = parseFormat(format);
+        return streamed(exportFormat, "race-" + raceId + "-laps",
+            outputStream -> lapExportService.exportRaceLaps(raceId, exportFormat, outputStream));
+    }
+
+    /**
+     * Streams all laps of a racer as CSV or NDJSON.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @param format  the export format, {@code csv} or {@code ndjson}
+     * @return the streamed export
+     */
+    @GetMapping("/racers/{racerId}/laps/export")
+    public ResponseEntity<StreamingResponseBody> exportRacerLaps(
+        @PathVariable long racerId,
+        @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        final var exportFormat = parseFormat(format);
+        return streamed(exportFormat, "racer-" + racerId + "-laps",
+            outputStream -> lapExportService.exportRacerLaps(racerId, exportFormat, outputStream));
+    }
+
+    /**
+     * Streams all stored laps as CSV or NDJSON.
+     *
+     * @param format the export format, {@code csv} or {@code ndjson}
+     * @return the streamed export
+     */
+    @GetMapping("/laps/export")
+    public ResponseEntity<StreamingResponseBody> exportAllLaps(@RequestParam(defaultValue = "ndjson") String format) {
+        final var exportFormat = parseFormat(format);
+        return streamed(exportFormat, "laps",
+            outputStream -> lapExportService.exportAllLaps(exportFormat, outputStream));
+    }
+
+    private static LapExportFormat parseFormat(String format) {
+        try {
+            return LapExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format, e);
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> streamed(
+        LapExportFormat format,
+        String fileName,
+        StreamingResponseBody body
+    ) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.mediaType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "." + format.fileExtension() + "\"")
+            .body(body);
+    }
+}
@@ -14,8 +14,11 @@ import java.time.Instant;
 /**
  * Aggregate root representing a single lap recorded at a racetrack.
  * References {@link Race} and {@link Racer} via {@link AggregateReference} to maintain
- * aggregate boundaries. Contains timing data, sector splits, track conditions, and
- * car/category metadata.
+ * aggregate boundaries. Contains timing data, sector splits and car/category metadata; track
+ * conditions are kept as a separate time series per race. The metadata is dictionary-encoded:
+ * category, car and tag are referenced by the small integer IDs of their lookup table rows. The
+ * personal best flag records whether the lap beat the racer's previous best at the same track
+ * when it was ingested.
  */
 @NullMarked
 @Table("laps")
@@ -28,13 +31,12 @@ public record Lap(
     Instant timePrev,
     int lapTimeMs,
     @Embedded.Nullable @Nullable SectorTimes sectorTimes,
-    @Embedded.Nullable @Nullable TrackConditions trackConditions,
     int round,
     int carNumber,
-    String category,
-    String make,
-    String model,
-    String tag,
-    boolean isRaceLap
+    int categoryId,
+    int carId,
+    int tagId,
+    boolean isRaceLap,
+    boolean personalBest
 ) {
 }
@@ -0,0 +1,60 @@
+package dev.lukashornych.miatapodium.server.lap.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor over laps ordered by {@code (time, id)}. The next page contains
+ * laps strictly after the position described by the cursor, so pages never need to skip
+ * already returned rows via {@code OFFSET}.
+ *
+ * @param time the time of the last lap of the previous page
+ * @param id   the surrogate ID of the last lap of the previous page, used as a tie-breaker
+ */
+@NullMarked
+public record LapCursor(
+    Instant time,
+    long id
+) {
+
+    /**
+     * Encodes the cursor into an opaque URL-safe token handed out to API clients.
+     *
+     * @return the encoded token
+     */
+    public String encode() {
+        final var raw = time.getEpochSecond() + ":" + time.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @param token the encoded token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static LapCursor decode(String token) {
+        final String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed lap cursor: " + token, e);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed lap cursor: " + token);
+        }
+        try {
+            return new LapCursor(
+                Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                Long.parseLong(parts[2])
+            );
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Malformed lap cursor: " + token, e);
+        }
+    }
+}
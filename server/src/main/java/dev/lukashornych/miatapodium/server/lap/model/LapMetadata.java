@@ -0,0 +1,21 @@
+package dev.lukashornych.miatapodium.server.lap.model;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Decoded car and category metadata of a lap. These values are fixed per racer and are stored
+ * dictionary-encoded on {@link Lap}; see {@link dev.lukashornych.miatapodium.server.lap.service.LapMetadataDictionary}.
+ *
+ * @param category the racing category
+ * @param make     the car make
+ * @param model    the car model
+ * @param tag      the transponder tag
+ */
+@NullMarked
+public record LapMetadata(
+    String category,
+    String make,
+    String model,
+    String tag
+) {
+}
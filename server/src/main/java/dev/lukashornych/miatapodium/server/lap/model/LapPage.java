@@ -0,0 +1,19 @@
+package dev.lukashornych.miatapodium.server.lap.model;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * A single page of laps returned by keyset-paginated lap history queries.
+ *
+ * @param laps       the laps of this page in {@code (time, id)} order
+ * @param nextCursor the encoded {@link LapCursor} of the next page, or {@code null} if this is the last page
+ */
+@NullMarked
+public record LapPage(
+    List<LapView> laps,
+    @Nullable String nextCursor
+) {
+}
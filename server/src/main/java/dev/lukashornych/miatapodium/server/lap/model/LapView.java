@@ -0,0 +1,50 @@
+package dev.lukashornych.miatapodium.server.lap.model;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Flat, read-only projection of a single lap used by the lap history and export APIs.
+ * Unlike {@link Lap}, references to races and racers are exposed as plain surrogate IDs
+ * so the projection can be serialized directly. Track conditions are those of the race's
+ * condition reading current at the lap's time, or {@code null} if the race has no reading by then.
+ */
+@NullMarked
+public record LapView(
+    long id,
+    int externalId,
+    long raceId,
+    long racerId,
+    Instant time,
+    Instant timePrev,
+    int lapTimeMs,
+    int s1Ms,
+    int s2Ms,
+    int s3Ms,
+    Instant timeS1,
+    Instant timeS2,
+    Instant timeS3,
+    @Nullable Float airTemp,
+    @Nullable Float trackTemp,
+    @Nullable Float humidity,
+    int round,
+    int carNumber,
+    String category,
+    String make,
+    String model,
+    String tag,
+    boolean raceLap,
+    boolean personalBest
+) {
+
+    /**
+     * Returns the keyset cursor pointing right after this lap in {@code (time, id)} order.
+     *
+     * @return the cursor of this lap
+     */
+    public LapCursor cursor() {
+        return new LapCursor(time, id);
+    }
+}
@@ -0,0 +1,29 @@
+package dev.lukashornych.miatapodium.server.lap.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Application event published once per ingestion run that persisted at least one new lap.
+ * Listeners interested only in committed data should use
+ * {@link org.springframework.transaction.event.TransactionalEventListener}.
+ *
+ * @param laps the newly persisted laps, with surrogate IDs assigned
+ */
+@NullMarked
+public record LapsIngestedEvent(List<Lap> laps) {
+
+    /**
+     * Returns the surrogate IDs of all races that received new laps.
+     *
+     * @return the affected race IDs
+     */
+    public Set<Long> raceIds() {
+        return laps.stream()
+            .map(lap -> lap.raceId().getId())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -1,15 +1,43 @@
 package dev.lukashornych.miatapodium.server.lap.repository;
 
 import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
+
 /**
  * Repository for persisting and querying {@link Lap} aggregates.
+ *
+ * <p>Lap history is read through keyset-paginated queries ordered by {@code (time, id)}, backed by
+ * the {@code (race_id, time, id)} and {@code (racer_id, time, id)} indexes. Each page continues
+ * strictly after the last row of the previous page, so reading deep pages never scans skipped rows.
  */
 public interface LapRepository extends CrudRepository<Lap, Long> {
 
+    /**
+     * Select clause producing rows mappable by {@link LapViewRowMapper}. The lap table is aliased as {@code l}.
+     * Metadata stays dictionary-encoded and is decoded by the row mapper. Track conditions are joined
+     * from the reading current at the lap's time, a single backward probe of the readings primary key.
+     */
+    String LAP_VIEW_SELECT = """
+        SELECT l.id, l.external_id, l.race_id, l.racer_id, l.time, l.time_prev, l.lap_time_ms,
+               l.s1_ms, l.s2_ms, l.s3_ms, l.time_s1, l.time_s2, l.time_s3,
+               c.air_temp, c.track_temp, c.humidity, l.round, l.car_number,
+               l.category_id, l.car_id, l.tag_id, l.is_race_lap, l.personal_best
+        FROM laps l
+        LEFT JOIN LATERAL (
+            SELECT r.air_temp, r.track_temp, r.humidity
+            FROM track_condition_readings r
+            WHERE r.race_id = l.race_id AND r.time <= l.time
+            ORDER BY r.time DESC
+            LIMIT 1
+        ) c ON TRUE
+        """;
+
     /**
      * Checks whether a lap with the given external ID already exists for the specified race.
      * Used to enforce uniqueness of laps based on the upstream API's identifier within a race.
@@ -20,4 +48,130 @@ public interface LapRepository extends CrudRepository<Lap, Long> {
      */
     @Query("SELECT EXISTS(SELECT 1 FROM laps WHERE external_id = :externalId AND race_id = :raceId)")
     boolean existsByExternalIdAndRaceId(@Param("externalId") int externalId, @Param("raceId") long raceId);
+
+    /**
+     * Finds the first page of laps of the specified race in {@code (time, id)} order.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param limit  the maximum number of laps to return
+     * @return the laps of the first page
+     */
+    @Query(
+        value = LAP_VIEW_SELECT + """
+            WHERE l.race_id = :raceId
+            ORDER BY l.time, l.id
+            LIMIT :limit
+            """,
+        rowMapperRef = "lapViewRowMapper"
+    )
+    List<LapView> findFirstPageByRaceId(@Param("raceId") long raceId, @Param("limit") int limit);
+
+    /**
+     * Finds the page of laps of the specified race that directly follows the given keyset position.
+     *
+     * @param raceId    the surrogate ID of the race
+     * @param afterTime the time of the last lap of the previous page
+     * @param afterId   the surrogate ID of the last lap of the previous page
+     * @param limit     the maximum number of laps to return
+     * @return the laps following the given position
+     */
+    @Query(
+        value = LAP_VIEW_SELECT + """
+            WHERE l.race_id = :raceId AND (l.time, l.id) > (:afterTime, :afterId)
+            ORDER BY l.time, l.id
+            LIMIT :limit
+            """,
+        rowMapperRef = "lapViewRowMapper"
+    )
+    List<LapView> findPageByRaceIdAfter(
+        @Param("raceId") long raceId,
+        @Param("afterTime") Instant afterTime,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Finds the page of laps of the specified race that directly follows the given keyset position
+     * and contains only laps completed no later than the given moment.
+     *
+     * @param raceId    the surrogate ID of the race
+     * @param afterTime the time of the last lap of the previous page
+     * @param afterId   the surrogate ID of the last lap of the previous page
+     * @param until     the moment after which laps are excluded
+     * @param limit     the maximum number of laps to return
+     * @return the laps following the given position up to the given moment
+     */
+    @Query(
+        value = LAP_VIEW_SELECT + """
+            WHERE l.race_id = :raceId AND (l.time, l.id) > (:afterTime, :afterId) AND l.time <= :until
+            ORDER BY l.time, l.id
+            LIMIT :limit
+            """,
+        rowMapperRef = "lapViewRowMapper"
+    )
+    List<LapView> findPageByRaceIdAfterUntil(
+        @Param("raceId") long raceId,
+        @Param("afterTime") Instant afterTime,
+        @Param("afterId") long afterId,
+        @Param("until") Instant until,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Finds the first page of laps of the specified racer across all races in {@code (time, id)} order.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @param limit   the maximum number of laps to return
+     * @return the laps of the first page
+     */
+    @Query(
+        value = LAP_VIEW_SELECT + """
+            WHERE l.racer_id = :racerId
+            ORDER BY l.time, l.id
+            LIMIT :limit
+            """,
+        rowMapperRef = "lapViewRowMapper"
+    )
+    List<LapView> findFirstPageByRacerId(@Param("racerId") long racerId, @Param("limit") int limit);
+
+    /**
+     * Finds the page of laps of the specified racer that directly follows the given keyset position.
+     *
+     * @param racerId   the surrogate ID of the racer
+     * @param afterTime the time of the last lap of the previous page
+     * @param afterId   the surrogate ID of the last lap of the previous page
+     * @param limit     the maximum number of laps to return
+     * @return the laps following the given position
+     */
+    @Query(
+        value = LAP_VIEW_SELECT + """
+            WHERE l.racer_id = :racerId AND (l.time, l.id) > (:afterTime, :afterId)
+            ORDER BY l.time, l.id
+            LIMIT :limit
+            """,
+        rowMapperRef = "lapViewRowMapper"
+    )
+    List<LapView> findPageByRacerIdAfter(
+        @Param("racerId") long racerId,
+        @Param("afterTime") Instant afterTime,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit
+    );
+
+    /**
+     * Finds the most recent laps of the specified race, newest first.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param limit  the maximum number of laps to return
+     * @return the latest laps in descending {@code (time, id)} order
+     */
+    @Query(
+        value = LAP_VIEW_SELECT + """
+            WHERE l.race_id = :raceId
+            ORDER BY l.time DESC, l.id DESC
+            LIMIT :limit
+            """,
+        rowMapperRef = "lapViewRowMapper"
+    )
+    List<LapView> findLatestByRaceId(@Param("raceId") long raceId, @Param("limit") int limit);
 }
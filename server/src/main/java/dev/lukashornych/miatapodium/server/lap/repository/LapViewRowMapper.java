@@ -0,0 +1,60 @@
+package dev.lukashornych.miatapodium.server.lap.repository;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.service.LapMetadataDictionary;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+/**
+ * Maps rows selected by {@link LapRepository#LAP_VIEW_SELECT} to {@link LapView} projections.
+ * Dictionary-encoded metadata columns are decoded through the in-process {@link LapMetadataDictionary}
+ * instead of joining the lookup tables. Registered as the {@code lapViewRowMapper} bean.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class LapViewRowMapper implements RowMapper<LapView> {
+
+    private final LapMetadataDictionary dictionary;
+
+    @Override
+    public LapView mapRow(ResultSet rs, int rowNum) throws SQLException {
+        final var car = dictionary.car(rs.getInt("car_id"));
+        return new LapView(
+            rs.getLong("id"),
+            rs.getInt("external_id"),
+            rs.getLong("race_id"),
+            rs.getLong("racer_id"),
+            getInstant(rs, "time"),
+            getInstant(rs, "time_prev"),
+            rs.getInt("lap_time_ms"),
+            rs.getInt("s1_ms"),
+            rs.getInt("s2_ms"),
+            rs.getInt("s3_ms"),
+            getInstant(rs, "time_s1"),
+            getInstant(rs, "time_s2"),
+            getInstant(rs, "time_s3"),
+            // the conditions are left joined, a lap before the first reading has none
+            rs.getObject("air_temp", Float.class),
+            rs.getObject("track_temp", Float.class),
+            rs.getObject("humidity", Float.class),
+            rs.getInt("round"),
+            rs.getInt("car_number"),
+            dictionary.category(rs.getInt("category_id")),
+            car.make(),
+            car.model(),
+            dictionary.tag(rs.getInt("tag_id")),
+            rs.getBoolean("is_race_lap"),
+            rs.getBoolean("personal_best")
+        );
+    }
+
+    private static Instant getInstant(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, OffsetDateTime.class).toInstant();
+    }
+}
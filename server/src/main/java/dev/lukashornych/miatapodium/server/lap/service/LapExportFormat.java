@@ -0,0 +1,35 @@
+package dev.lukashornych.miatapodium.server.lap.service;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Output formats supported by {@link LapExportService}.
+ */
+@NullMarked
+public enum LapExportFormat {
+
+    /**
+     * Comma-separated values with a single header row.
+     */
+    CSV("text/csv", "csv"),
+    /**
+     * Newline-delimited JSON, one {@link dev.lukashornych.miatapodium.server.lap.model.LapView} object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    LapExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+}
@@ -0,0 +1,139 @@
+package dev.lukashornych.miatapodium.server.lap.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.lap.repository.LapViewRowMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Service streaming lap history straight from the database into an output stream.
+ *
+ * <p>Rows are read through a server-side cursor: the query runs inside a read-only transaction
+ * (the PostgreSQL driver only honours the fetch size with auto-commit disabled) using a
+ * {@link JdbcTemplate} configured with a bounded fetch size. Every row is written out as soon
+ * as it is read, so exporting a whole season keeps the heap usage constant.
+ *
+ * <p>Exports of archived races are written from the race archive instead of the database, and
+ * exports spanning several races merge the archives of archived races into the rows read from
+ * the database.
+ */
+@NullMarked
+@Slf4j
+@RequiredArgsConstructor
+public class LapExportService {
+
+    private static final String RACE_LAPS_SQL = LapRepository.LAP_VIEW_SELECT + "WHERE l.race_id = ? ORDER BY l.time, l.id";
+    private static final String RACER_LAPS_SQL = LapRepository.LAP_VIEW_SELECT + "WHERE l.racer_id = ? ORDER BY l.time, l.id";
+    private static final String ALL_LAPS_SQL = LapRepository.LAP_VIEW_SELECT + "ORDER BY l.id";
+
+    private final JdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final LapViewRowMapper rowMapper;
+    private final LapArchive lapArchive;
+
+    /**
+     * Exports all laps of the specified race in {@code (time, id)} order.
+     *
+     * @param raceId       the surrogate ID of the race
+     * @param format       the output format
+     * @param outputStream the stream to write to
+     * @return the number of exported laps
+     */
+    public long exportRaceLaps(long raceId, LapExportFormat format, OutputStream outputStream) {
+        try (final var archived = lapArchive.streamLaps(raceId)) {
+            if (archived != null) {
+                return export(archived, format, outputStream);
+            }
+        }
+        return export(RACE_LAPS_SQL, new Object[] { raceId }, UnaryOperator.identity(), format, outputStream);
+    }
+
+    /**
+     * Exports all laps of the specified racer across all races in {@code (time, id)} order,
+     * including the laps of the racer's archived races.
+     *
+     * @param racerId      the surrogate ID of the racer
+     * @param format       the output format
+     * @param outputStream the stream to write to
+     * @return the number of exported laps
+     */
+    public long exportRacerLaps(long racerId, LapExportFormat format, OutputStream outputStream) {
+        return export(RACER_LAPS_SQL, new Object[] { racerId }, stored -> LapStreams.mergeByPosition(List.of(
+            stored,
+            lapArchive.streamRacerLaps(racerId, null)
+        )), format, outputStream);
+    }
+
+    /**
+     * Exports all laps. Archived races are written first, race by race in ascending race ID
+     * order and each race in {@code (time, id)} order, followed by the laps stored in the table
+     * in insertion order.
+     *
+     * @param format       the output format
+     * @param outputStream the stream to write to
+     * @return the number of exported laps
+     */
+    public long exportAllLaps(LapExportFormat format, OutputStream outputStream) {
+        return export(ALL_LAPS_SQL, new Object[0], stored -> {
+            // taken once the table is being read, so a race archived meanwhile is read from the table
+            final var archivedRaceIds = lapArchive.archivedRaceIds();
+            return Stream.concat(
+                lapArchive.streamLaps(archivedRaceIds),
+                stored.filter(lap -> !archivedRaceIds.contains(lap.raceId()))
+            );
+        }, format, outputStream);
+    }
+
+    private long export(
+        String sql,
+        Object[] args,
+        UnaryOperator<Stream<LapView>> withArchived,
+        LapExportFormat format,
+        OutputStream outputStream
+    ) {
+        final var count = readOnlyTransactionTemplate.execute(status -> {
+            // the query runs when the stream is opened, before the archives are looked up
+            try (
+                final var stored = exportJdbcTemplate.queryForStream(sql, rowMapper, args);
+                final var laps = withArchived.apply(stored)
+            ) {
+                return write(laps, format, outputStream);
+            }
+        });
+        log.debug("Exported {} laps as {}", count, format);
+        return count == null ? 0 : count;
+    }
+
+    private long export(Stream<LapView> laps, LapExportFormat format, OutputStream outputStream) {
+        final var count = write(laps, format, outputStream);
+        log.debug("Exported {} archived laps as {}", count, format);
+        return count;
+    }
+
+    private long write(Stream<LapView> laps, LapExportFormat format, OutputStream outputStream) {
+        long count = 0;
+        try (final var writer = LapExportWriter.open(format, outputStream, objectMapper)) {
+            for (final var lap : (Iterable<LapView>) laps::iterator) {
+                writer.write(lap);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
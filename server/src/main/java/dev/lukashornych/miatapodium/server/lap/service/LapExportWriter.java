@@ -0,0 +1,142 @@
+package dev.lukashornych.miatapodium.server.lap.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported laps one by one to an output stream in a particular {@link LapExportFormat}.
+ * Writers never hold more than a single lap, so the heap used by an export does not depend
+ * on the number of exported laps.
+ */
+@NullMarked
+sealed interface LapExportWriter extends Closeable permits LapExportWriter.Csv, LapExportWriter.Ndjson {
+
+    /**
+     * Opens a writer of the given format on top of the given stream.
+     *
+     * @param format       the output format
+     * @param outputStream the stream to write to, flushed but not closed by {@link #close()}
+     * @param objectMapper the object mapper used for JSON based formats
+     * @return a new writer
+     */
+    static LapExportWriter open(LapExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(outputStream);
+            case NDJSON -> new Ndjson(outputStream, objectMapper);
+        };
+    }
+
+    /**
+     * Writes a single lap.
+     *
+     * @param lap the lap to write
+     */
+    void write(LapView lap) throws IOException;
+
+    /**
+     * Writer producing CSV with a header row.
+     */
+    final class Csv implements LapExportWriter {
+
+        private static final String HEADER = "id,externalId,raceId,racerId,time,timePrev,lapTimeMs,s1Ms,s2Ms,s3Ms," +
+            "timeS1,timeS2,timeS3,airTemp,trackTemp,humidity,round,carNumber,category,make,model,tag,raceLap,personalBest";
+
+        private final Writer writer;
+
+        Csv(OutputStream outputStream) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.writer.write(HEADER);
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(LapView lap) throws IOException {
+            writer.write(Long.toString(lap.id()));
+            writeValue(Integer.toString(lap.externalId()));
+            writeValue(Long.toString(lap.raceId()));
+            writeValue(Long.toString(lap.racerId()));
+            writeValue(lap.time().toString());
+            writeValue(lap.timePrev().toString());
+            writeValue(Integer.toString(lap.lapTimeMs()));
+            writeValue(Integer.toString(lap.s1Ms()));
+            writeValue(Integer.toString(lap.s2Ms()));
+            writeValue(Integer.toString(lap.s3Ms()));
+            writeValue(lap.timeS1().toString());
+            writeValue(lap.timeS2().toString());
+            writeValue(lap.timeS3().toString());
+            writeValue(lap.airTemp());
+            writeValue(lap.trackTemp());
+            writeValue(lap.humidity());
+            writeValue(Integer.toString(lap.round()));
+            writeValue(Integer.toString(lap.carNumber()));
+            writeText(lap.category());
+            writeText(lap.make());
+            writeText(lap.model());
+            writeText(lap.tag());
+            writeValue(Boolean.toString(lap.raceLap()));
+            writeValue(Boolean.toString(lap.personalBest()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private void writeValue(String value) throws IOException {
+            writer.write(',');
+            writer.write(value);
+        }
+
+        private void writeValue(@Nullable Float value) throws IOException {
+            writeValue(value == null ? "" : value.toString());
+        }
+
+        private void writeText(String value) throws IOException {
+            writer.write(',');
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * Writer producing newline-delimited JSON.
+     */
+    final class Ndjson implements LapExportWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.createGenerator(outputStream)
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+                .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(LapView lap) throws IOException {
+            generator.writeObject(lap);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package dev.lukashornych.miatapodium.server.lap.service;
+
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapPage;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Service providing keyset-paginated access to the lap history of races and racers.
+ * Each page fetches one extra row to find out whether another page follows, so no
+ * separate count query is ever needed. Races that were archived are paged over their archive
+ * instead, using the same cursors: the archive is streamed from its start, skipping laps up to
+ * the cursor. Pages of a racer merge the laps in the table with those in the archives of the
+ * racer's archived races.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class LapHistoryService {
+
+    private final LapRepository lapRepository;
+    private final LapArchive lapArchive;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    /**
+     * Returns a page of laps of the specified race.
+     *
+     * @param raceId   the surrogate ID of the race
+     * @param after    the cursor of the previous page, or {@code null} for the first page
+     * @param pageSize the requested page size, or {@code null} for the default page size
+     * @return the requested page
+     */
+    public LapPage findRaceLaps(long raceId, @Nullable LapCursor after, @Nullable Integer pageSize) {
+        final var limit = resolvePageSize(pageSize);
+        try (final var archived = lapArchive.streamLaps(raceId, after)) {
+            if (archived != null) {
+                return toPage(archived.limit(limit + 1).toList(), limit);
+            }
+        }
+        final var laps = after == null
+            ? lapRepository.findFirstPageByRaceId(raceId, limit + 1)
+            : lapRepository.findPageByRaceIdAfter(raceId, after.time(), after.id(), limit + 1);
+        return toPage(laps, limit);
+    }
+
+    /**
+     * Returns a page of laps of the specified racer across all races.
+     *
+     * @param racerId  the surrogate ID of the racer
+     * @param after    the cursor of the previous page, or {@code null} for the first page
+     * @param pageSize the requested page size, or {@code null} for the default page size
+     * @return the requested page
+     */
+    public LapPage findRacerLaps(long racerId, @Nullable LapCursor after, @Nullable Integer pageSize) {
+        final var limit = resolvePageSize(pageSize);
+        final var laps = after == null
+            ? lapRepository.findFirstPageByRacerId(racerId, limit + 1)
+            : lapRepository.findPageByRacerIdAfter(racerId, after.time(), after.id(), limit + 1);
+        // the table is read first, so a race archived meanwhile is found in its archive
+        try (final var merged = LapStreams.mergeByPosition(List.of(laps.stream(), lapArchive.streamRacerLaps(racerId, after)))) {
+            return toPage(merged.limit(limit + 1).toList(), limit);
+        }
+    }
+
+    private int resolvePageSize(@Nullable Integer pageSize) {
+        if (pageSize == null) {
+            return defaultPageSize;
+        }
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive, got " + pageSize);
+        }
+        return Math.min(pageSize, maxPageSize);
+    }
+
+    private static LapPage toPage(List<LapView> laps, int limit) {
+        if (laps.size() <= limit) {
+            return new LapPage(laps, null);
+        }
+        final var page = laps.subList(0, limit);
+        return new LapPage(List.copyOf(page), page.getLast().cursor().encode());
+    }
+}
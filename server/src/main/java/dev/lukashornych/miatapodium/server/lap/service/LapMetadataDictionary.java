@@ -0,0 +1,192 @@
+package dev.lukashornych.miatapodium.server.lap.service;
+
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process dictionary encoding the repeated car and category metadata of laps into the small
+ * integer IDs of the {@code categories}, {@code cars} and {@code tags} lookup tables, and decoding
+ * them back on reads.
+ *
+ * <p>The lookup tables hold only a handful of rows per season, so they are cached in full.
+ * A lookup miss while encoding inserts the new value in a separate transaction, so that
+ * a cached ID always refers to a committed row even if the ingest transaction rolls back.
+ * A lookup miss while decoding reloads the table.
+ */
+@NullMarked
+@Slf4j
+public class LapMetadataDictionary {
+
+    private final JdbcClient jdbcClient;
+    private final TransactionTemplate requiresNewTransactionTemplate;
+
+    private final Entries<String> categories = new Entries<>();
+    private final Entries<Car> cars = new Entries<>();
+    private final Entries<String> tags = new Entries<>();
+
+    public LapMetadataDictionary(JdbcClient jdbcClient, TransactionTemplate requiresNewTransactionTemplate) {
+        this.jdbcClient = jdbcClient;
+        this.requiresNewTransactionTemplate = requiresNewTransactionTemplate;
+    }
+
+    /**
+     * Returns the ID of the given category, registering it if it is not known yet.
+     *
+     * @param category the category name
+     * @return the category ID
+     */
+    public int categoryId(String category) {
+        final var id = categories.ids.get(category);
+        return id != null ? id : register(categories, category, """
+            INSERT INTO categories (name) VALUES (:name)
+            ON CONFLICT (name) DO UPDATE SET name = EXCLUDED.name
+            RETURNING id
+            """, Map.of("name", category));
+    }
+
+    /**
+     * Returns the ID of the given car, registering it if it is not known yet.
+     *
+     * @param make  the car make
+     * @param model the car model
+     * @return the car ID
+     */
+    public int carId(String make, String model) {
+        final var car = new Car(make, model);
+        final var id = cars.ids.get(car);
+        return id != null ? id : register(cars, car, """
+            INSERT INTO cars (make, model) VALUES (:make, :model)
+            ON CONFLICT (make, model) DO UPDATE SET make = EXCLUDED.make
+            RETURNING id
+            """, Map.of("make", make, "model", model));
+    }
+
+    /**
+     * Returns the ID of the given transponder tag, registering it if it is not known yet.
+     *
+     * @param tag the tag value
+     * @return the tag ID
+     */
+    public int tagId(String tag) {
+        final var id = tags.ids.get(tag);
+        return id != null ? id : register(tags, tag, """
+            INSERT INTO tags (value) VALUES (:value)
+            ON CONFLICT (value) DO UPDATE SET value = EXCLUDED.value
+            RETURNING id
+            """, Map.of("value", tag));
+    }
+
+    /**
+     * Decodes the metadata IDs of the given lap.
+     *
+     * @param lap the lap to decode
+     * @return the decoded metadata
+     */
+    public LapMetadata decode(Lap lap) {
+        return decode(lap.categoryId(), lap.carId(), lap.tagId());
+    }
+
+    /**
+     * Decodes the given metadata IDs.
+     *
+     * @param categoryId the category ID
+     * @param carId      the car ID
+     * @param tagId      the tag ID
+     * @return the decoded metadata
+     * @throws IllegalStateException if any of the IDs does not exist
+     */
+    public LapMetadata decode(int categoryId, int carId, int tagId) {
+        final var car = car(carId);
+        return new LapMetadata(category(categoryId), car.make(), car.model(), tag(tagId));
+    }
+
+    /**
+     * Decodes a category ID.
+     *
+     * @param categoryId the category ID
+     * @return the category name
+     */
+    public String category(int categoryId) {
+        final var category = categories.values.get(categoryId);
+        if (category != null) {
+            return category;
+        }
+        reload(categories, "SELECT id, name FROM categories", (rs, rowNum) -> rs.getString("name"));
+        return Objects.requireNonNull(categories.values.get(categoryId), () -> "Unknown category ID " + categoryId);
+    }
+
+    /**
+     * Decodes a car ID.
+     *
+     * @param carId the car ID
+     * @return the car
+     */
+    public Car car(int carId) {
+        final var car = cars.values.get(carId);
+        if (car != null) {
+            return car;
+        }
+        reload(cars, "SELECT id, make, model FROM cars", (rs, rowNum) -> new Car(rs.getString("make"), rs.getString("model")));
+        return Objects.requireNonNull(cars.values.get(carId), () -> "Unknown car ID " + carId);
+    }
+
+    /**
+     * Decodes a tag ID.
+     *
+     * @param tagId the tag ID
+     * @return the tag value
+     */
+    public String tag(int tagId) {
+        final var tag = tags.values.get(tagId);
+        if (tag != null) {
+            return tag;
+        }
+        reload(tags, "SELECT id, value FROM tags", (rs, rowNum) -> rs.getString("value"));
+        return Objects.requireNonNull(tags.values.get(tagId), () -> "Unknown tag ID " + tagId);
+    }
+
+    private <V> int register(Entries<V> entries, V value, String sql, Map<String, ?> params) {
+        final Integer id = requiresNewTransactionTemplate.execute(status -> jdbcClient.sql(sql)
+            .params(params)
+            .query(Integer.class)
+            .single());
+        entries.put(Objects.requireNonNull(id), value);
+        log.debug("Registered lap metadata dictionary entry {} -> {}", value, id);
+        return id;
+    }
+
+    private <V> void reload(Entries<V> entries, String sql, RowMapper<V> valueMapper) {
+        jdbcClient.sql(sql)
+            .query((RowCallbackHandler) rs -> entries.put(rs.getInt("id"), valueMapper.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Decoded car entry of the dictionary.
+     *
+     * @param make  the car make
+     * @param model the car model
+     */
+    public record Car(String make, String model) {
+    }
+
+    private static final class Entries<V> {
+
+        private final Map<V, Integer> ids = new ConcurrentHashMap<>();
+        private final Map<Integer, V> values = new ConcurrentHashMap<>();
+
+        private void put(int id, V value) {
+            ids.put(value, id);
+            values.put(id, value);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package dev.lukashornych.miatapodium.server.lap.service;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges lap streams that are each ordered by {@code (time, id)}, e.g. the laps of a racer still
+ * in the {@code laps} table and those in the archives of their finished races.
+ */
+@NullMarked
+public final class LapStreams {
+
+    private static final Comparator<LapView> POSITION_ORDER = Comparator.comparing(LapView::time).thenComparingLong(LapView::id);
+
+    private LapStreams() {
+    }
+
+    /**
+     * Merges the streams lazily into a single stream ordered by {@code (time, id)}, holding only
+     * the next lap of every stream. A lap present in more than one stream, e.g. one read from
+     * both the table and the archive while its race was being archived, is returned once.
+     * Closing the merged stream closes all the merged streams.
+     *
+     * @param sources the streams to merge, each ordered by {@code (time, id)}
+     * @return the merged stream
+     */
+    public static Stream<LapView> mergeByPosition(List<Stream<LapView>> sources) {
+        final var iterator = new MergingIterator(sources);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> closeAll(sources));
+    }
+
+    private static void closeAll(List<Stream<LapView>> sources) {
+        RuntimeException failure = null;
+        for (final var source : sources) {
+            try {
+                source.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class MergingIterator implements Iterator<LapView> {
+
+        private final List<Stream<LapView>> sources;
+        private @Nullable PriorityQueue<Head> heads;
+        private @Nullable LapView last;
+
+        private MergingIterator(List<Stream<LapView>> sources) {
+            this.sources = sources;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final var queue = heads();
+            // skip copies of the lap returned last, they are adjacent in (time, id) order
+            while (!queue.isEmpty() && last != null && queue.peek().lap().id() == last.id()) {
+                advance(queue.poll(), queue);
+            }
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public LapView next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final var queue = heads();
+            final var head = queue.poll();
+            last = head.lap();
+            advance(head, queue);
+            return head.lap();
+        }
+
+        private PriorityQueue<Head> heads() {
+            if (heads == null) {
+                // the sources are started on first access, not when the merged stream is created
+                heads = new PriorityQueue<>(Math.max(1, sources.size()), Comparator.comparing(Head::lap, POSITION_ORDER));
+                for (final var source : sources) {
+                    final var iterator = source.iterator();
+                    if (iterator.hasNext()) {
+                        heads.add(new Head(iterator.next(), iterator));
+                    }
+                }
+            }
+            return heads;
+        }
+
+        private static void advance(Head head, PriorityQueue<Head> queue) {
+            if (head.rest().hasNext()) {
+                queue.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+    }
+
+    private record Head(LapView lap, Iterator<LapView> rest) {
+    }
+}
@@ -0,0 +1,105 @@
+package dev.lukashornych.miatapodium.server.leaderboard.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.LapChartRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.StandingsCheckpointRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.StandingsRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LapChartService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.RaceDataVersions;
+import dev.lukashornych.miatapodium.server.leaderboard.service.StandingsHistoryService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.VersionedResponseCache;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Spring configuration for the leaderboard module. Declares the race data version tracker,
+ * the versioned response cache, the leaderboard service, the point-in-time standings service
+ * and the lap chart service.
+ */
+@NullMarked
+@Configuration
+@EnableConfigurationProperties(LeaderboardProperties.class)
+public class LeaderboardConfiguration {
+
+    @Bean
+    RaceDataVersions raceDataVersions() {
+        return new RaceDataVersions();
+    }
+
+    @Bean
+    VersionedResponseCache versionedResponseCache(RaceDataVersions raceDataVersions, LeaderboardProperties properties) {
+        return new VersionedResponseCache(raceDataVersions, properties.responseCacheMaxEntries());
+    }
+
+    @Bean
+    StandingsRepository standingsRepository(JdbcClient jdbcClient) {
+        return new StandingsRepository(jdbcClient);
+    }
+
+    @Bean
+    LeaderboardService leaderboardService(
+        RaceRepository raceRepository,
+        RacerRepository racerRepository,
+        StandingsRepository standingsRepository,
+        LapRepository lapRepository,
+        LapArchive lapArchive,
+        VersionedResponseCache versionedResponseCache,
+        ObjectMapper objectMapper,
+        LeaderboardProperties properties
+    ) {
+        return new LeaderboardService(
+            raceRepository,
+            racerRepository,
+            standingsRepository,
+            lapRepository,
+            lapArchive,
+            versionedResponseCache,
+            objectMapper,
+            properties.latestLapsLimit()
+        );
+    }
+
+    @Bean
+    StandingsHistoryService standingsHistoryService(
+        LapRepository lapRepository,
+        RacerRepository racerRepository,
+        StandingsCheckpointRepository standingsCheckpointRepository,
+        LapArchive lapArchive,
+        PlatformTransactionManager transactionManager,
+        LeaderboardProperties properties
+    ) {
+        // checkpoints are written after the ingest transaction has committed, while it is still bound
+        final var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new StandingsHistoryService(
+            lapRepository,
+            racerRepository,
+            standingsCheckpointRepository,
+            lapArchive,
+            transactionTemplate,
+            properties.checkpointIntervalLaps()
+        );
+    }
+
+    @Bean
+    LapChartRepository lapChartRepository(JdbcClient jdbcClient, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        return new LapChartRepository(jdbcClient, namedParameterJdbcTemplate);
+    }
+
+    @Bean
+    LapChartService lapChartService(LapChartRepository lapChartRepository) {
+        return new LapChartService(lapChartRepository);
+    }
+}
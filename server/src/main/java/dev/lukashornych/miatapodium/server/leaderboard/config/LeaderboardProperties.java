@@ -0,0 +1,21 @@
+package dev.lukashornych.miatapodium.server.leaderboard.config;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the spectator leaderboard views.
+ * Bound from the {@code miatapodium.leaderboard} prefix in application properties.
+ *
+ * @param latestLapsLimit          the number of laps included in the latest laps view
+ * @param responseCacheMaxEntries  the maximum number of race views kept serialized in memory
+ * @param checkpointIntervalLaps   the number of laps between two consecutive standings checkpoints of a race
+ */
+@NullMarked
+@ConfigurationProperties(prefix = "miatapodium.leaderboard")
+public record LeaderboardProperties(
+    int latestLapsLimit,
+    int responseCacheMaxEntries,
+    int checkpointIntervalLaps
+) {
+}
@@ -0,0 +1,134 @@
+package dev.lukashornych.miatapodium.server.leaderboard.controller;
+
+import dev.lukashornych.miatapodium.server.leaderboard.model.CachedResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.model.HistoricalStandingsResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.model.LapChartResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LapChartService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.StandingsHistoryService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+
+/**
+ * REST controller serving spectator views of a race with support for conditional requests.
+ * Responses carry an {@code ETag} of the race data version; a matching {@code If-None-Match}
+ * is answered with {@code 304 Not Modified} without touching the database once the race has
+ * received laps. Historical standings
+ * are resolved from standings checkpoints, lap charts from the incrementally maintained chart rounds.
+ */
+@NullMarked
+@RestController
+@RequestMapping("/api/races/{raceId}")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+    private final StandingsHistoryService standingsHistoryService;
+    private final LapChartService lapChartService;
+
+    /**
+     * Returns the standings of a race.
+     *
+     * @param raceId      the surrogate ID of the race
+     * @param ifNoneMatch the entity tags of the client's cached copy
+     * @return the serialized standings or an empty {@code 304} response
+     */
+    @GetMapping("/standings")
+    public ResponseEntity<byte[]> standings(
+        @PathVariable long raceId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) @Nullable String ifNoneMatch
+    ) {
+        return conditional(raceId, ifNoneMatch, leaderboardService::standings);
+    }
+
+    /**
+     * Returns the standings of a race as they were at the given moment.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param time   the moment, as an ISO-8601 instant
+     * @return the historical standings
+     */
+    @GetMapping("/standings/at")
+    public HistoricalStandingsResponse standingsAt(@PathVariable long raceId, @RequestParam Instant time) {
+        return standingsHistoryService.standingsAt(raceId, time);
+    }
+
+    /**
+     * Returns the latest laps of a race, newest first.
+     *
+     * @param raceId      the surrogate ID of the race
+     * @param ifNoneMatch the entity tags of the client's cached copy
+     * @return the serialized latest laps or an empty {@code 304} response
+     */
+    @GetMapping("/laps/latest")
+    public ResponseEntity<byte[]> latestLaps(
+        @PathVariable long raceId,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) @Nullable String ifNoneMatch
+    ) {
+        return conditional(raceId, ifNoneMatch, leaderboardService::latestLaps);
+    }
+
+    /**
+     * Returns the lap chart of a race: the position of every car after each round and its
+     * interval to the leader.
+     *
+     * @param raceId    the surrogate ID of the race
+     * @param fromRound the first round to return, inclusive
+     * @param toRound   the last round to return, inclusive
+     * @return the lap chart limited to the requested rounds
+     */
+    @GetMapping("/lap-chart")
+    public LapChartResponse lapChart(
+        @PathVariable long raceId,
+        @RequestParam(defaultValue = "0") int fromRound,
+        @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int toRound
+    ) {
+        try {
+            return lapChartService.lapChart(raceId, fromRound, toRound);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private ResponseEntity<byte[]> conditional(
+        long raceId,
+        @Nullable String ifNoneMatch,
+        LongFunction<CachedResponse> loader
+    ) {
+        if (leaderboardService.isNotModified(raceId, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(leaderboardService.currentEtag(raceId))
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+
+        final CachedResponse response;
+        try {
+            response = loader.apply(raceId);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(response.etag())
+            .cacheControl(CacheControl.noCache())
+            .body(response.body());
+    }
+}
@@ -0,0 +1,18 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * A response body serialized once for a particular race data version.
+ *
+ * @param version the race data version the body was rendered at
+ * @param etag    the entity tag identifying the version, already quoted
+ * @param body    the serialized response body; must not be modified
+ */
+@NullMarked
+public record CachedResponse(
+    long version,
+    String etag,
+    byte[] body
+) {
+}
@@ -0,0 +1,23 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Standings of a single race as they were at a particular moment.
+ *
+ * @param raceId    the surrogate ID of the race
+ * @param at        the moment the standings describe
+ * @param lapCount  the number of laps completed up to that moment
+ * @param standings the standings ordered by position
+ */
+@NullMarked
+public record HistoricalStandingsResponse(
+    long raceId,
+    Instant at,
+    int lapCount,
+    List<Standing> standings
+) {
+}
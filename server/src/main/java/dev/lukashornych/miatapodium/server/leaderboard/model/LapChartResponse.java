@@ -0,0 +1,22 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+
+/**
+ * Lap chart of a race limited to a range of rounds.
+ *
+ * @param raceId    the surrogate ID of the race
+ * @param fromRound the first requested round, inclusive
+ * @param toRound   the last requested round, inclusive
+ * @param rounds    the rounds within the range that have been completed by at least one car
+ */
+@NullMarked
+public record LapChartResponse(
+    long raceId,
+    int fromRound,
+    int toRound,
+    List<LapChartRound> rounds
+) {
+}
@@ -0,0 +1,23 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.time.Instant;
+
+/**
+ * Positions of all cars that completed a single round (lap number) of a race, in the order
+ * in which they completed it. The arrays are parallel: index 0 is the leader.
+ *
+ * @param round       the round
+ * @param leaderTime  the moment the leader completed the round, truncated to milliseconds
+ * @param racerIds    the surrogate IDs of the racers in position order
+ * @param intervalsMs the intervals to the leader in milliseconds, in position order
+ */
+@NullMarked
+public record LapChartRound(
+    int round,
+    Instant leaderTime,
+    long[] racerIds,
+    int[] intervalsMs
+) {
+}
@@ -0,0 +1,21 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+
+/**
+ * The most recent laps of a single race at a particular data version.
+ *
+ * @param raceId  the surrogate ID of the race
+ * @param version the race data version the laps were read at
+ * @param laps    the latest laps, newest first
+ */
+@NullMarked
+public record LatestLapsResponse(
+    long raceId,
+    long version,
+    List<LapView> laps
+) {
+}
@@ -0,0 +1,41 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A single row of race standings. Racers are ranked by their best lap time.
+ *
+ * @param position        the 1-based position of the racer
+ * @param racerId         the surrogate ID of the racer
+ * @param carNumber       the racer's car number
+ * @param firstName       the racer's first name
+ * @param lastName        the racer's last name
+ * @param lapCount        the number of laps completed in the race
+ * @param bestLapTimeMs   the best lap time in milliseconds
+ * @param lastLapTimeMs   the time of the most recent lap in milliseconds
+ * @param bestS1Ms        the best first sector time in milliseconds
+ * @param bestS2Ms        the best second sector time in milliseconds
+ * @param bestS3Ms        the best third sector time in milliseconds
+ * @param lastLapAt       the moment the most recent lap was completed
+ * @param gapToLeaderMs   the difference between this racer's and the leader's best lap, or {@code null} for the leader
+ */
+@NullMarked
+public record Standing(
+    int position,
+    long racerId,
+    int carNumber,
+    String firstName,
+    String lastName,
+    int lapCount,
+    int bestLapTimeMs,
+    int lastLapTimeMs,
+    int bestS1Ms,
+    int bestS2Ms,
+    int bestS3Ms,
+    Instant lastLapAt,
+    @Nullable Integer gapToLeaderMs
+) {
+}
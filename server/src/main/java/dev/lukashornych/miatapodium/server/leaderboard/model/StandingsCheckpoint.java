@@ -0,0 +1,43 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * Aggregate root representing a snapshot of race standings. The snapshot covers all laps of
+ * the race up to and including the keyset position {@code (positionTime, positionLapId)}.
+ *
+ * @param id            the surrogate ID
+ * @param raceId        the race the standings belong to
+ * @param positionTime  the time of the last lap included in the snapshot
+ * @param positionLapId the surrogate ID of the last lap included in the snapshot
+ * @param lapCount      the number of laps included in the snapshot
+ * @param state         the encoded {@link StandingsState}
+ */
+@NullMarked
+@Table("standings_checkpoints")
+public record StandingsCheckpoint(
+    @Id @Nullable Long id,
+    AggregateReference<Race, Long> raceId,
+    Instant positionTime,
+    long positionLapId,
+    int lapCount,
+    byte[] state
+) {
+
+    /**
+     * Returns the keyset position of the last lap included in the snapshot.
+     *
+     * @return the position as a lap cursor
+     */
+    public LapCursor position() {
+        return new LapCursor(positionTime, positionLapId);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Leaderboard of a single race at a particular data version.
+ *
+ * @param raceId    the surrogate ID of the race
+ * @param raceName  the racetrack name
+ * @param date      the trackday date
+ * @param version   the race data version the standings were computed from
+ * @param standings the standings ordered by position
+ */
+@NullMarked
+public record StandingsResponse(
+    long raceId,
+    String raceName,
+    LocalDate date,
+    long version,
+    List<Standing> standings
+) {
+}
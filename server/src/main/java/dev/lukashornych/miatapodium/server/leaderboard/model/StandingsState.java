@@ -0,0 +1,215 @@
+package dev.lukashornych.miatapodium.server.leaderboard.model;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable accumulator of race standings built by applying laps in {@code (time, id)} order.
+ * Ranks racers the same way as the standings query of
+ * {@link dev.lukashornych.miatapodium.server.leaderboard.repository.StandingsRepository}:
+ * by best lap time, ties broken by racer ID.
+ *
+ * <p>The state has a compact binary encoding used by {@link StandingsCheckpoint}.
+ */
+@NullMarked
+public final class StandingsState {
+
+    private static final byte ENCODING_VERSION = 1;
+
+    private final Map<Long, RacerState> racers = new HashMap<>();
+    private int lapCount;
+
+    /**
+     * Applies a lap. Laps must be applied in {@code (time, id)} order.
+     *
+     * @param racerId   the surrogate ID of the racer
+     * @param time      the time the lap was completed
+     * @param lapTimeMs the lap time
+     * @param s1Ms      the first sector time
+     * @param s2Ms      the second sector time
+     * @param s3Ms      the third sector time
+     */
+    public void apply(long racerId, Instant time, int lapTimeMs, int s1Ms, int s2Ms, int s3Ms) {
+        final var racer = racers.get(racerId);
+        if (racer == null) {
+            racers.put(racerId, new RacerState(racerId, 1, lapTimeMs, lapTimeMs, s1Ms, s2Ms, s3Ms, time));
+        } else {
+            racer.lapCount++;
+            racer.bestLapTimeMs = Math.min(racer.bestLapTimeMs, lapTimeMs);
+            racer.lastLapTimeMs = lapTimeMs;
+            racer.bestS1Ms = Math.min(racer.bestS1Ms, s1Ms);
+            racer.bestS2Ms = Math.min(racer.bestS2Ms, s2Ms);
+            racer.bestS3Ms = Math.min(racer.bestS3Ms, s3Ms);
+            racer.lastLapAt = time;
+        }
+        lapCount++;
+    }
+
+    /**
+     * Applies a lap. Laps must be applied in {@code (time, id)} order.
+     *
+     * @param lap the lap
+     */
+    public void apply(LapView lap) {
+        apply(lap.racerId(), lap.time(), lap.lapTimeMs(), lap.s1Ms(), lap.s2Ms(), lap.s3Ms());
+    }
+
+    /**
+     * Returns the number of laps applied so far.
+     *
+     * @return the lap count
+     */
+    public int lapCount() {
+        return lapCount;
+    }
+
+    /**
+     * Ranks the racers into standings.
+     *
+     * @param racerDetails the racers referenced by the state, keyed by surrogate ID
+     * @return the standings ordered by position
+     */
+    public List<Standing> rank(Map<Long, Racer> racerDetails) {
+        final var ordered = racers.values().stream()
+            .sorted(Comparator.comparingInt((RacerState racer) -> racer.bestLapTimeMs).thenComparingLong(racer -> racer.racerId))
+            .toList();
+        final var standings = new ArrayList<Standing>(ordered.size());
+        final var leaderBest = ordered.isEmpty() ? 0 : ordered.getFirst().bestLapTimeMs;
+        for (final var racer : ordered) {
+            final var details = racerDetails.get(racer.racerId);
+            standings.add(new Standing(
+                standings.size() + 1,
+                racer.racerId,
+                details == null ? 0 : details.carNumber(),
+                details == null ? "" : details.firstName(),
+                details == null ? "" : details.lastName(),
+                racer.lapCount,
+                racer.bestLapTimeMs,
+                racer.lastLapTimeMs,
+                racer.bestS1Ms,
+                racer.bestS2Ms,
+                racer.bestS3Ms,
+                racer.lastLapAt,
+                standings.isEmpty() ? null : racer.bestLapTimeMs - leaderBest
+            ));
+        }
+        return standings;
+    }
+
+    /**
+     * Returns the surrogate IDs of all racers with at least one lap.
+     *
+     * @return the racer IDs
+     */
+    public List<Long> racerIds() {
+        return List.copyOf(racers.keySet());
+    }
+
+    /**
+     * Encodes the state into its compact binary form.
+     *
+     * @return the encoded state
+     */
+    public byte[] encode() {
+        final var bytes = new ByteArrayOutputStream(8 + racers.size() * 44);
+        try (final var out = new DataOutputStream(bytes)) {
+            out.writeByte(ENCODING_VERSION);
+            out.writeInt(lapCount);
+            out.writeInt(racers.size());
+            for (final var racer : racers.values()) {
+                out.writeLong(racer.racerId);
+                out.writeInt(racer.lapCount);
+                out.writeInt(racer.bestLapTimeMs);
+                out.writeInt(racer.lastLapTimeMs);
+                out.writeInt(racer.bestS1Ms);
+                out.writeInt(racer.bestS2Ms);
+                out.writeInt(racer.bestS3Ms);
+                out.writeLong(racer.lastLapAt.getEpochSecond());
+                out.writeInt(racer.lastLapAt.getNano());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a state previously encoded by {@link #encode()}.
+     *
+     * @param encoded the encoded state
+     * @return the decoded state
+     */
+    public static StandingsState decode(byte[] encoded) {
+        final var state = new StandingsState();
+        try (final var in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            final var version = in.readByte();
+            if (version != ENCODING_VERSION) {
+                throw new IllegalArgumentException("Unsupported standings state encoding version " + version);
+            }
+            state.lapCount = in.readInt();
+            final var racerCount = in.readInt();
+            for (int i = 0; i < racerCount; i++) {
+                final var racer = new RacerState(
+                    in.readLong(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readInt(),
+                    Instant.ofEpochSecond(in.readLong(), in.readInt())
+                );
+                state.racers.put(racer.racerId, racer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return state;
+    }
+
+    private static final class RacerState {
+
+        private final long racerId;
+        private int lapCount;
+        private int bestLapTimeMs;
+        private int lastLapTimeMs;
+        private int bestS1Ms;
+        private int bestS2Ms;
+        private int bestS3Ms;
+        private Instant lastLapAt;
+
+        private RacerState(
+            long racerId,
+            int lapCount,
+            int bestLapTimeMs,
+            int lastLapTimeMs,
+            int bestS1Ms,
+            int bestS2Ms,
+            int bestS3Ms,
+            Instant lastLapAt
+        ) {
+            this.racerId = racerId;
+            this.lapCount = lapCount;
+            this.bestLapTimeMs = bestLapTimeMs;
+            this.lastLapTimeMs = lastLapTimeMs;
+            this.bestS1Ms = bestS1Ms;
+            this.bestS2Ms = bestS2Ms;
+            this.bestS3Ms = bestS3Ms;
+            this.lastLapAt = lastLapAt;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package dev.lukashornych.miatapodium.server.leaderboard.repository;
+
+import dev.lukashornych.miatapodium.server.leaderboard.model.LapChartRound;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Repository for lap chart rounds kept in {@code lap_chart_rounds}, one row per round of a race.
+ * The intervals to the leader are stored delta-encoded as gaps to the car ahead, which keeps
+ * the stored numbers small; this repository converts between the two representations.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class LapChartRepository {
+
+    private static final String FIND_RANGE_SQL = """
+        SELECT round, leader_time, racer_ids, gaps_ms
+        FROM lap_chart_rounds
+        WHERE race_id = :raceId AND round BETWEEN :fromRound AND :toRound
+        ORDER BY round
+        """;
+
+    private static final String FIND_ROUNDS_SQL = """
+        SELECT round, leader_time, racer_ids, gaps_ms
+        FROM lap_chart_rounds
+        WHERE race_id = :raceId AND round IN (:rounds)
+        """;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO lap_chart_rounds (race_id, round, leader_time, racer_ids, gaps_ms)
+        VALUES (:raceId, :round, :leaderTime, CAST(:racerIds AS BIGINT[]), CAST(:gapsMs AS INTEGER[]))
+        ON CONFLICT (race_id, round) DO UPDATE SET
+            leader_time = EXCLUDED.leader_time,
+            racer_ids = EXCLUDED.racer_ids,
+            gaps_ms = EXCLUDED.gaps_ms
+        """;
+
+    private static final RowMapper<LapChartRound> ROW_MAPPER = (rs, rowNum) -> {
+        final var racerIds = (Long[]) arrayOf(rs.getArray("racer_ids"));
+        final var gapsMs = (Integer[]) arrayOf(rs.getArray("gaps_ms"));
+        final var ids = new long[racerIds.length];
+        final var intervalsMs = new int[gapsMs.length];
+        var intervalMs = 0;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = racerIds[i];
+            intervalMs += gapsMs[i];
+            intervalsMs[i] = intervalMs;
+        }
+        return new LapChartRound(
+            rs.getInt("round"),
+            rs.getObject("leader_time", OffsetDateTime.class).toInstant(),
+            ids,
+            intervalsMs
+        );
+    };
+
+    private final JdbcClient jdbcClient;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns the rounds of the race within the given range.
+     *
+     * @param raceId    the surrogate ID of the race
+     * @param fromRound the first round, inclusive
+     * @param toRound   the last round, inclusive
+     * @return the stored rounds ordered by round
+     */
+    public List<LapChartRound> findRange(long raceId, int fromRound, int toRound) {
+        return jdbcClient.sql(FIND_RANGE_SQL)
+            .param("raceId", raceId)
+            .param("fromRound", fromRound)
+            .param("toRound", toRound)
+            .query(ROW_MAPPER)
+            .list();
+    }
+
+    /**
+     * Returns the stored rounds of the race among the given rounds.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param rounds the rounds to look up
+     * @return the stored rounds in no particular order
+     */
+    public List<LapChartRound> findRounds(long raceId, Collection<Integer> rounds) {
+        if (rounds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcClient.sql(FIND_ROUNDS_SQL)
+            .param("raceId", raceId)
+            .param("rounds", rounds)
+            .query(ROW_MAPPER)
+            .list();
+    }
+
+    /**
+     * Stores the rounds of the race in a single batch, replacing previously stored versions.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param rounds the rounds to store
+     */
+    public void saveAll(long raceId, Collection<LapChartRound> rounds) {
+        if (rounds.isEmpty()) {
+            return;
+        }
+        final var batch = rounds.stream()
+            .map(round -> new MapSqlParameterSource()
+                .addValue("raceId", raceId)
+                .addValue("round", round.round())
+                .addValue("leaderTime", OffsetDateTime.ofInstant(round.leaderTime(), ZoneOffset.UTC))
+                .addValue("racerIds", racerIdsLiteral(round.racerIds()))
+                .addValue("gapsMs", gapsLiteral(round.intervalsMs())))
+            .toArray(MapSqlParameterSource[]::new);
+        namedParameterJdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    private static Object arrayOf(Array array) throws SQLException {
+        try {
+            return array.getArray();
+        } finally {
+            array.free();
+        }
+    }
+
+    private static String racerIdsLiteral(long[] racerIds) {
+        final var literal = new StringJoiner(",", "{", "}");
+        for (final var racerId : racerIds) {
+            literal.add(Long.toString(racerId));
+        }
+        return literal.toString();
+    }
+
+    private static String gapsLiteral(int[] intervalsMs) {
+        final var literal = new StringJoiner(",", "{", "}");
+        var previous = 0;
+        for (final var intervalMs : intervalsMs) {
+            literal.add(Integer.toString(intervalMs - previous));
+            previous = intervalMs;
+        }
+        return literal.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package dev.lukashornych.miatapodium.server.leaderboard.repository;
+
+import dev.lukashornych.miatapodium.server.leaderboard.model.StandingsCheckpoint;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository for persisting and querying {@link StandingsCheckpoint} aggregates.
+ */
+public interface StandingsCheckpointRepository extends CrudRepository<StandingsCheckpoint, Long> {
+
+    /**
+     * Finds the latest checkpoint of the race covering no laps completed after the given moment.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param at     the moment
+     * @return the nearest checkpoint at or before the moment, if any
+     */
+    @Query("""
+        SELECT * FROM standings_checkpoints
+        WHERE race_id = :raceId AND position_time <= :at
+        ORDER BY position_time DESC, position_lap_id DESC
+        LIMIT 1
+        """)
+    Optional<StandingsCheckpoint> findLatestAtOrBefore(@Param("raceId") long raceId, @Param("at") Instant at);
+
+    /**
+     * Finds the latest checkpoint of the race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the latest checkpoint, if any
+     */
+    @Query("""
+        SELECT * FROM standings_checkpoints
+        WHERE race_id = :raceId
+        ORDER BY position_time DESC, position_lap_id DESC
+        LIMIT 1
+        """)
+    Optional<StandingsCheckpoint> findLatest(@Param("raceId") long raceId);
+
+    /**
+     * Stores a checkpoint unless a checkpoint at the same position already exists.
+     *
+     * @param raceId        the surrogate ID of the race
+     * @param positionTime  the time of the last lap included in the checkpoint
+     * @param positionLapId the surrogate ID of the last lap included in the checkpoint
+     * @param lapCount      the number of laps included in the checkpoint
+     * @param state         the encoded standings
+     */
+    @Modifying
+    @Query("""
+        INSERT INTO standings_checkpoints (race_id, position_time, position_lap_id, lap_count, state)
+        VALUES (:raceId, :positionTime, :positionLapId, :lapCount, :state)
+        ON CONFLICT (race_id, position_time, position_lap_id) DO NOTHING
+        """)
+    void insertIfAbsent(
+        @Param("raceId") long raceId,
+        @Param("positionTime") Instant positionTime,
+        @Param("positionLapId") long positionLapId,
+        @Param("lapCount") int lapCount,
+        @Param("state") byte[] state
+    );
+
+    /**
+     * Deletes all checkpoints of the race at or after the given keyset position. Used when a lap
+     * arrives late, i.e. with a position that existing checkpoints should have included.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param time   the time of the late lap
+     * @param lapId  the surrogate ID of the late lap
+     * @return the number of deleted checkpoints
+     */
+    @Modifying
+    @Query("""
+        DELETE FROM standings_checkpoints
+        WHERE race_id = :raceId AND (position_time, position_lap_id) >= (:time, :lapId)
+        """)
+    int deleteFromPosition(@Param("raceId") long raceId, @Param("time") Instant time, @Param("lapId") long lapId);
+}
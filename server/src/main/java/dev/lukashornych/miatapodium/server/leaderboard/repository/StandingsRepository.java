@@ -0,0 +1,91 @@
+package dev.lukashornych.miatapodium.server.leaderboard.repository;
+
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository computing race standings by aggregating the laps of a race in a single query.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class StandingsRepository {
+
+    private static final String STANDINGS_SQL = """
+        SELECT l.racer_id, r.car_number, r.first_name, r.last_name,
+               COUNT(*) AS lap_count,
+               MIN(l.lap_time_ms) AS best_lap_time_ms,
+               (ARRAY_AGG(l.lap_time_ms ORDER BY l.time DESC, l.id DESC))[1] AS last_lap_time_ms,
+               MIN(l.s1_ms) AS best_s1_ms,
+               MIN(l.s2_ms) AS best_s2_ms,
+               MIN(l.s3_ms) AS best_s3_ms,
+               MAX(l.time) AS last_lap_at
+        FROM laps l
+        JOIN racers r ON r.id = l.racer_id
+        WHERE l.race_id = :raceId
+        GROUP BY l.racer_id, r.car_number, r.first_name, r.last_name
+        ORDER BY best_lap_time_ms, l.racer_id
+        """;
+
+    private final JdbcClient jdbcClient;
+
+    /**
+     * Computes the standings of the specified race ranked by best lap time.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the standings ordered by position
+     */
+    public List<Standing> findStandings(long raceId) {
+        final var rows = jdbcClient.sql(STANDINGS_SQL)
+            .param("raceId", raceId)
+            .query((rs, rowNum) -> new Standing(
+                rowNum + 1,
+                rs.getLong("racer_id"),
+                rs.getInt("car_number"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getInt("lap_count"),
+                rs.getInt("best_lap_time_ms"),
+                rs.getInt("last_lap_time_ms"),
+                rs.getInt("best_s1_ms"),
+                rs.getInt("best_s2_ms"),
+                rs.getInt("best_s3_ms"),
+                rs.getObject("last_lap_at", OffsetDateTime.class).toInstant(),
+                null
+            ))
+            .list();
+        return withGaps(rows);
+    }
+
+    private static List<Standing> withGaps(List<Standing> standings) {
+        if (standings.isEmpty()) {
+            return standings;
+        }
+        final var leaderBest = standings.getFirst().bestLapTimeMs();
+        final var result = new ArrayList<Standing>(standings.size());
+        result.add(standings.getFirst());
+        for (final var standing : standings.subList(1, standings.size())) {
+            result.add(new Standing(
+                standing.position(),
+                standing.racerId(),
+                standing.carNumber(),
+                standing.firstName(),
+                standing.lastName(),
+                standing.lapCount(),
+                standing.bestLapTimeMs(),
+                standing.lastLapTimeMs(),
+                standing.bestS1Ms(),
+                standing.bestS2Ms(),
+                standing.bestS3Ms(),
+                standing.lastLapAt(),
+                standing.bestLapTimeMs() - leaderBest
+            ));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.leaderboard.model.LapChartResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.model.LapChartRound;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.LapChartRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.context.event.EventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining the lap chart of races: every car's position after each round and its
+ * interval to the leader.
+ *
+ * <p>The chart is kept per round in {@code lap_chart_rounds} and updated with every ingestion
+ * run inside the ingest transaction. Only the rounds that received new laps are read and
+ * rewritten, so the cost of an update is proportional to the number of cars in those rounds
+ * rather than to the length of the race. A racer's position in a round is given by the moment
+ * they first completed it; laps arriving late are slotted into place.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class LapChartService {
+
+    private static final Comparator<Crossing> CROSSING_ORDER = Comparator.comparingLong(Crossing::timeMs)
+        .thenComparingLong(Crossing::racerId);
+
+    private final LapChartRepository lapChartRepository;
+
+    /**
+     * Returns the lap chart of the race limited to the given range of rounds.
+     *
+     * @param raceId    the surrogate ID of the race
+     * @param fromRound the first round, inclusive
+     * @param toRound   the last round, inclusive
+     * @return the lap chart
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    public LapChartResponse lapChart(long raceId, int fromRound, int toRound) {
+        if (fromRound < 0 || toRound < fromRound) {
+            throw new IllegalArgumentException("Invalid round range " + fromRound + ".." + toRound + ".");
+        }
+        return new LapChartResponse(raceId, fromRound, toRound, lapChartRepository.findRange(raceId, fromRound, toRound));
+    }
+
+    /**
+     * Merges the newly ingested laps into the lap charts of their races. Runs synchronously inside
+     * the ingest transaction so that the chart commits or rolls back together with the laps.
+     *
+     * @param event the ingestion event
+     */
+    @EventListener
+    public void onLapsIngested(LapsIngestedEvent event) {
+        final var lapsByRace = event.laps().stream()
+            .collect(Collectors.groupingBy(lap -> lap.raceId().getId()));
+        lapsByRace.forEach(this::merge);
+    }
+
+    private void merge(long raceId, List<Lap> laps) {
+        final var lapsByRound = laps.stream().collect(Collectors.groupingBy(Lap::round));
+        final var storedRounds = lapChartRepository.findRounds(raceId, lapsByRound.keySet()).stream()
+            .collect(Collectors.toMap(LapChartRound::round, round -> round));
+
+        final var updatedRounds = new ArrayList<LapChartRound>(lapsByRound.size());
+        lapsByRound.forEach((round, roundLaps) -> {
+            final var crossings = new HashMap<Long, Long>();
+            final var stored = storedRounds.get(round);
+            if (stored != null) {
+                final var leaderMs = stored.leaderTime().toEpochMilli();
+                for (int i = 0; i < stored.racerIds().length; i++) {
+                    crossings.put(stored.racerIds()[i], leaderMs + stored.intervalsMs()[i]);
+                }
+            }
+            for (final var lap : roundLaps) {
+                final var timeMs = lap.time().truncatedTo(ChronoUnit.MILLIS).toEpochMilli();
+                crossings.merge(lap.racerId().getId(), timeMs, Math::min);
+            }
+            updatedRounds.add(toRound(round, crossings));
+        });
+        lapChartRepository.saveAll(raceId, updatedRounds);
+    }
+
+    private static LapChartRound toRound(int round, Map<Long, Long> crossings) {
+        final var ordered = crossings.entrySet().stream()
+            .map(entry -> new Crossing(entry.getKey(), entry.getValue()))
+            .sorted(CROSSING_ORDER)
+            .toList();
+        final var leaderMs = ordered.getFirst().timeMs();
+        final var racerIds = new long[ordered.size()];
+        final var intervalsMs = new int[ordered.size()];
+        for (int i = 0; i < racerIds.length; i++) {
+            racerIds[i] = ordered.get(i).racerId();
+            intervalsMs[i] = Math.toIntExact(ordered.get(i).timeMs() - leaderMs);
+        }
+        return new LapChartRound(round, Instant.ofEpochMilli(leaderMs), racerIds, intervalsMs);
+    }
+
+    private record Crossing(long racerId, long timeMs) {
+    }
+}
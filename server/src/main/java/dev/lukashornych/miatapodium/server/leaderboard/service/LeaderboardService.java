@@ -0,0 +1,165 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.model.CachedResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.model.LatestLapsResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import dev.lukashornych.miatapodium.server.leaderboard.model.StandingsResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.model.StandingsState;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.StandingsRepository;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Service serving the spectator-facing views of a race: its standings and its latest laps.
+ * Each view is queried and serialized at most once per race data version, so the cost of
+ * reads depends on the number of ingested changes rather than on the number of viewers.
+ * Views of archived races are computed from the race archive.
+ */
+@NullMarked
+@Slf4j
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private static final String STANDINGS_VIEW = "standings";
+    private static final String LATEST_LAPS_VIEW = "latest-laps";
+
+    private final RaceRepository raceRepository;
+    private final RacerRepository racerRepository;
+    private final StandingsRepository standingsRepository;
+    private final LapRepository lapRepository;
+    private final LapArchive lapArchive;
+    private final VersionedResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final int latestLapsLimit;
+
+    /**
+     * Returns the serialized standings of the specified race at its current data version.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the cached standings response
+     * @throws NoSuchElementException if the race does not exist
+     */
+    public CachedResponse standings(long raceId) {
+        return responseCache.get(raceId, STANDINGS_VIEW, version -> {
+            final var race = raceRepository.findById(raceId)
+                .orElseThrow(() -> new NoSuchElementException("Race " + raceId + " does not exist"));
+            log.debug("Rendering standings of race {} at version {}", raceId, version);
+            return serialize(new StandingsResponse(
+                raceId,
+                race.name(),
+                race.date(),
+                version,
+                findStandings(raceId)
+            ));
+        });
+    }
+
+    /**
+     * Computes the current standings of the specified race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the standings ordered by position
+     */
+    public List<Standing> findStandings(long raceId) {
+        final var state = new StandingsState();
+        try (final var archived = lapArchive.streamLaps(raceId)) {
+            if (archived == null) {
+                return standingsRepository.findStandings(raceId);
+            }
+            archived.forEach(state::apply);
+        }
+        final var racers = new HashMap<Long, Racer>();
+        for (final var racer : racerRepository.findAllById(state.racerIds())) {
+            racers.put(racer.id(), racer);
+        }
+        return state.rank(racers);
+    }
+
+    /**
+     * Returns the serialized latest laps of the specified race at its current data version.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the cached latest laps response
+     * @throws NoSuchElementException if the race does not exist
+     */
+    public CachedResponse latestLaps(long raceId) {
+        return responseCache.get(raceId, LATEST_LAPS_VIEW, version -> {
+            if (!exists(raceId)) {
+                throw new NoSuchElementException("Race " + raceId + " does not exist");
+            }
+            log.debug("Rendering latest laps of race {} at version {}", raceId, version);
+            return serialize(new LatestLapsResponse(
+                raceId,
+                version,
+                findLatestLaps(raceId)
+            ));
+        });
+    }
+
+    /**
+     * Checks whether a client holding the given entity tags already has the current data version of the race.
+     * The race is looked up only if the tags match and it has not received laps since startup.
+     *
+     * @param raceId      the surrogate ID of the race
+     * @param ifNoneMatch the value of the {@code If-None-Match} header, if any
+     * @return {@code true} if the race exists and the client's copy is up to date
+     */
+    public boolean isNotModified(long raceId, @Nullable String ifNoneMatch) {
+        return responseCache.isNotModified(raceId, ifNoneMatch) && exists(raceId);
+    }
+
+    /**
+     * Returns the entity tag of the current data version of the race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the quoted entity tag
+     */
+    public String currentEtag(long raceId) {
+        return responseCache.currentEtag(raceId);
+    }
+
+    private boolean exists(long raceId) {
+        // races are never deleted, so a race that has received laps exists
+        return responseCache.currentVersion(raceId) > 0 || raceRepository.existsById(raceId);
+    }
+
+    private List<LapView> findLatestLaps(long raceId) {
+        final var latest = new ArrayDeque<LapView>(latestLapsLimit);
+        try (final var archived = lapArchive.streamLaps(raceId)) {
+            if (archived == null) {
+                return lapRepository.findLatestByRaceId(raceId, latestLapsLimit);
+            }
+            // only the tail of the archive is kept while it is read
+            archived.forEach(lap -> {
+                if (latest.size() == latestLapsLimit) {
+                    latest.removeFirst();
+                }
+                latest.addLast(lap);
+            });
+        }
+        return List.copyOf(latest.reversed());
+    }
+
+    private byte[] serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + response.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks a monotonically increasing data version per race. The version of a race is bumped
+ * after every committed ingestion run that added laps to it, so any response rendered from
+ * the database can be identified by the version it was rendered at.
+ *
+ * <p>Versions live only in memory and restart at zero. Entity tags therefore also carry an
+ * instance identifier generated at startup, so that tags issued before a restart never match
+ * tags issued after it.
+ */
+@NullMarked
+@Slf4j
+public class RaceDataVersions {
+
+    private final String instanceId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the current data version of the specified race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the current version, {@code 0} if the race has not received laps since startup
+     */
+    public long current(long raceId) {
+        final var version = versions.get(raceId);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Returns the quoted entity tag identifying the given version of the specified race.
+     *
+     * @param raceId  the surrogate ID of the race
+     * @param version the data version
+     * @return the entity tag
+     */
+    public String etag(long raceId, long version) {
+        return "\"" + instanceId + "-" + raceId + "-" + version + "\"";
+    }
+
+    /**
+     * Bumps the version of every race that received laps, once the ingest transaction has committed.
+     *
+     * @param event the ingestion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLapsIngested(LapsIngestedEvent event) {
+        for (final var raceId : event.raceIds()) {
+            final var version = versions.computeIfAbsent(raceId, id -> new AtomicLong()).incrementAndGet();
+            log.debug("Race {} data version bumped to {}", raceId, version);
+        }
+    }
+}
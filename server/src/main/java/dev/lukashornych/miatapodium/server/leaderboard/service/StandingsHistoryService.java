@@ -0,0 +1,209 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.model.HistoricalStandingsResponse;
+import dev.lukashornych.miatapodium.server.leaderboard.model.StandingsCheckpoint;
+import dev.lukashornych.miatapodium.server.leaderboard.model.StandingsState;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.StandingsCheckpointRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service answering point-in-time standings queries ("standings as they were at time T").
+ *
+ * <p>Standings checkpoints are stored every {@code checkpointIntervalLaps} laps of a race in
+ * {@code (time, id)} order. A query restores the nearest checkpoint at or before T and replays
+ * only the laps between that checkpoint and T, so any moment resolves by reading at most about
+ * {@code checkpointIntervalLaps} laps, regardless of how long the race has been running.
+ *
+ * <p>Checkpoints are extended after every committed ingestion run. A lap arriving late, with
+ * a position that existing checkpoints should have included, invalidates those checkpoints and
+ * they are rebuilt. Races ingested before checkpoints existed are caught up on first query, and
+ * so are races whose checkpoints failed to be invalidated or extended: the next query retries.
+ * Archived races have no checkpoints and are replayed from their archive.
+ */
+@NullMarked
+@Slf4j
+public class StandingsHistoryService {
+
+    private static final LapCursor RACE_START = new LapCursor(Instant.EPOCH, 0);
+    private static final Comparator<LapCursor> POSITION_ORDER = Comparator.comparing(LapCursor::time).thenComparingLong(LapCursor::id);
+
+    private final LapRepository lapRepository;
+    private final RacerRepository racerRepository;
+    private final StandingsCheckpointRepository checkpointRepository;
+    private final LapArchive lapArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final int checkpointIntervalLaps;
+    private final Map<Long, Object> raceLocks = new ConcurrentHashMap<>();
+    private final Set<Long> caughtUpRaces = ConcurrentHashMap.newKeySet();
+    private final Map<Long, LapCursor> pendingInvalidations = new ConcurrentHashMap<>();
+
+    public StandingsHistoryService(
+        LapRepository lapRepository,
+        RacerRepository racerRepository,
+        StandingsCheckpointRepository checkpointRepository,
+        LapArchive lapArchive,
+        TransactionTemplate transactionTemplate,
+        int checkpointIntervalLaps
+    ) {
+        if (checkpointIntervalLaps < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive, got " + checkpointIntervalLaps);
+        }
+        this.lapRepository = lapRepository;
+        this.racerRepository = racerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.lapArchive = lapArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointIntervalLaps = checkpointIntervalLaps;
+    }
+
+    /**
+     * Returns the standings of the race as they were at the given moment.
+     *
+     * @param raceId the surrogate ID of the race
+     * @param at     the moment
+     * @return the historical standings
+     */
+    public HistoricalStandingsResponse standingsAt(long raceId, Instant at) {
+        try (final var archived = lapArchive.streamLaps(raceId)) {
+            if (archived != null) {
+                final var state = new StandingsState();
+                archived.takeWhile(lap -> !lap.time().isAfter(at)).forEach(state::apply);
+                return new HistoricalStandingsResponse(raceId, at, state.lapCount(), state.rank(racers(state)));
+            }
+        }
+
+        if (caughtUpRaces.add(raceId)) {
+            try {
+                updateCheckpoints(raceId);
+            } catch (RuntimeException e) {
+                caughtUpRaces.remove(raceId);
+                throw e;
+            }
+        }
+
+        final var checkpoint = checkpointRepository.findLatestAtOrBefore(raceId, at);
+        final var state = checkpoint.map(c -> StandingsState.decode(c.state())).orElseGet(StandingsState::new);
+        var position = checkpoint.map(StandingsCheckpoint::position).orElse(RACE_START);
+
+        int replayed = 0;
+        while (true) {
+            final var page = lapRepository.findPageByRaceIdAfterUntil(
+                raceId, position.time(), position.id(), at, checkpointIntervalLaps
+            );
+            for (final var lap : page) {
+                state.apply(lap);
+            }
+            replayed += page.size();
+            if (page.size() < checkpointIntervalLaps) {
+                break;
+            }
+            position = page.getLast().cursor();
+        }
+        log.debug("Resolved standings of race {} at {} replaying {} laps", raceId, at, replayed);
+
+        return new HistoricalStandingsResponse(raceId, at, state.lapCount(), state.rank(racers(state)));
+    }
+
+    /**
+     * Extends the checkpoints of every race that received laps, once the ingest transaction has committed.
+     *
+     * @param event the ingestion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLapsIngested(LapsIngestedEvent event) {
+        final var earliestPerRace = new HashMap<Long, LapCursor>();
+        for (final var lap : event.laps()) {
+            final var cursor = new LapCursor(lap.time(), lap.id() == null ? 0 : lap.id());
+            earliestPerRace.merge(lap.raceId().getId(), cursor, StandingsHistoryService::earlier);
+        }
+        earliestPerRace.forEach((raceId, earliest) -> {
+            pendingInvalidations.merge(raceId, earliest, StandingsHistoryService::earlier);
+            try {
+                updateCheckpoints(raceId);
+            } catch (RuntimeException e) {
+                // checkpoints past the late lap may still be stored, the next query retries before reading them
+                caughtUpRaces.remove(raceId);
+                log.error("Failed to extend standings checkpoints of race {}", raceId, e);
+            }
+        });
+    }
+
+    private void updateCheckpoints(long raceId) {
+        synchronized (raceLocks.computeIfAbsent(raceId, id -> new Object())) {
+            final var invalidFrom = pendingInvalidations.remove(raceId);
+            if (invalidFrom != null) {
+                final Integer invalidated;
+                try {
+                    invalidated = transactionTemplate.execute(status ->
+                        checkpointRepository.deleteFromPosition(raceId, invalidFrom.time(), invalidFrom.id())
+                    );
+                } catch (RuntimeException e) {
+                    pendingInvalidations.merge(raceId, invalidFrom, StandingsHistoryService::earlier);
+                    throw e;
+                }
+                if (invalidated != null && invalidated > 0) {
+                    log.info("Late lap invalidated {} standings checkpoints of race {}", invalidated, raceId);
+                }
+            }
+            extendCheckpoints(raceId);
+        }
+    }
+
+    private void extendCheckpoints(long raceId) {
+        synchronized (raceLocks.computeIfAbsent(raceId, id -> new Object())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                final var latest = checkpointRepository.findLatest(raceId);
+                final var state = latest.map(c -> StandingsState.decode(c.state())).orElseGet(StandingsState::new);
+                var position = latest.map(StandingsCheckpoint::position).orElse(RACE_START);
+
+                int created = 0;
+                while (true) {
+                    final var page = lapRepository.findPageByRaceIdAfter(
+                        raceId, position.time(), position.id(), checkpointIntervalLaps
+                    );
+                    if (page.size() < checkpointIntervalLaps) {
+                        // the remaining laps do not fill a whole interval yet, queries replay them
+                        break;
+                    }
+                    for (final var lap : page) {
+                        state.apply(lap);
+                    }
+                    position = page.getLast().cursor();
+                    checkpointRepository.insertIfAbsent(raceId, position.time(), position.id(), state.lapCount(), state.encode());
+                    created++;
+                }
+                if (created > 0) {
+                    log.debug("Created {} standings checkpoints of race {}", created, raceId);
+                }
+            });
+        }
+    }
+
+    private static LapCursor earlier(LapCursor a, LapCursor b) {
+        return POSITION_ORDER.compare(a, b) <= 0 ? a : b;
+    }
+
+    private Map<Long, Racer> racers(StandingsState state) {
+        final var racers = new HashMap<Long, Racer>();
+        for (final var racer : racerRepository.findAllById(state.racerIds())) {
+            racers.put(racer.id(), racer);
+        }
+        return racers;
+    }
+}
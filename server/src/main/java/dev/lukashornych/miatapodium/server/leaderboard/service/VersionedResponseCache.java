@@ -0,0 +1,167 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import dev.lukashornych.miatapodium.server.leaderboard.model.CachedResponse;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small cache of serialized responses keyed by race and view. Each key holds only the body of
+ * the latest rendered race data version: rendering a newer version evicts the older one, and
+ * the least recently used keys are evicted once the cache holds more than the configured
+ * number of entries.
+ *
+ * <p>Concurrent requests for a stale key are rendered only once; other requests for the same
+ * key and version wait for that rendering to finish instead of querying the database
+ * themselves. A rendering is registered only while it runs, and its entry is published before
+ * it is unregistered, so a request arriving afterwards finds the entry.
+ */
+@NullMarked
+public class VersionedResponseCache {
+
+    private final RaceDataVersions raceDataVersions;
+    private final Map<Key, CachedResponse> entries;
+    private final Map<Rendering, CompletableFuture<CachedResponse>> renderings = new ConcurrentHashMap<>();
+
+    public VersionedResponseCache(RaceDataVersions raceDataVersions, int maxEntries) {
+        this.raceDataVersions = raceDataVersions;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Returns the response of the given view for the current data version of the race,
+     * rendering it with the supplied renderer if it has not been rendered yet.
+     *
+     * @param raceId   the surrogate ID of the race
+     * @param view     the name of the view, unique per kind of response
+     * @param renderer renders the serialized body for the given data version
+     * @return the cached response
+     */
+    public CachedResponse get(long raceId, String view, VersionRenderer renderer) {
+        // the version is read before rendering: if it is bumped meanwhile, the entry is merely re-rendered later
+        final var version = currentVersion(raceId);
+        final var key = new Key(raceId, view);
+
+        final var cached = fresh(key, version);
+        if (cached != null) {
+            return cached;
+        }
+        final var rendering = new Rendering(key, version);
+        final var result = new CompletableFuture<CachedResponse>();
+        final var running = renderings.putIfAbsent(rendering, result);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // a rendering of this version may have finished between the check above and the registration
+            final var rendered = fresh(key, version);
+            final var response = rendered != null
+                ? rendered
+                : new CachedResponse(version, raceDataVersions.etag(raceId, version), renderer.render(version));
+            // a slower rendering of an older version must not replace a newer entry
+            entries.merge(key, response, (current, candidate) -> current.version() >= candidate.version() ? current : candidate);
+            result.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            renderings.remove(rendering, result);
+        }
+    }
+
+    /**
+     * Checks whether the value of an {@code If-None-Match} header matches the current data version of the race.
+     * Performs no rendering and no database access, so a wildcard matches even races that do not exist.
+     *
+     * @param raceId      the surrogate ID of the race
+     * @param ifNoneMatch the value of the {@code If-None-Match} header, if any
+     * @return {@code true} if the client already holds the current version
+     */
+    public boolean isNotModified(long raceId, @Nullable String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        final var etag = currentEtag(raceId);
+        for (final var candidate : ifNoneMatch.split(",")) {
+            final var trimmed = candidate.trim();
+            final var tag = trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed;
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the entity tag of the current data version of the race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the quoted entity tag
+     */
+    public String currentEtag(long raceId) {
+        return raceDataVersions.etag(raceId, currentVersion(raceId));
+    }
+
+    /**
+     * Returns the current data version of the race.
+     *
+     * @param raceId the surrogate ID of the race
+     * @return the current version, {@code 0} if the race has not received laps since startup
+     */
+    public long currentVersion(long raceId) {
+        return raceDataVersions.current(raceId);
+    }
+
+    private @Nullable CachedResponse fresh(Key key, long version) {
+        final var cached = entries.get(key);
+        return cached != null && cached.version() >= version ? cached : null;
+    }
+
+    private static CachedResponse await(CompletableFuture<CachedResponse> rendering) {
+        try {
+            return rendering.join();
+        } catch (CompletionException e) {
+            // the waiting request fails the same way as the one that rendered
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Renders a serialized response body at a particular race data version.
+     */
+    @FunctionalInterface
+    public interface VersionRenderer {
+
+        /**
+         * Renders the response body.
+         *
+         * @param version the race data version being rendered
+         * @return the serialized body
+         */
+        byte[] render(long version);
+    }
+
+    private record Key(long raceId, String view) {
+    }
+
+    private record Rendering(Key key, long version) {
+    }
+}
@@ -0,0 +1,59 @@
+package dev.lukashornych.miatapodium.server.live.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.live.controller.LiveStandingsHandshakeInterceptor;
+import dev.lukashornych.miatapodium.server.live.controller.LiveStandingsWebSocketHandler;
+import dev.lukashornych.miatapodium.server.live.service.LiveStandingsService;
+import dev.lukashornych.miatapodium.server.live.service.LiveUpdateEncoder;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Spring configuration for the live update channel. Declares the update encoder, the live
+ * standings service and registers the WebSocket endpoint {@code /ws/live/races/{raceId}}.
+ */
+@NullMarked
+@Configuration
+@EnableWebSocket
+@EnableConfigurationProperties(LiveProperties.class)
+public class LiveConfiguration {
+
+    @Bean
+    LiveUpdateEncoder liveUpdateEncoder(ObjectMapper objectMapper) {
+        return new LiveUpdateEncoder(objectMapper);
+    }
+
+    @Bean
+    LiveStandingsService liveStandingsService(
+        LeaderboardService leaderboardService,
+        LiveUpdateEncoder liveUpdateEncoder,
+        LiveProperties properties
+    ) {
+        return new LiveStandingsService(
+            leaderboardService,
+            liveUpdateEncoder,
+            Executors.newVirtualThreadPerTaskExecutor(),
+            properties.maxPendingMessages()
+        );
+    }
+
+    @Bean
+    WebSocketConfigurer liveStandingsWebSocketConfigurer(
+        LiveStandingsService liveStandingsService,
+        RaceRepository raceRepository,
+        LiveProperties properties
+    ) {
+        return registry -> registry
+            .addHandler(new LiveStandingsWebSocketHandler(liveStandingsService), "/ws/live/races/*")
+            .addInterceptors(new LiveStandingsHandshakeInterceptor(raceRepository))
+            .setAllowedOrigins(properties.allowedOrigins().toArray(String[]::new));
+    }
+}
@@ -0,0 +1,22 @@
+package dev.lukashornych.miatapodium.server.live.config;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Configuration properties for the live update channel.
+ * Bound from the {@code miatapodium.live} prefix in application properties.
+ *
+ * @param allowedOrigins      the origins allowed to open live connections besides the server's own,
+ *                            none by default, so cross-origin clients have to be listed explicitly
+ * @param maxPendingMessages  the number of unsent messages after which a slow session is closed
+ */
+@NullMarked
+@ConfigurationProperties(prefix = "miatapodium.live")
+public record LiveProperties(
+    List<String> allowedOrigins,
+    int maxPendingMessages
+) {
+}
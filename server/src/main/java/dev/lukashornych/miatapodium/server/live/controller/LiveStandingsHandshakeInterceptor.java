@@ -0,0 +1,71 @@
+package dev.lukashornych.miatapodium.server.live.controller;
+
+import dev.lukashornych.miatapodium.server.live.model.LiveEncoding;
+import dev.lukashornych.miatapodium.server.live.model.LiveMode;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Handshake interceptor negotiating a live standings subscription from the request URI
+ * {@code /ws/live/races/{raceId}?encoding=json|cbor|smile&mode=snapshot|delta}. Both query
+ * parameters are optional and default to JSON snapshots. Invalid requests are rejected with
+ * {@code 400 Bad Request} and requests for unknown races with {@code 404 Not Found} before the
+ * connection is upgraded.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class LiveStandingsHandshakeInterceptor implements HandshakeInterceptor {
+
+    static final String RACE_ID_ATTRIBUTE = "liveRaceId";
+    static final String ENCODING_ATTRIBUTE = "liveEncoding";
+    static final String MODE_ATTRIBUTE = "liveMode";
+
+    private final RaceRepository raceRepository;
+
+    @Override
+    public boolean beforeHandshake(
+        ServerHttpRequest request,
+        ServerHttpResponse response,
+        WebSocketHandler wsHandler,
+        Map<String, Object> attributes
+    ) {
+        final var uri = UriComponentsBuilder.fromUri(request.getURI()).build();
+        final long raceId;
+        try {
+            raceId = Long.parseLong(uri.getPathSegments().getLast());
+            final var encoding = uri.getQueryParams().getFirst("encoding");
+            attributes.put(ENCODING_ATTRIBUTE, encoding == null ? LiveEncoding.JSON : LiveEncoding.fromParameter(encoding));
+            final var mode = uri.getQueryParams().getFirst("mode");
+            attributes.put(MODE_ATTRIBUTE, mode == null ? LiveMode.SNAPSHOT : LiveMode.fromParameter(mode));
+        } catch (IllegalArgumentException | NoSuchElementException e) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return false;
+        }
+        if (!raceRepository.existsById(raceId)) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return false;
+        }
+        attributes.put(RACE_ID_ATTRIBUTE, raceId);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(
+        ServerHttpRequest request,
+        ServerHttpResponse response,
+        WebSocketHandler wsHandler,
+        @Nullable Exception exception
+    ) {
+    }
+}
@@ -0,0 +1,38 @@
+package dev.lukashornych.miatapodium.server.live.controller;
+
+import dev.lukashornych.miatapodium.server.live.model.LiveEncoding;
+import dev.lukashornych.miatapodium.server.live.model.LiveMode;
+import dev.lukashornych.miatapodium.server.live.service.LiveStandingsService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+/**
+ * WebSocket handler of the live standings channel. Subscribes every connected session to the
+ * race, encoding and mode negotiated by {@link LiveStandingsHandshakeInterceptor}. The channel
+ * is push-only; messages from clients are ignored.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class LiveStandingsWebSocketHandler extends AbstractWebSocketHandler {
+
+    private final LiveStandingsService liveStandingsService;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        final var attributes = session.getAttributes();
+        liveStandingsService.subscribe(
+            session,
+            (Long) attributes.get(LiveStandingsHandshakeInterceptor.RACE_ID_ATTRIBUTE),
+            (LiveEncoding) attributes.get(LiveStandingsHandshakeInterceptor.ENCODING_ATTRIBUTE),
+            (LiveMode) attributes.get(LiveStandingsHandshakeInterceptor.MODE_ATTRIBUTE)
+        );
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        liveStandingsService.unsubscribe(session);
+    }
+}
@@ -0,0 +1,43 @@
+package dev.lukashornych.miatapodium.server.live.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Locale;
+
+/**
+ * Wire encoding of live update messages, chosen by the client when connecting.
+ * JSON is sent as text frames, the binary Jackson dataformats as binary frames.
+ */
+@NullMarked
+public enum LiveEncoding {
+
+    JSON(false),
+    CBOR(true),
+    SMILE(true);
+
+    private final boolean binary;
+
+    LiveEncoding(boolean binary) {
+        this.binary = binary;
+    }
+
+    /**
+     * Returns whether messages in this encoding are sent as binary frames.
+     *
+     * @return {@code true} for binary encodings
+     */
+    public boolean binary() {
+        return binary;
+    }
+
+    /**
+     * Resolves the encoding from a request parameter value, case-insensitively.
+     *
+     * @param value the parameter value
+     * @return the encoding
+     * @throws IllegalArgumentException if no such encoding exists
+     */
+    public static LiveEncoding fromParameter(String value) {
+        return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+}
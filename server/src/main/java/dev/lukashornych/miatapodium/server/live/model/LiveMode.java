@@ -0,0 +1,34 @@
+package dev.lukashornych.miatapodium.server.live.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.Locale;
+
+/**
+ * Shape of the live updates a client receives after the initial snapshot.
+ */
+@NullMarked
+public enum LiveMode {
+
+    /**
+     * Every update carries the complete standings.
+     */
+    SNAPSHOT,
+
+    /**
+     * Every update carries only the standings rows that changed since the previous update,
+     * keyed by racer ID, and the IDs of racers that dropped out of the standings.
+     */
+    DELTA;
+
+    /**
+     * Resolves the mode from a request parameter value, case-insensitively.
+     *
+     * @param value the parameter value
+     * @return the mode
+     * @throws IllegalArgumentException if no such mode exists
+     */
+    public static LiveMode fromParameter(String value) {
+        return valueOf(value.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,77 @@
+package dev.lukashornych.miatapodium.server.live.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Live update carrying only the changes of the standings of a race since the previous update.
+ * Clients replace their rows by racer ID, drop the removed racers and re-sort by position.
+ * A client that observes a {@code baseSequence} other than the sequence it holds has missed
+ * an update and should reconnect to receive a fresh snapshot.
+ *
+ * @param raceId          the surrogate ID of the race
+ * @param sequence        the sequence number of the update within the race's live channel
+ * @param baseSequence    the sequence number of the update this delta applies to
+ * @param changed         the new or changed standings rows
+ * @param removedRacerIds the IDs of racers no longer present in the standings
+ */
+@NullMarked
+public record StandingsDeltaMessage(
+    long raceId,
+    long sequence,
+    long baseSequence,
+    List<Standing> changed,
+    List<Long> removedRacerIds
+) {
+
+    /**
+     * Computes the delta between two consecutive standings of a race.
+     *
+     * @param raceId       the surrogate ID of the race
+     * @param sequence     the sequence number of the current standings
+     * @param baseSequence the sequence number of the previous standings
+     * @param previous     the previous standings
+     * @param current      the current standings
+     * @return the delta message
+     */
+    public static StandingsDeltaMessage between(
+        long raceId,
+        long sequence,
+        long baseSequence,
+        List<Standing> previous,
+        List<Standing> current
+    ) {
+        final var previousByRacer = new HashMap<Long, Standing>(previous.size() * 2);
+        for (final var standing : previous) {
+            previousByRacer.put(standing.racerId(), standing);
+        }
+        final var changed = new ArrayList<Standing>();
+        final var present = new HashSet<Long>(current.size() * 2);
+        for (final var standing : current) {
+            present.add(standing.racerId());
+            if (!standing.equals(previousByRacer.get(standing.racerId()))) {
+                changed.add(standing);
+            }
+        }
+        final var removed = previousByRacer.keySet().stream()
+            .filter(racerId -> !present.contains(racerId))
+            .toList();
+        return new StandingsDeltaMessage(raceId, sequence, baseSequence, changed, removed);
+    }
+
+    /**
+     * Returns the message type discriminator.
+     *
+     * @return {@code delta}
+     */
+    @JsonProperty
+    public String type() {
+        return "delta";
+    }
+}
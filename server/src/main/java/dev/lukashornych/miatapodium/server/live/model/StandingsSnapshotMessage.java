@@ -0,0 +1,32 @@
+package dev.lukashornych.miatapodium.server.live.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+
+/**
+ * Live update carrying the complete standings of a race.
+ *
+ * @param raceId    the surrogate ID of the race
+ * @param sequence  the sequence number of the update within the race's live channel
+ * @param standings the standings ordered by position
+ */
+@NullMarked
+public record StandingsSnapshotMessage(
+    long raceId,
+    long sequence,
+    List<Standing> standings
+) {
+
+    /**
+     * Returns the message type discriminator.
+     *
+     * @return {@code snapshot}
+     */
+    @JsonProperty
+    public String type() {
+        return "snapshot";
+    }
+}
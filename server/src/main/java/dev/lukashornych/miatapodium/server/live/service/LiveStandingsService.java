@@ -0,0 +1,284 @@
+package dev.lukashornych.miatapodium.server.live.service;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.live.model.LiveEncoding;
+import dev.lukashornych.miatapodium.server.live.model.LiveMode;
+import dev.lukashornych.miatapodium.server.live.model.StandingsDeltaMessage;
+import dev.lukashornych.miatapodium.server.live.model.StandingsSnapshotMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service pushing live standings of races to subscribed WebSocket sessions.
+ *
+ * <p>Each race with subscribers has a channel holding the standings last pushed to them; the
+ * channel is discarded when its last subscriber leaves. After
+ * every committed ingestion run, the standings of affected races are queried once per race and
+ * encoded once per combination of encoding and mode, no matter how many sessions subscribe.
+ * Standings are queried without holding the channel lock, which only guards swapping them in.
+ * Delta updates are computed against the standings of the previous update; a new subscriber
+ * first receives a snapshot of those standings, so every following delta applies to it.
+ *
+ * <p>Sending happens on the supplied executor so that slow clients never hold up ingestion; the
+ * executor is shut down when the service is closed. Messages of a session are sent one at a time
+ * in publishing order; a session that falls more than {@code maxPendingMessages} messages behind
+ * is closed.
+ */
+@NullMarked
+@Slf4j
+@RequiredArgsConstructor
+public class LiveStandingsService {
+
+    private final LeaderboardService leaderboardService;
+    private final LiveUpdateEncoder encoder;
+    private final ExecutorService sendExecutor;
+    private final int maxPendingMessages;
+    private final Map<Long, RaceChannel> channels = new ConcurrentHashMap<>();
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes a session to the live standings of a race and sends it the current snapshot.
+     *
+     * @param session  the session
+     * @param raceId   the surrogate ID of the race
+     * @param encoding the encoding of the messages
+     * @param mode     the shape of the updates
+     */
+    public void subscribe(WebSocketSession session, long raceId, LiveEncoding encoding, LiveMode mode) {
+        final var subscriber = new Subscriber(session, raceId, encoding, mode);
+        while (true) {
+            final var channel = channels.computeIfAbsent(raceId, RaceChannel::new);
+            if (channel.appliedLoad == 0) {
+                refresh(channel);
+            }
+            synchronized (channel) {
+                if (channel.discarded) {
+                    // the last subscriber left between the lookup and the lock, retry with a fresh channel
+                    continue;
+                }
+                channel.subscribers.add(subscriber);
+                subscribers.put(session.getId(), subscriber);
+                // queued while holding the lock, so that no update of the channel can overtake the snapshot
+                send(subscriber, encoder.frame(encoding, new StandingsSnapshotMessage(raceId, channel.sequence, channel.standings)));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the subscription of a closed session.
+     *
+     * @param session the session
+     */
+    public void unsubscribe(WebSocketSession session) {
+        final var subscriber = subscribers.remove(session.getId());
+        if (subscriber == null) {
+            return;
+        }
+        final var channel = channels.get(subscriber.raceId());
+        if (channel != null) {
+            synchronized (channel) {
+                channel.subscribers.remove(subscriber);
+                if (channel.subscribers.isEmpty()) {
+                    channel.discarded = true;
+                    channels.remove(subscriber.raceId(), channel);
+                }
+            }
+        }
+    }
+
+    /**
+     * Pushes the new standings of every race with subscribers that received laps, once the
+     * ingest transaction has committed.
+     *
+     * @param event the ingestion event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLapsIngested(LapsIngestedEvent event) {
+        for (final var raceId : event.raceIds()) {
+            final var channel = channels.get(raceId);
+            if (channel != null) {
+                try {
+                    refresh(channel);
+                } catch (RuntimeException e) {
+                    log.error("Failed to publish live standings of race {}", raceId, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops sending live updates.
+     */
+    public void close() {
+        sendExecutor.close();
+    }
+
+    /**
+     * Queries the standings of the channel's race and publishes them to its subscribers. The
+     * query runs outside the channel lock, so that subscribing and publishing do not wait on it;
+     * its result is discarded if standings of a query started later were swapped in meanwhile.
+     */
+    private void refresh(RaceChannel channel) {
+        final var load = channel.loads.incrementAndGet();
+        final var current = leaderboardService.findStandings(channel.raceId);
+        synchronized (channel) {
+            if (channel.discarded || load < channel.appliedLoad) {
+                return;
+            }
+            channel.appliedLoad = load;
+            final var previous = channel.standings;
+            channel.standings = current;
+            if (channel.subscribers.isEmpty()) {
+                // the first subscriber is yet to join and starts with a snapshot of these standings
+                return;
+            }
+            final var baseSequence = channel.sequence;
+            final var sequence = baseSequence + 1;
+            channel.sequence = sequence;
+
+            final var snapshot = new StandingsSnapshotMessage(channel.raceId, sequence, current);
+            final var delta = StandingsDeltaMessage.between(channel.raceId, sequence, baseSequence, previous, current);
+            final var frames = new HashMap<FrameKey, WebSocketMessage<?>>();
+            log.debug("Publishing live standings of race {} at sequence {} to {} sessions", channel.raceId, sequence, channel.subscribers.size());
+            for (final var subscriber : List.copyOf(channel.subscribers)) {
+                final var frame = frames.computeIfAbsent(
+                    new FrameKey(subscriber.encoding(), subscriber.mode()),
+                    key -> encoder.frame(key.encoding(), key.mode() == LiveMode.DELTA ? delta : snapshot)
+                );
+                send(subscriber, frame);
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, WebSocketMessage<?> message) {
+        if (!subscriber.enqueue(message, maxPendingMessages)) {
+            log.debug("Dropping live session {} that fell behind", subscriber.session().getId());
+            drop(subscriber, CloseStatus.SESSION_NOT_RELIABLE);
+        }
+    }
+
+    private void drop(Subscriber subscriber, CloseStatus status) {
+        final var session = subscriber.session();
+        unsubscribe(session);
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Failed to close live session {}", session.getId(), e);
+        }
+    }
+
+    private static final class RaceChannel {
+
+        private final long raceId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicLong loads = new AtomicLong();
+        // written under the channel lock, read without it to tell whether the standings are loaded yet
+        private volatile long appliedLoad;
+        private List<Standing> standings = List.of();
+        private long sequence;
+        private boolean discarded;
+
+        private RaceChannel(long raceId) {
+            this.raceId = raceId;
+        }
+    }
+
+    /**
+     * Subscription of a single session. Outgoing messages are queued and drained by at most one
+     * task at a time, which keeps them in order without blocking the publishing thread.
+     */
+    private final class Subscriber {
+
+        private final WebSocketSession session;
+        private final long raceId;
+        private final LiveEncoding encoding;
+        private final LiveMode mode;
+        private final Queue<WebSocketMessage<?>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(WebSocketSession session, long raceId, LiveEncoding encoding, LiveMode mode) {
+            this.session = session;
+            this.raceId = raceId;
+            this.encoding = encoding;
+            this.mode = mode;
+        }
+
+        WebSocketSession session() {
+            return session;
+        }
+
+        long raceId() {
+            return raceId;
+        }
+
+        LiveEncoding encoding() {
+            return encoding;
+        }
+
+        LiveMode mode() {
+            return mode;
+        }
+
+        boolean enqueue(WebSocketMessage<?> message, int maxPending) {
+            if (pendingCount.incrementAndGet() > maxPending) {
+                return false;
+            }
+            pending.add(message);
+            scheduleDrain();
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                WebSocketMessage<?> message;
+                while ((message = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    if (session.isOpen()) {
+                        session.sendMessage(message);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Failed to send to live session {}: {}", session.getId(), e.getMessage());
+                drop(this, CloseStatus.SERVER_ERROR);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // a message enqueued just before the flag was cleared would otherwise wait for the next one
+            if (!pending.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private record FrameKey(LiveEncoding encoding, LiveMode mode) {
+    }
+}
@@ -0,0 +1,60 @@
+package dev.lukashornych.miatapodium.server.live.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.lukashornych.miatapodium.server.live.model.LiveEncoding;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Encodes live update messages into WebSocket frames in any of the supported encodings.
+ * The binary encodings reuse the configuration and modules of the application object mapper,
+ * so all encodings carry the same fields.
+ */
+@NullMarked
+public class LiveUpdateEncoder {
+
+    private final Map<LiveEncoding, ObjectMapper> mappers = new EnumMap<>(LiveEncoding.class);
+
+    public LiveUpdateEncoder(ObjectMapper objectMapper) {
+        mappers.put(LiveEncoding.JSON, objectMapper);
+        mappers.put(LiveEncoding.CBOR, objectMapper.copyWith(new CBORFactory()));
+        mappers.put(LiveEncoding.SMILE, objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /**
+     * Serializes a message in the given encoding.
+     *
+     * @param encoding the encoding
+     * @param message  the message
+     * @return the encoded message
+     */
+    public byte[] encode(LiveEncoding encoding, Object message) {
+        try {
+            return mappers.get(encoding).writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode " + message.getClass().getSimpleName() + " as " + encoding, e);
+        }
+    }
+
+    /**
+     * Serializes a message in the given encoding into a WebSocket frame of the matching kind.
+     *
+     * @param encoding the encoding
+     * @param message  the message
+     * @return the text or binary frame
+     */
+    public WebSocketMessage<?> frame(LiveEncoding encoding, Object message) {
+        final var encoded = encode(encoding, message);
+        return encoding.binary()
+            ? new BinaryMessage(encoded)
+            : new TextMessage(encoded);
+    }
+}
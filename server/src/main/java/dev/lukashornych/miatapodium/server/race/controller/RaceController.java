@@ -0,0 +1,36 @@
+package dev.lukashornych.miatapodium.server.race.controller;
+
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST controller listing races, so that clients can resolve the surrogate IDs used by the race APIs.
+ */
+@NullMarked
+@RestController
+@RequestMapping("/api/races")
+@RequiredArgsConstructor
+public class RaceController {
+
+    private final RaceRepository raceRepository;
+
+    /**
+     * Returns all races.
+     *
+     * @return all races
+     */
+    @GetMapping
+    public List<Race> races() {
+        final var races = new ArrayList<Race>();
+        raceRepository.findAll().forEach(races::add);
+        return races;
+    }
+}
@@ -0,0 +1,108 @@
+package dev.lukashornych.miatapodium.server.race.controller;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapPage;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.service.LapHistoryService;
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL controller resolving races and the race-related fields of other types.
+ * Races of laps are loaded in batches, one query per GraphQL request level.
+ */
+@NullMarked
+@Controller
+@RequiredArgsConstructor
+public class RaceGraphQlController {
+
+    private final RaceRepository raceRepository;
+    private final LeaderboardService leaderboardService;
+    private final LapHistoryService lapHistoryService;
+
+    /**
+     * Returns all races.
+     *
+     * @return all races
+     */
+    @QueryMapping
+    public List<Race> races() {
+        final var races = new ArrayList<Race>();
+        raceRepository.findAll().forEach(races::add);
+        return races;
+    }
+
+    /**
+     * Returns a race by its surrogate ID.
+     *
+     * @param id the surrogate ID of the race
+     * @return the race, or {@code null} if it does not exist
+     */
+    @QueryMapping
+    public @Nullable Race race(@Argument long id) {
+        return raceRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Returns the current standings of a race.
+     *
+     * @param race the race
+     * @return the standings ordered by position
+     */
+    @SchemaMapping(typeName = "Race")
+    public List<Standing> standings(Race race) {
+        return leaderboardService.findStandings(Objects.requireNonNull(race.id()));
+    }
+
+    /**
+     * Returns a page of laps of a race in chronological order.
+     *
+     * @param race  the race
+     * @param first the requested page size
+     * @param after the cursor of the previous page
+     * @return the requested page
+     */
+    @SchemaMapping(typeName = "Race")
+    public LapPage laps(Race race, @Argument @Nullable Integer first, @Argument @Nullable String after) {
+        return lapHistoryService.findRaceLaps(
+            Objects.requireNonNull(race.id()),
+            after == null ? null : LapCursor.decode(after),
+            first
+        );
+    }
+
+    /**
+     * Resolves the races of laps with a single query.
+     *
+     * @param laps the laps
+     * @return the race of each lap
+     */
+    @BatchMapping(typeName = "Lap", field = "race")
+    public Map<LapView, Race> lapRaces(List<LapView> laps) {
+        final var raceIds = laps.stream().map(LapView::raceId).collect(Collectors.toSet());
+        final var races = new HashMap<Long, Race>();
+        raceRepository.findAllById(raceIds).forEach(race -> races.put(race.id(), race));
+        final var result = new HashMap<LapView, Race>(laps.size() * 2);
+        for (final var lap : laps) {
+            result.put(lap, races.get(lap.raceId()));
+        }
+        return result;
+    }
+}
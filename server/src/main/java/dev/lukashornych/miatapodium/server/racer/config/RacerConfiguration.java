@@ -0,0 +1,54 @@
+package dev.lukashornych.miatapodium.server.racer.config;
+
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerTrackStatsRepository;
+import dev.lukashornych.miatapodium.server.racer.service.CareerStatsService;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Spring configuration for the racer module. Declares the career statistics repository and
+ * service, and optionally rebuilds the statistics from lap history on startup
+ * ({@code miatapodium.racer.rebuild-stats-on-startup}).
+ */
+@NullMarked
+@Configuration
+public class RacerConfiguration {
+
+    @Bean
+    RacerTrackStatsRepository racerTrackStatsRepository(
+        JdbcClient jdbcClient,
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate
+    ) {
+        return new RacerTrackStatsRepository(jdbcClient, namedParameterJdbcTemplate);
+    }
+
+    @Bean
+    CareerStatsService careerStatsService(
+        RacerRepository racerRepository,
+        RacerTrackStatsRepository racerTrackStatsRepository,
+        LapArchive lapArchive,
+        PlatformTransactionManager transactionManager
+    ) {
+        return new CareerStatsService(
+            racerRepository,
+            racerTrackStatsRepository,
+            lapArchive,
+            new TransactionTemplate(transactionManager)
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "miatapodium.racer", name = "rebuild-stats-on-startup", havingValue = "true")
+    ApplicationRunner careerStatsRebuildRunner(CareerStatsService careerStatsService) {
+        return args -> careerStatsService.rebuild();
+    }
+}
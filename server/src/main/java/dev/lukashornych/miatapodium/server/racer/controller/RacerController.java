@@ -0,0 +1,41 @@
+package dev.lukashornych.miatapodium.server.racer.controller;
+
+import dev.lukashornych.miatapodium.server.racer.model.RacerCareerResponse;
+import dev.lukashornych.miatapodium.server.racer.service.CareerStatsService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * REST controller serving racer profiles.
+ */
+@NullMarked
+@RestController
+@RequestMapping("/api/racers")
+@RequiredArgsConstructor
+public class RacerController {
+
+    private final CareerStatsService careerStatsService;
+
+    /**
+     * Returns the career statistics of a racer with personal bests per track.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @return the career profile
+     */
+    @GetMapping("/{racerId}/stats")
+    public RacerCareerResponse stats(@PathVariable long racerId) {
+        try {
+            return careerStatsService.career(racerId);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package dev.lukashornych.miatapodium.server.racer.controller;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapPage;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.service.LapHistoryService;
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.model.RacerTrackStats;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.racer.service.CareerStatsService;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * GraphQL controller resolving racers and the racer-related fields of other types.
+ * Racers of laps and standings are loaded in batches, one query per GraphQL request level.
+ */
+@NullMarked
+@Controller
+@RequiredArgsConstructor
+public class RacerGraphQlController {
+
+    private final RacerRepository racerRepository;
+    private final CareerStatsService careerStatsService;
+    private final LapHistoryService lapHistoryService;
+
+    /**
+     * Returns a racer by their surrogate ID.
+     *
+     * @param id the surrogate ID of the racer
+     * @return the racer, or {@code null} if they do not exist
+     */
+    @QueryMapping
+    public @Nullable Racer racer(@Argument long id) {
+        return racerRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Returns the career statistics of a racer per track.
+     *
+     * @param racer the racer
+     * @return the statistics ordered by track name
+     */
+    @SchemaMapping(typeName = "Racer")
+    public List<RacerTrackStats> trackStats(Racer racer) {
+        return careerStatsService.trackStats(Objects.requireNonNull(racer.id()));
+    }
+
+    /**
+     * Returns a page of laps of a racer across all races in chronological order.
+     *
+     * @param racer the racer
+     * @param first the requested page size
+     * @param after the cursor of the previous page
+     * @return the requested page
+     */
+    @SchemaMapping(typeName = "Racer")
+    public LapPage laps(Racer racer, @Argument @Nullable Integer first, @Argument @Nullable String after) {
+        return lapHistoryService.findRacerLaps(
+            Objects.requireNonNull(racer.id()),
+            after == null ? null : LapCursor.decode(after),
+            first
+        );
+    }
+
+    /**
+     * Resolves the racers of laps with a single query.
+     *
+     * @param laps the laps
+     * @return the racer of each lap
+     */
+    @BatchMapping(typeName = "Lap", field = "racer")
+    public Map<LapView, Racer> lapRacers(List<LapView> laps) {
+        return racersOf(laps, LapView::racerId);
+    }
+
+    /**
+     * Resolves the racers of standings with a single query.
+     *
+     * @param standings the standings
+     * @return the racer of each standing
+     */
+    @BatchMapping(typeName = "Standing", field = "racer")
+    public Map<Standing, Racer> standingRacers(List<Standing> standings) {
+        return racersOf(standings, Standing::racerId);
+    }
+
+    private <T> Map<T, Racer> racersOf(Collection<T> sources, ToLongFunction<T> racerIdOf) {
+        final var racerIds = sources.stream().map(racerIdOf::applyAsLong).collect(Collectors.toSet());
+        final var racers = new HashMap<Long, Racer>();
+        racerRepository.findAllById(racerIds).forEach(racer -> racers.put(racer.id(), racer));
+        final var result = new HashMap<T, Racer>(sources.size() * 2);
+        for (final var source : sources) {
+            result.put(source, racers.get(racerIdOf.applyAsLong(source)));
+        }
+        return result;
+    }
+}
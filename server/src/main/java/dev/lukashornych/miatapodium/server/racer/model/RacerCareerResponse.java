@@ -0,0 +1,26 @@
+package dev.lukashornych.miatapodium.server.racer.model;
+
+import org.jspecify.annotations.NullMarked;
+
+import java.util.List;
+
+/**
+ * Career profile of a racer across all events, with personal bests per track.
+ *
+ * @param racerId   the surrogate ID of the racer
+ * @param carNumber the racer's car number
+ * @param firstName the racer's first name
+ * @param lastName  the racer's last name
+ * @param lapCount  the total number of laps driven across all tracks
+ * @param tracks    the statistics per track, ordered by track name
+ */
+@NullMarked
+public record RacerCareerResponse(
+    long racerId,
+    int carNumber,
+    String firstName,
+    String lastName,
+    int lapCount,
+    List<RacerTrackStats> tracks
+) {
+}
@@ -0,0 +1,34 @@
+package dev.lukashornych.miatapodium.server.racer.model;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Career statistics of a racer at a single track. Tracks are identified by the race name,
+ * so all trackdays held at the same racetrack contribute to the same statistics.
+ *
+ * @param racerId       the surrogate ID of the racer
+ * @param trackName     the name of the track
+ * @param lapCount      the number of laps driven at the track
+ * @param bestLapTimeMs the personal best lap time at the track
+ * @param bestLapId     the surrogate ID of the personal best lap
+ * @param bestLapAt     the moment the personal best lap was completed
+ * @param bestS1Ms      the best first sector time at the track, or {@code null} if no lap had sector times
+ * @param bestS2Ms      the best second sector time at the track, or {@code null} if no lap had sector times
+ * @param bestS3Ms      the best third sector time at the track, or {@code null} if no lap had sector times
+ */
+@NullMarked
+public record RacerTrackStats(
+    long racerId,
+    String trackName,
+    int lapCount,
+    int bestLapTimeMs,
+    long bestLapId,
+    Instant bestLapAt,
+    @Nullable Integer bestS1Ms,
+    @Nullable Integer bestS2Ms,
+    @Nullable Integer bestS3Ms
+) {
+}
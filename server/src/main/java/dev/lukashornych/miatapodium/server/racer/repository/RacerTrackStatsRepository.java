@@ -0,0 +1,264 @@
+package dev.lukashornych.miatapodium.server.racer.repository;
+
+import dev.lukashornych.miatapodium.server.racer.model.RacerTrackStats;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * Repository for the per-track career statistics of racers kept in {@code racer_track_stats}.
+ * Statistics are merged incrementally: an upsert adds lap counts and keeps the smaller of the
+ * stored and the incoming best times, so applying laps in any order yields the same result.
+ * Best sector times stay {@code null} until a lap with sector times is merged; {@code LEAST}
+ * ignores {@code null}s. Statistics of laps stored before the table existed were backfilled by
+ * its migration, and {@link #rebuild} recomputes them from the whole history on request.
+ */
+@NullMarked
+@RequiredArgsConstructor
+public class RacerTrackStatsRepository {
+
+    private static final String FIND_BY_RACER_SQL = """
+        SELECT racer_id, track_name, lap_count, best_lap_time_ms, best_lap_id, best_lap_at,
+               best_s1_ms, best_s2_ms, best_s3_ms
+        FROM racer_track_stats
+        WHERE racer_id = :racerId
+        ORDER BY track_name
+        """;
+
+    private static final String FIND_BEST_LAP_TIME_SQL = """
+        SELECT best_lap_time_ms
+        FROM racer_track_stats
+        WHERE racer_id = :racerId AND track_name = :trackName
+        """;
+
+    private static final String MERGE_SQL = """
+        INSERT INTO racer_track_stats (
+            racer_id, track_name, lap_count, best_lap_time_ms, best_lap_id, best_lap_at,
+            best_s1_ms, best_s2_ms, best_s3_ms
+        )
+        SELECT :racerId, r.name, :lapCount, :bestLapTimeMs, :bestLapId, :bestLapAt,
+               :bestS1Ms, :bestS2Ms, :bestS3Ms
+        FROM races r
+        WHERE r.id = :raceId
+        ON CONFLICT (racer_id, track_name) DO UPDATE SET
+            lap_count = racer_track_stats.lap_count + EXCLUDED.lap_count,
+            best_lap_time_ms = LEAST(racer_track_stats.best_lap_time_ms, EXCLUDED.best_lap_time_ms),
+            best_lap_id = CASE WHEN EXCLUDED.best_lap_time_ms < racer_track_stats.best_lap_time_ms
+                THEN EXCLUDED.best_lap_id ELSE racer_track_stats.best_lap_id END,
+            best_lap_at = CASE WHEN EXCLUDED.best_lap_time_ms < racer_track_stats.best_lap_time_ms
+                THEN EXCLUDED.best_lap_at ELSE racer_track_stats.best_lap_at END,
+            best_s1_ms = LEAST(racer_track_stats.best_s1_ms, EXCLUDED.best_s1_ms),
+            best_s2_ms = LEAST(racer_track_stats.best_s2_ms, EXCLUDED.best_s2_ms),
+            best_s3_ms = LEAST(racer_track_stats.best_s3_ms, EXCLUDED.best_s3_ms)
+        """;
+
+    private static final String REBUILD_STATS_SQL = """
+        INSERT INTO racer_track_stats (
+            racer_id, track_name, lap_count, best_lap_time_ms, best_lap_id, best_lap_at,
+            best_s1_ms, best_s2_ms, best_s3_ms
+        )
+        SELECT l.racer_id,
+               r.name,
+               COUNT(*),
+               MIN(l.lap_time_ms),
+               (ARRAY_AGG(l.id ORDER BY l.lap_time_ms, l.time, l.id))[1],
+               (ARRAY_AGG(l.time ORDER BY l.lap_time_ms, l.time, l.id))[1],
+               MIN(l.s1_ms),
+               MIN(l.s2_ms),
+               MIN(l.s3_ms)
+        FROM laps l
+        JOIN races r ON r.id = l.race_id
+        GROUP BY l.racer_id, r.name
+        """;
+
+    private static final String CREATE_ARCHIVED_RECORDS_SQL = """
+        CREATE TEMPORARY TABLE archived_lap_records (
+            id          BIGINT      NOT NULL,
+            race_id     BIGINT      NOT NULL,
+            racer_id    BIGINT      NOT NULL,
+            time        TIMESTAMPTZ NOT NULL,
+            lap_time_ms INTEGER     NOT NULL
+        ) ON COMMIT DROP
+        """;
+
+    private static final String INSERT_ARCHIVED_RECORD_SQL = """
+        INSERT INTO archived_lap_records (id, race_id, racer_id, time, lap_time_ms)
+        VALUES (:id, :raceId, :racerId, :time, :lapTimeMs)
+        """;
+
+    // archived laps take part in the running minimum but only laps in the table are updated
+    private static final String REBUILD_PERSONAL_BESTS_SQL = """
+        UPDATE laps
+        SET personal_best = history.personal_best
+        FROM (
+            SELECT h.id,
+                   h.stored,
+                   h.lap_time_ms < COALESCE(
+                       MIN(h.lap_time_ms) OVER (
+                           PARTITION BY h.racer_id, h.track_name
+                           ORDER BY h.time, h.id
+                           ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING
+                       ),
+                       2147483647
+                   ) AS personal_best
+            FROM (
+                SELECT l.id, l.racer_id, r.name AS track_name, l.time, l.lap_time_ms, TRUE AS stored
+                FROM laps l
+                JOIN races r ON r.id = l.race_id
+                UNION ALL
+                SELECT a.id, a.racer_id, r.name, a.time, a.lap_time_ms, FALSE
+                FROM archived_lap_records a
+                JOIN races r ON r.id = a.race_id
+            ) h
+        ) history
+        WHERE history.stored AND history.id = laps.id AND history.personal_best <> laps.personal_best
+        """;
+
+    private final JdbcClient jdbcClient;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Returns the statistics of the racer at every track they have driven.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @return the statistics ordered by track name
+     */
+    public List<RacerTrackStats> findByRacerId(long racerId) {
+        return jdbcClient.sql(FIND_BY_RACER_SQL)
+            .param("racerId", racerId)
+            .query((rs, rowNum) -> new RacerTrackStats(
+                rs.getLong("racer_id"),
+                rs.getString("track_name"),
+                rs.getInt("lap_count"),
+                rs.getInt("best_lap_time_ms"),
+                rs.getLong("best_lap_id"),
+                rs.getObject("best_lap_at", OffsetDateTime.class).toInstant(),
+                rs.getObject("best_s1_ms", Integer.class),
+                rs.getObject("best_s2_ms", Integer.class),
+                rs.getObject("best_s3_ms", Integer.class)
+            ))
+            .list();
+    }
+
+    /**
+     * Returns the personal best lap time of the racer at the track.
+     *
+     * @param racerId   the surrogate ID of the racer
+     * @param trackName the name of the track
+     * @return the best lap time, or empty if the racer has not driven the track yet
+     */
+    public OptionalInt findBestLapTimeMs(long racerId, String trackName) {
+        return jdbcClient.sql(FIND_BEST_LAP_TIME_SQL)
+            .param("racerId", racerId)
+            .param("trackName", trackName)
+            .query(Integer.class)
+            .optional()
+            .map(OptionalInt::of)
+            .orElseGet(OptionalInt::empty);
+    }
+
+    /**
+     * Merges the statistics of newly ingested laps into the stored statistics in a single batch.
+     *
+     * @param deltas the statistics of the new laps, aggregated per racer and race
+     */
+    public void merge(Collection<StatsDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        final var batch = deltas.stream()
+            .map(delta -> new MapSqlParameterSource()
+                .addValue("racerId", delta.racerId())
+                .addValue("raceId", delta.raceId())
+                .addValue("lapCount", delta.lapCount())
+                .addValue("bestLapTimeMs", delta.bestLapTimeMs())
+                .addValue("bestLapId", delta.bestLapId())
+                .addValue("bestLapAt", OffsetDateTime.ofInstant(delta.bestLapAt(), ZoneOffset.UTC))
+                // typed, as an untyped null in the SELECT list would resolve to text
+                .addValue("bestS1Ms", delta.bestS1Ms(), Types.INTEGER)
+                .addValue("bestS2Ms", delta.bestS2Ms(), Types.INTEGER)
+                .addValue("bestS3Ms", delta.bestS3Ms(), Types.INTEGER))
+            .toArray(MapSqlParameterSource[]::new);
+        namedParameterJdbcTemplate.batchUpdate(MERGE_SQL, batch);
+    }
+
+    /**
+     * Recomputes all statistics and the personal best flags of laps from the lap history. The
+     * history consists of the laps in the {@code laps} table and the laps of archived races,
+     * which are passed in as they are read from the archive files. Must run in a transaction.
+     *
+     * @param archivedDeltas  the statistics of the laps of archived races, aggregated per racer and race
+     * @param archivedRecords the laps of archived races that were faster than every earlier lap
+     *                        of the racer in the same race; the only archived laps that can
+     *                        decide whether a lap in the table is a personal best
+     */
+    public void rebuild(Collection<StatsDelta> archivedDeltas, Collection<ArchivedLap> archivedRecords) {
+        jdbcClient.sql("DELETE FROM racer_track_stats").update();
+        jdbcClient.sql(REBUILD_STATS_SQL).update();
+        merge(archivedDeltas);
+
+        jdbcClient.sql(CREATE_ARCHIVED_RECORDS_SQL).update();
+        if (!archivedRecords.isEmpty()) {
+            final var batch = archivedRecords.stream()
+                .map(lap -> new MapSqlParameterSource()
+                    .addValue("id", lap.id())
+                    .addValue("raceId", lap.raceId())
+                    .addValue("racerId", lap.racerId())
+                    .addValue("time", OffsetDateTime.ofInstant(lap.time(), ZoneOffset.UTC))
+                    .addValue("lapTimeMs", lap.lapTimeMs()))
+                .toArray(MapSqlParameterSource[]::new);
+            namedParameterJdbcTemplate.batchUpdate(INSERT_ARCHIVED_RECORD_SQL, batch);
+        }
+        jdbcClient.sql(REBUILD_PERSONAL_BESTS_SQL).update();
+    }
+
+    /**
+     * Statistics of laps of a racer in a single race that are to be merged into the stored
+     * statistics of the race's track.
+     *
+     * @param racerId       the surrogate ID of the racer
+     * @param raceId        the surrogate ID of the race
+     * @param lapCount      the number of laps
+     * @param bestLapTimeMs the best lap time among the laps
+     * @param bestLapId     the surrogate ID of the best lap
+     * @param bestLapAt     the moment the best lap was completed
+     * @param bestS1Ms      the best first sector time among the laps, or {@code null} if none had sector times
+     * @param bestS2Ms      the best second sector time among the laps, or {@code null} if none had sector times
+     * @param bestS3Ms      the best third sector time among the laps, or {@code null} if none had sector times
+     */
+    public record StatsDelta(
+        long racerId,
+        long raceId,
+        int lapCount,
+        int bestLapTimeMs,
+        long bestLapId,
+        Instant bestLapAt,
+        @Nullable Integer bestS1Ms,
+        @Nullable Integer bestS2Ms,
+        @Nullable Integer bestS3Ms
+    ) {
+    }
+
+    /**
+     * Lap of an archived race taking part in the recomputation of personal best flags.
+     *
+     * @param id        the surrogate ID of the lap
+     * @param raceId    the surrogate ID of the race
+     * @param racerId   the surrogate ID of the racer
+     * @param time      the moment the lap was completed
+     * @param lapTimeMs the lap time
+     */
+    public record ArchivedLap(long id, long raceId, long racerId, Instant time, int lapTimeMs) {
+    }
+}
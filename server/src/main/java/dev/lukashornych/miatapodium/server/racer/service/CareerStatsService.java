@@ -0,0 +1,254 @@
+package dev.lukashornych.miatapodium.server.racer.service;
+
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.racer.model.RacerCareerResponse;
+import dev.lukashornych.miatapodium.server.racer.model.RacerTrackStats;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerTrackStatsRepository;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerTrackStatsRepository.ArchivedLap;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerTrackStatsRepository.StatsDelta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Service maintaining career statistics of racers: lap counts, personal best laps and best
+ * sectors per track. Racers are matched across events by their RFID, tracks by the race name.
+ *
+ * <p>The statistics are kept in {@code racer_track_stats} and merged with every ingestion run
+ * inside the ingest transaction, so a racer profile is a single indexed read. The personal best
+ * times are additionally cached in memory, which makes flagging a new personal best a map lookup
+ * per incoming lap. The cache is dropped when the ingest transaction rolls back. The statistics
+ * can be recomputed from the whole lap history, archived races included, see {@link #rebuild()}.
+ */
+@NullMarked
+@Slf4j
+@RequiredArgsConstructor
+public class CareerStatsService {
+
+    private final RacerRepository racerRepository;
+    private final RacerTrackStatsRepository statsRepository;
+    private final LapArchive lapArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<TrackKey, Integer> personalBests = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the career profile of a racer.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @return the career profile
+     * @throws NoSuchElementException if the racer does not exist
+     */
+    public RacerCareerResponse career(long racerId) {
+        final var racer = racerRepository.findById(racerId)
+            .orElseThrow(() -> new NoSuchElementException("Racer " + racerId + " does not exist."));
+        final var tracks = trackStats(racerId);
+        return new RacerCareerResponse(
+            racerId,
+            racer.carNumber(),
+            racer.firstName(),
+            racer.lastName(),
+            tracks.stream().mapToInt(RacerTrackStats::lapCount).sum(),
+            tracks
+        );
+    }
+
+    /**
+     * Returns the statistics of a racer at every track they have driven.
+     *
+     * @param racerId the surrogate ID of the racer
+     * @return the statistics ordered by track name
+     */
+    public List<RacerTrackStats> trackStats(long racerId) {
+        return statsRepository.findByRacerId(racerId);
+    }
+
+    /**
+     * Decides whether an incoming lap is a new personal best of the racer at the track and
+     * records it as the current best if so. Must be called once per lap, in ingestion order.
+     *
+     * @param racerId   the surrogate ID of the racer
+     * @param trackName the name of the track
+     * @param lapTimeMs the lap time
+     * @return {@code true} if the lap beats every previous lap of the racer at the track
+     */
+    public boolean recordPersonalBest(long racerId, String trackName, int lapTimeMs) {
+        dropCacheOnRollback();
+        final var key = new TrackKey(racerId, trackName);
+        final var best = personalBests.computeIfAbsent(
+            key,
+            k -> statsRepository.findBestLapTimeMs(k.racerId(), k.trackName()).orElse(Integer.MAX_VALUE)
+        );
+        if (lapTimeMs >= best) {
+            return false;
+        }
+        personalBests.put(key, lapTimeMs);
+        return true;
+    }
+
+    /**
+     * Merges the newly ingested laps into the stored statistics. Runs synchronously inside the
+     * ingest transaction so that statistics commit or roll back together with the laps.
+     *
+     * @param event the ingestion event
+     */
+    @EventListener
+    public void onLapsIngested(LapsIngestedEvent event) {
+        final var deltas = event.laps().stream()
+            .collect(Collectors.groupingBy(
+                lap -> new RaceKey(lap.racerId().getId(), lap.raceId().getId()),
+                LinkedHashMap::new,
+                Collectors.toList()
+            ))
+            .entrySet()
+            .stream()
+            .map(entry -> delta(entry.getKey(), entry.getValue()))
+            .toList();
+        statsRepository.merge(deltas);
+    }
+
+    /**
+     * Recomputes all career statistics and personal best flags of laps from the lap history,
+     * including the laps of archived races. Archived laps keep the personal best flags they
+     * were archived with, but still decide the flags of later laps in the table.
+     */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            final var archivedDeltas = new ArrayList<StatsDelta>();
+            final var archivedRecords = new ArrayList<ArchivedLap>();
+            for (final var raceId : new TreeSet<>(lapArchive.archivedRaceIds())) {
+                readArchivedRace(raceId, archivedDeltas, archivedRecords);
+            }
+            statsRepository.rebuild(archivedDeltas, archivedRecords);
+        });
+        personalBests.clear();
+        log.info("Rebuilt racer career statistics from lap history");
+    }
+
+    private void readArchivedRace(long raceId, List<StatsDelta> deltas, List<ArchivedLap> records) {
+        final var racers = new LinkedHashMap<Long, DeltaBuilder>();
+        try (final var laps = lapArchive.streamLaps(raceId)) {
+            if (laps == null) {
+                return;
+            }
+            laps.forEach(lap -> {
+                final var delta = racers.computeIfAbsent(lap.racerId(), racerId -> new DeltaBuilder(new RaceKey(racerId, raceId)));
+                // laps are read in time order, so a new best is faster than every earlier lap in the race
+                if (delta.add(lap.id(), lap.time(), lap.lapTimeMs())) {
+                    records.add(new ArchivedLap(lap.id(), raceId, lap.racerId(), lap.time(), lap.lapTimeMs()));
+                }
+                delta.addSectors(lap.s1Ms(), lap.s2Ms(), lap.s3Ms());
+            });
+        }
+        racers.values().forEach(delta -> deltas.add(delta.build()));
+    }
+
+    private static StatsDelta delta(RaceKey key, List<Lap> laps) {
+        final var delta = new DeltaBuilder(key);
+        for (final var lap : laps) {
+            delta.add(Objects.requireNonNull(lap.id()), lap.time(), lap.lapTimeMs());
+            final var sectors = lap.sectorTimes();
+            if (sectors != null) {
+                delta.addSectors(sectors.s1Ms(), sectors.s2Ms(), sectors.s3Ms());
+            }
+        }
+        return delta.build();
+    }
+
+    private void dropCacheOnRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CareerStatsService.this);
+                if (status != STATUS_COMMITTED) {
+                    // the cached bests may include laps that were never committed
+                    personalBests.clear();
+                }
+            }
+        });
+    }
+
+    private record TrackKey(long racerId, String trackName) {
+    }
+
+    private record RaceKey(long racerId, long raceId) {
+    }
+
+    /**
+     * Aggregates laps of a racer in a single race into a {@link StatsDelta}. Best sector times
+     * stay {@code null} until a lap with sector times is added.
+     */
+    private static final class DeltaBuilder {
+
+        private final RaceKey key;
+        private int lapCount;
+        private int bestLapTimeMs = Integer.MAX_VALUE;
+        private long bestLapId;
+        private @Nullable Instant bestLapAt;
+        private @Nullable Integer bestS1Ms;
+        private @Nullable Integer bestS2Ms;
+        private @Nullable Integer bestS3Ms;
+
+        private DeltaBuilder(RaceKey key) {
+            this.key = key;
+        }
+
+        /**
+         * Adds a lap, the earliest of equally fast laps being the best one.
+         *
+         * @return {@code true} if the lap is the new best lap
+         */
+        private boolean add(long lapId, Instant time, int lapTimeMs) {
+            lapCount++;
+            if (bestLapAt != null && (lapTimeMs > bestLapTimeMs || (lapTimeMs == bestLapTimeMs && !time.isBefore(bestLapAt)))) {
+                return false;
+            }
+            bestLapTimeMs = lapTimeMs;
+            bestLapId = lapId;
+            bestLapAt = time;
+            return true;
+        }
+
+        private void addSectors(int s1Ms, int s2Ms, int s3Ms) {
+            bestS1Ms = bestS1Ms == null ? s1Ms : Math.min(bestS1Ms, s1Ms);
+            bestS2Ms = bestS2Ms == null ? s2Ms : Math.min(bestS2Ms, s2Ms);
+            bestS3Ms = bestS3Ms == null ? s3Ms : Math.min(bestS3Ms, s3Ms);
+        }
+
+        private StatsDelta build() {
+            return new StatsDelta(
+                key.racerId(),
+                key.raceId(),
+                lapCount,
+                bestLapTimeMs,
+                bestLapId,
+                Objects.requireNonNull(bestLapAt),
+                bestS1Ms,
+                bestS2Ms,
+                bestS3Ms
+            );
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Best sector times stay empty until the racer drives a lap with sector times at the track.
+-- Laps without sectors used to store the INTEGER maximum as a stand-in.
+ALTER TABLE racer_track_stats
+    ALTER COLUMN best_s1_ms DROP NOT NULL,
+    ALTER COLUMN best_s2_ms DROP NOT NULL,
+    ALTER COLUMN best_s3_ms DROP NOT NULL;
+
+UPDATE racer_track_stats SET best_s1_ms = NULL WHERE best_s1_ms = 2147483647;
+UPDATE racer_track_stats SET best_s2_ms = NULL WHERE best_s2_ms = 2147483647;
+UPDATE racer_track_stats SET best_s3_ms = NULL WHERE best_s3_ms = 2147483647;
@@ -0,0 +1,7 @@
+-- Composite indexes backing keyset pagination and ordered streaming of lap history.
+-- They supersede the single-column foreign key indexes, which are their prefixes.
+CREATE INDEX idx_laps_race_time_id ON laps(race_id, time, id);
+CREATE INDEX idx_laps_racer_time_id ON laps(racer_id, time, id);
+
+DROP INDEX idx_laps_race_id;
+DROP INDEX idx_laps_racer_id;
@@ -0,0 +1,56 @@
+-- Category, car and transponder tag are fixed per racer, yet were repeated as text on every lap.
+-- They are moved into lookup tables and laps reference them by small integer IDs.
+CREATE TABLE categories (
+    id   SMALLSERIAL NOT NULL,
+    name VARCHAR(50) NOT NULL,
+
+    CONSTRAINT pk_categories PRIMARY KEY (id),
+    CONSTRAINT uq_categories_name UNIQUE (name)
+);
+
+CREATE TABLE cars (
+    id    SMALLSERIAL  NOT NULL,
+    make  VARCHAR(100) NOT NULL,
+    model VARCHAR(100) NOT NULL,
+
+    CONSTRAINT pk_cars PRIMARY KEY (id),
+    CONSTRAINT uq_cars_make_model UNIQUE (make, model)
+);
+
+CREATE TABLE tags (
+    id    SERIAL       NOT NULL,
+    value VARCHAR(255) NOT NULL,
+
+    CONSTRAINT pk_tags PRIMARY KEY (id),
+    CONSTRAINT uq_tags_value UNIQUE (value)
+);
+
+INSERT INTO categories (name) SELECT DISTINCT category FROM laps;
+INSERT INTO cars (make, model) SELECT DISTINCT make, model FROM laps;
+INSERT INTO tags (value) SELECT DISTINCT tag FROM laps;
+
+ALTER TABLE laps
+    ADD COLUMN category_id SMALLINT,
+    ADD COLUMN car_id      SMALLINT,
+    ADD COLUMN tag_id      INTEGER;
+
+UPDATE laps l
+SET category_id = c.id,
+    car_id      = ca.id,
+    tag_id      = t.id
+FROM categories c, cars ca, tags t
+WHERE c.name = l.category
+  AND ca.make = l.make AND ca.model = l.model
+  AND t.value = l.tag;
+
+ALTER TABLE laps
+    ALTER COLUMN category_id SET NOT NULL,
+    ALTER COLUMN car_id SET NOT NULL,
+    ALTER COLUMN tag_id SET NOT NULL,
+    ADD CONSTRAINT fk_laps_category FOREIGN KEY (category_id) REFERENCES categories(id),
+    ADD CONSTRAINT fk_laps_car FOREIGN KEY (car_id) REFERENCES cars(id),
+    ADD CONSTRAINT fk_laps_tag FOREIGN KEY (tag_id) REFERENCES tags(id),
+    DROP COLUMN category,
+    DROP COLUMN make,
+    DROP COLUMN model,
+    DROP COLUMN tag;
@@ -0,0 +1,15 @@
+-- Periodic snapshots of race standings used to answer point-in-time standings queries.
+-- A checkpoint holds the encoded standings after all laps up to and including the keyset
+-- position (position_time, position_lap_id) in (time, id) order.
+CREATE TABLE standings_checkpoints (
+    id              BIGSERIAL   NOT NULL,
+    race_id         BIGINT      NOT NULL,
+    position_time   TIMESTAMPTZ NOT NULL,
+    position_lap_id BIGINT      NOT NULL,
+    lap_count       INTEGER     NOT NULL,
+    state           BYTEA       NOT NULL,
+
+    CONSTRAINT pk_standings_checkpoints PRIMARY KEY (id),
+    CONSTRAINT fk_standings_checkpoints_race FOREIGN KEY (race_id) REFERENCES races(id),
+    CONSTRAINT uq_standings_checkpoints_position UNIQUE (race_id, position_time, position_lap_id)
+);
@@ -0,0 +1,52 @@
+-- Career statistics of racers per track (race name), maintained incrementally on ingest.
+CREATE TABLE racer_track_stats (
+    racer_id         BIGINT       NOT NULL,
+    track_name       VARCHAR(255) NOT NULL,
+    lap_count        INTEGER      NOT NULL,
+    best_lap_time_ms INTEGER      NOT NULL,
+    best_lap_id      BIGINT       NOT NULL,
+    best_lap_at      TIMESTAMPTZ  NOT NULL,
+    best_s1_ms       INTEGER      NOT NULL,
+    best_s2_ms       INTEGER      NOT NULL,
+    best_s3_ms       INTEGER      NOT NULL,
+
+    CONSTRAINT pk_racer_track_stats PRIMARY KEY (racer_id, track_name),
+    CONSTRAINT fk_racer_track_stats_racer FOREIGN KEY (racer_id) REFERENCES racers(id)
+);
+
+-- Whether the lap was a new personal best of the racer at the track at the moment it was set.
+ALTER TABLE laps ADD COLUMN personal_best BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Backfill from history.
+INSERT INTO racer_track_stats (
+    racer_id, track_name, lap_count, best_lap_time_ms, best_lap_id, best_lap_at, best_s1_ms, best_s2_ms, best_s3_ms
+)
+SELECT l.racer_id,
+       r.name,
+       COUNT(*),
+       MIN(l.lap_time_ms),
+       (ARRAY_AGG(l.id ORDER BY l.lap_time_ms, l.time, l.id))[1],
+       (ARRAY_AGG(l.time ORDER BY l.lap_time_ms, l.time, l.id))[1],
+       MIN(l.s1_ms),
+       MIN(l.s2_ms),
+       MIN(l.s3_ms)
+FROM laps l
+JOIN races r ON r.id = l.race_id
+GROUP BY l.racer_id, r.name;
+
+UPDATE laps
+SET personal_best = TRUE
+FROM (
+    SELECT l.id,
+           l.lap_time_ms < COALESCE(
+               MIN(l.lap_time_ms) OVER (
+                   PARTITION BY l.racer_id, r.name
+                   ORDER BY l.time, l.id
+                   ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING
+               ),
+               2147483647
+           ) AS personal_best
+    FROM laps l
+    JOIN races r ON r.id = l.race_id
+) history
+WHERE history.id = laps.id AND history.personal_best;
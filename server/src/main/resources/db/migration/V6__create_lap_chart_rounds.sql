@@ -0,0 +1,42 @@
+-- Lap chart: the order in which cars completed each round (lap number) of a race, one row per
+-- round. Positions are stored as parallel arrays; gaps_ms holds the gap to the car ahead
+-- (0 for the leader), so intervals to the leader are prefix sums of the gaps.
+CREATE TABLE lap_chart_rounds (
+    race_id     BIGINT      NOT NULL,
+    round       INTEGER     NOT NULL,
+    leader_time TIMESTAMPTZ NOT NULL,
+    racer_ids   BIGINT[]    NOT NULL,
+    gaps_ms     INTEGER[]   NOT NULL,
+
+    CONSTRAINT pk_lap_chart_rounds PRIMARY KEY (race_id, round),
+    CONSTRAINT fk_lap_chart_rounds_race FOREIGN KEY (race_id) REFERENCES races(id)
+);
+
+-- Backfill from history. A racer's position in a round is given by their first completion of it.
+-- Lap times are truncated to milliseconds before anything is compared or subtracted, as the lap
+-- chart service does, so that backfilled rounds match rounds maintained during ingestion.
+INSERT INTO lap_chart_rounds (race_id, round, leader_time, racer_ids, gaps_ms)
+SELECT race_id,
+       round,
+       MIN(crossed_at),
+       ARRAY_AGG(racer_id ORDER BY crossed_at, racer_id),
+       ARRAY_AGG(gap_ms ORDER BY crossed_at, racer_id)
+FROM (
+    SELECT race_id,
+           round,
+           racer_id,
+           crossed_at,
+           COALESCE(
+               EXTRACT(EPOCH FROM crossed_at - LAG(crossed_at) OVER (
+                   PARTITION BY race_id, round
+                   ORDER BY crossed_at, racer_id
+               )) * 1000,
+               0
+           )::INTEGER AS gap_ms
+    FROM (
+        SELECT race_id, round, racer_id, MIN(DATE_TRUNC('milliseconds', time)) AS crossed_at
+        FROM laps
+        GROUP BY race_id, round, racer_id
+    ) first_crossings
+) chart
+GROUP BY race_id, round;
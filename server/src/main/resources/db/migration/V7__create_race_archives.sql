@@ -0,0 +1,13 @@
+-- Races whose laps were moved out of the laps table into compressed archive files.
+-- A race is listed here only after its archive file was written and verified, and the
+-- laps are deleted in the same transaction that inserts the row.
+CREATE TABLE race_archives (
+    race_id     BIGINT        NOT NULL,
+    archived_at TIMESTAMPTZ   NOT NULL,
+    path        VARCHAR(1024) NOT NULL,
+    lap_count   INTEGER       NOT NULL,
+    size_bytes  BIGINT        NOT NULL,
+
+    CONSTRAINT pk_race_archives PRIMARY KEY (race_id),
+    CONSTRAINT fk_race_archives_race FOREIGN KEY (race_id) REFERENCES races(id)
+);
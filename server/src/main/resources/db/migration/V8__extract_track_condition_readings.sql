@@ -0,0 +1,36 @@
+-- Track conditions are the same for every car on track and change only every few minutes, so
+-- they are stored once per change as a time series per race instead of on every lap. A lap's
+-- conditions are the latest reading of its race at or before the lap's time.
+CREATE TABLE track_condition_readings (
+    race_id    BIGINT      NOT NULL,
+    time       TIMESTAMPTZ NOT NULL,
+    air_temp   REAL        NOT NULL,
+    track_temp REAL        NOT NULL,
+    humidity   REAL        NOT NULL,
+
+    CONSTRAINT pk_track_condition_readings PRIMARY KEY (race_id, time),
+    CONSTRAINT fk_track_condition_readings_race FOREIGN KEY (race_id) REFERENCES races(id)
+);
+
+-- Backfill from history: keep the laps whose conditions differ from the lap before them in
+-- (time, id) order. Changes at the same moment collapse into the last of them.
+INSERT INTO track_condition_readings (race_id, time, air_temp, track_temp, humidity)
+SELECT DISTINCT ON (race_id, time) race_id, time, air_temp, track_temp, humidity
+FROM (
+    SELECT race_id, time, id, air_temp, track_temp, humidity,
+           LAG(air_temp) OVER w AS previous_air_temp,
+           LAG(track_temp) OVER w AS previous_track_temp,
+           LAG(humidity) OVER w AS previous_humidity
+    FROM laps
+    WINDOW w AS (PARTITION BY race_id ORDER BY time, id)
+) changes
+WHERE previous_air_temp IS NULL
+   OR air_temp <> previous_air_temp
+   OR track_temp <> previous_track_temp
+   OR humidity <> previous_humidity
+ORDER BY race_id, time, id DESC;
+
+ALTER TABLE laps
+    DROP COLUMN air_temp,
+    DROP COLUMN track_temp,
+    DROP COLUMN humidity;
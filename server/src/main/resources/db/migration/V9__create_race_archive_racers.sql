@@ -0,0 +1,12 @@
+-- Racers of every archived race, so that racer-scoped reads open only the archives of the races
+-- the racer drove in. Filled in the transaction archiving the race, while its laps are still in
+-- the laps table; races archived before this table existed are indexed from their archive files
+-- on startup.
+CREATE TABLE race_archive_racers (
+    racer_id BIGINT NOT NULL,
+    race_id  BIGINT NOT NULL,
+
+    CONSTRAINT pk_race_archive_racers PRIMARY KEY (racer_id, race_id),
+    CONSTRAINT fk_race_archive_racers_archive FOREIGN KEY (race_id) REFERENCES race_archives(race_id),
+    CONSTRAINT fk_race_archive_racers_racer FOREIGN KEY (racer_id) REFERENCES racers(id)
+);
@@ -0,0 +1,238 @@
+package dev.lukashornych.miatapodium.server.archive.service;
+
+import dev.lukashornych.miatapodium.server.archive.repository.RaceArchiveRepository;
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportFormat;
+import dev.lukashornych.miatapodium.server.lap.service.LapExportService;
+import dev.lukashornych.miatapodium.server.lap.service.LapHistoryService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.StandingsHistoryService;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.model.RacerExternalId;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.racer.service.CareerStatsService;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for {@link RaceArchivalService} and the archive read path running against
+ * a real PostgreSQL instance provided by Testcontainers.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>Only races without laps during the retention period are archived</li>
+ *   <li>Archived laps are removed from the {@code laps} table and written to a verified archive file</li>
+ *   <li>Lap history pages, exports, standings and point-in-time standings of an archived race
+ *       are identical to those served before archiving</li>
+ *   <li>Racer history, racer exports and the export of all laps merge archived races in unchanged</li>
+ *   <li>Racers of races archived before racers were recorded are indexed from the archive files</li>
+ *   <li>Career statistics keep the laps of archived races</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999",
+    "miatapodium.archive.check-interval-ms=999999999",
+    "miatapodium.archive.retention=1h"
+})
+@IntegrationTest
+class RaceArchivalServiceIntegrationTest {
+
+    private static final Path archiveDirectory = createArchiveDirectory();
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("miatapodium.archive.directory", archiveDirectory::toString);
+    }
+
+    @Autowired
+    private RaceArchivalService raceArchivalService;
+
+    @Autowired
+    private RaceArchiveRepository raceArchiveRepository;
+
+    @Autowired
+    private LapArchive lapArchive;
+
+    @Autowired
+    private LapHistoryService lapHistoryService;
+
+    @Autowired
+    private LapExportService lapExportService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private StandingsHistoryService standingsHistoryService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RacerRepository racerRepository;
+
+    @Autowired
+    private CareerStatsService careerStatsService;
+
+    @Autowired
+    private LapFixtures lapFixtures;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Test
+    void archiveFinishedRaces_shouldMoveFinishedRaceToArchiveAndKeepServingIt() {
+        final var finishedRace = raceRepository.save(Race.create(new RaceExternalId(1001), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var liveRace = raceRepository.save(Race.create(new RaceExternalId(1002), "Most Circuit", LocalDate.now()));
+        final var racer1 = racerRepository.save(Racer.create(new RacerExternalId(2001), 7, "Marco", "Rossi"));
+        final var racer2 = racerRepository.save(Racer.create(new RacerExternalId(2002), 8, "Emma", "Schmidt"));
+
+        final var finishedStart = Instant.parse("2025-09-13T10:00:00Z");
+        final var liveStart = Instant.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(600);
+        final var laps = new ArrayList<Lap>();
+        int externalId = 1;
+        for (int round = 0; round < 15; round++) {
+            laps.add(lapFixtures.saveLap(externalId++, finishedRace, racer1, finishedStart.plusSeconds(90L * round), round, 90000 - round * 100));
+            laps.add(lapFixtures.saveLap(externalId++, finishedRace, racer2, finishedStart.plusSeconds(90L * round + 3), round, 91000 - round * 150));
+        }
+        for (int round = 0; round < 3; round++) {
+            laps.add(lapFixtures.saveLap(externalId++, liveRace, racer1, liveStart.plusSeconds(90L * round), round, 90000));
+        }
+        // derived read models are maintained from the ingestion event, as after a poll
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new LapsIngestedEvent(laps)));
+
+        final var finishedRaceId = Objects.requireNonNull(finishedRace.id());
+        final var liveRaceId = Objects.requireNonNull(liveRace.id());
+        final var midRace = finishedStart.plusSeconds(90L * 7 + 1);
+        final var hotLaps = allRaceLaps(finishedRaceId);
+        final var hotStandings = leaderboardService.findStandings(finishedRaceId);
+        final var hotStandingsAt = standingsHistoryService.standingsAt(finishedRaceId, midRace);
+        final var hotExport = export(finishedRaceId);
+        final var racer1Id = Objects.requireNonNull(racer1.id());
+        final var hotRacerLaps = allRacerLaps(racer1Id);
+        final var hotRacerExport = exportRacer(racer1Id);
+        final var hotAllExport = exportAll();
+        assertEquals(18, hotRacerLaps.size());
+        final var hotCareer = careerStatsService.career(racer1Id);
+        assertEquals(18, hotCareer.lapCount());
+
+        raceArchivalService.archiveFinishedRaces();
+
+        assertTrue(lapArchive.isArchived(finishedRaceId), "Race without recent laps should be archived");
+        assertFalse(lapArchive.isArchived(liveRaceId), "Race with recent laps should stay in the table");
+        assertEquals(0, raceArchiveRepository.countLaps(finishedRaceId), "Archived laps should be deleted from the table");
+        assertEquals(3, raceArchiveRepository.countLaps(liveRaceId), "Live race laps should be kept");
+
+        final var archives = raceArchiveRepository.findAll();
+        assertEquals(1, archives.size());
+        assertEquals(30, archives.getFirst().lapCount());
+        assertTrue(Files.exists(Path.of(archives.getFirst().path())), "Archive file should exist");
+
+        assertEquals(hotLaps, allRaceLaps(finishedRaceId), "Lap history should be served from the archive unchanged");
+        assertEquals(hotStandings, leaderboardService.findStandings(finishedRaceId), "Standings should be unchanged");
+        assertEquals(hotStandingsAt, standingsHistoryService.standingsAt(finishedRaceId, midRace), "Historical standings should be unchanged");
+        assertArrayEquals(hotExport, export(finishedRaceId), "Export should be unchanged");
+        assertEquals(hotCareer, careerStatsService.career(racer1Id), "Career statistics should be unchanged");
+        assertEquals(hotRacerLaps, allRacerLaps(racer1Id), "Racer history should merge archived races unchanged");
+        assertArrayEquals(hotRacerExport, exportRacer(racer1Id), "Racer export should be unchanged");
+        // laps were inserted race by race, so the archived race comes first in both orders
+        assertArrayEquals(hotAllExport, exportAll(), "Export of all laps should be unchanged");
+
+        // races archived before their racers were recorded are indexed from their archive files
+        jdbcClient.sql("DELETE FROM race_archive_racers").update();
+        assertEquals(3, allRacerLaps(racer1Id).size(), "Unindexed archived race should not be found by racer");
+        assertEquals(1, raceArchivalService.indexArchivedRacers());
+        assertEquals(hotRacerLaps, allRacerLaps(racer1Id), "Indexed archived race should be found by racer");
+        assertEquals(0, raceArchivalService.indexArchivedRacers(), "Indexed race should not be indexed again");
+
+        raceArchivalService.archiveFinishedRaces();
+        assertEquals(1, raceArchiveRepository.findAll().size(), "Archived race should not be archived twice");
+    }
+
+    private List<LapView> allRaceLaps(long raceId) {
+        final var laps = new ArrayList<LapView>();
+        LapCursor cursor = null;
+        do {
+            final var page = lapHistoryService.findRaceLaps(raceId, cursor, 7);
+            laps.addAll(page.laps());
+            cursor = page.nextCursor() == null ? null : LapCursor.decode(page.nextCursor());
+        } while (cursor != null);
+        return laps;
+    }
+
+    private List<LapView> allRacerLaps(long racerId) {
+        final var laps = new ArrayList<LapView>();
+        LapCursor cursor = null;
+        do {
+            final var page = lapHistoryService.findRacerLaps(racerId, cursor, 7);
+            laps.addAll(page.laps());
+            cursor = page.nextCursor() == null ? null : LapCursor.decode(page.nextCursor());
+        } while (cursor != null);
+        return laps;
+    }
+
+    private byte[] exportRacer(long racerId) {
+        final var output = new ByteArrayOutputStream();
+        lapExportService.exportRacerLaps(racerId, LapExportFormat.CSV, output);
+        return output.toByteArray();
+    }
+
+    private byte[] exportAll() {
+        final var output = new ByteArrayOutputStream();
+        lapExportService.exportAllLaps(LapExportFormat.CSV, output);
+        return output.toByteArray();
+    }
+
+    private byte[] export(long raceId) {
+        final var output = new ByteArrayOutputStream();
+        lapExportService.exportRaceLaps(raceId, LapExportFormat.CSV, output);
+        return output.toByteArray();
+    }
+
+
+    private static Path createArchiveDirectory() {
+        try {
+            return Files.createTempDirectory("miatapodium-archive");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
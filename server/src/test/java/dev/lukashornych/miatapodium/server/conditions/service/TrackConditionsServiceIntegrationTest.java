@@ -0,0 +1,210 @@
+package dev.lukashornych.miatapodium.server.conditions.service;
+
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditions;
+import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
+import dev.lukashornych.miatapodium.server.datafetcher.model.LapDataPayload;
+import dev.lukashornych.miatapodium.server.datafetcher.service.LapDataFetcherService;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.lap.service.LapHistoryService;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.model.RacerExternalId;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration test for {@link TrackConditionsService} running the ingestion pipeline against
+ * a real PostgreSQL instance provided by Testcontainers.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>Conditions are stored only when they change, and every change is stored</li>
+ *   <li>Laps arriving out of order insert a reading at their own time without changing the
+ *       conditions of stored laps</li>
+ *   <li>Lap views carry the conditions reported with the lap</li>
+ *   <li>Laps completed at the same moment keep the conditions reported first, and laps before
+ *       the first reading have none</li>
+ *   <li>Conditions charts are downsampled to the requested number of points</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999"
+})
+@IntegrationTest
+class TrackConditionsServiceIntegrationTest {
+
+    private static final Instant RACE_START = Instant.parse("2025-09-13T10:00:00Z");
+    private static final TrackConditions MORNING = new TrackConditions(18.0f, 24.0f, 60.0f);
+    private static final TrackConditions NOON = new TrackConditions(19.0f, 25.0f, 58.0f);
+    private static final TrackConditions AFTERNOON = new TrackConditions(19.5f, 27.0f, 55.0f);
+    private static final TrackConditions AFTERNOON_CORRECTED = new TrackConditions(19.5f, 28.0f, 55.0f);
+    private static final TrackConditions SHOWER = new TrackConditions(17.0f, 23.0f, 65.0f);
+
+    @Autowired
+    private LapDataWebSocketClient webSocketClient;
+
+    @Autowired
+    private LapDataFetcherService lapDataFetcherService;
+
+    @Autowired
+    private TrackConditionsService trackConditionsService;
+
+    @Autowired
+    private LapHistoryService lapHistoryService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RacerRepository racerRepository;
+
+    @Autowired
+    private LapFixtures lapFixtures;
+
+    @Test
+    void record_shouldStoreDeduplicatedTimeSeries() throws Exception {
+        // a lap every 30 seconds: conditions change at 5 minutes, at 10 minutes and 30 seconds later
+        final var payloads = new ArrayList<LapDataPayload>();
+        for (int i = 0; i < 22; i++) {
+            final var conditions = i < 10 ? MORNING : i < 20 ? NOON : i == 20 ? AFTERNOON : AFTERNOON_CORRECTED;
+            payloads.add(payload(i + 1, RACE_START.plusSeconds(30L * i), conditions));
+        }
+        when(webSocketClient.fetchLapData()).thenReturn(payloads);
+        lapDataFetcherService.pollAndPersist();
+
+        final var raceId = Objects.requireNonNull(raceRepository.findByExternalId(1).orElseThrow().id());
+        final var chart = trackConditionsService.chart(raceId, null, null, null);
+        assertFalse(chart.downsampled());
+        assertEquals(
+            List.of(RACE_START, RACE_START.plusSeconds(300), RACE_START.plusSeconds(600), RACE_START.plusSeconds(630)),
+            chart.readings().stream().map(reading -> reading.time()).toList(),
+            "Every change and only changes should be stored"
+        );
+
+        assertTrue(trackConditionsService.conditionsAt(raceId, RACE_START.minusSeconds(1)).isEmpty());
+        assertEquals(MORNING, conditionsAt(raceId, RACE_START.plusSeconds(299)));
+        assertEquals(NOON, conditionsAt(raceId, RACE_START.plusSeconds(450)));
+        assertEquals(AFTERNOON, conditionsAt(raceId, RACE_START.plusSeconds(615)));
+
+        // upstream resends everything plus a late lap reporting a shower in the middle of the morning
+        final var withLateLap = new ArrayList<>(payloads);
+        withLateLap.add(payload(100, RACE_START.plusSeconds(165), SHOWER));
+        when(webSocketClient.fetchLapData()).thenReturn(withLateLap);
+        lapDataFetcherService.pollAndPersist();
+
+        assertEquals(
+            List.of(
+                RACE_START,
+                RACE_START.plusSeconds(165),
+                RACE_START.plusSeconds(180),
+                RACE_START.plusSeconds(300),
+                RACE_START.plusSeconds(600),
+                RACE_START.plusSeconds(630)
+            ),
+            trackConditionsService.chart(raceId, null, null, null).readings().stream().map(reading -> reading.time()).toList(),
+            "A late reading should be followed by the previous conditions at the next stored lap"
+        );
+        assertEquals(MORNING, conditionsAt(raceId, RACE_START.plusSeconds(150)));
+        assertEquals(SHOWER, conditionsAt(raceId, RACE_START.plusSeconds(170)));
+        assertEquals(MORNING, conditionsAt(raceId, RACE_START.plusSeconds(200)));
+
+        final var laps = lapHistoryService.findRaceLaps(raceId, null, 100).laps();
+        assertEquals(23, laps.size());
+        assertEquals(MORNING, conditionsOf(laps, 5));
+        assertEquals(SHOWER, conditionsOf(laps, 100));
+        assertEquals(MORNING, conditionsOf(laps, 7), "Stored laps should keep the conditions reported with them");
+        assertEquals(NOON, conditionsOf(laps, 15));
+        assertEquals(AFTERNOON, conditionsOf(laps, 21));
+        assertEquals(AFTERNOON_CORRECTED, conditionsOf(laps, 22));
+
+        final var range = trackConditionsService.chart(raceId, RACE_START.plusSeconds(200), RACE_START.plusSeconds(400), null);
+        assertEquals(
+            List.of(MORNING, NOON),
+            range.readings().stream().map(reading -> reading.conditions()).toList(),
+            "A range should start with the reading current at its start"
+        );
+
+        final var downsampled = trackConditionsService.chart(raceId, null, null, 2);
+        assertTrue(downsampled.downsampled());
+        assertTrue(downsampled.readings().size() <= 2, "Downsampled chart should respect the point limit");
+    }
+
+    @Test
+    void record_shouldKeepFirstReadingOfSameMoment() throws Exception {
+        // two cars cross the line together, the second one reporting corrected conditions
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(
+            payload(1, RACE_START, MORNING),
+            payload(2, RACE_START, SHOWER),
+            payload(3, RACE_START.plusSeconds(30), MORNING)
+        ));
+        lapDataFetcherService.pollAndPersist();
+
+        final var raceId = Objects.requireNonNull(raceRepository.findByExternalId(1).orElseThrow().id());
+        assertEquals(
+            List.of(RACE_START),
+            trackConditionsService.chart(raceId, null, null, null).readings().stream().map(reading -> reading.time()).toList(),
+            "A reading of the same moment should not be stored again"
+        );
+        assertEquals(MORNING, conditionsAt(raceId, RACE_START));
+
+        // upstream resends a lap of the same moment reporting other conditions again
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(payload(4, RACE_START, NOON)));
+        lapDataFetcherService.pollAndPersist();
+
+        final var laps = lapHistoryService.findRaceLaps(raceId, null, 100).laps();
+        assertEquals(4, laps.size());
+        for (final var externalId : List.of(1, 2, 3, 4)) {
+            assertEquals(MORNING, conditionsOf(laps, externalId), "Stored laps should keep the conditions they were read with");
+        }
+    }
+
+    @Test
+    void findRaceLaps_shouldLeaveConditionsEmptyBeforeFirstReading() {
+        // stored bypassing ingestion, so no reading is recorded with it
+        final var race = raceRepository.save(Race.create(new RaceExternalId(1), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var racer = racerRepository.save(Racer.create(new RacerExternalId(101), 7, "Marco", "Rossi"));
+        lapFixtures.saveLap(1, race, racer, RACE_START, 0, 90000);
+
+        final var laps = lapHistoryService.findRaceLaps(Objects.requireNonNull(race.id()), null, 100).laps();
+        assertEquals(1, laps.size());
+        assertNull(laps.getFirst().airTemp());
+        assertNull(laps.getFirst().trackTemp());
+        assertNull(laps.getFirst().humidity());
+    }
+
+    private TrackConditions conditionsAt(long raceId, Instant at) {
+        return Objects.requireNonNull(trackConditionsService.conditionsAt(raceId, at).orElseThrow().conditions());
+    }
+
+    private static TrackConditions conditionsOf(List<LapView> laps, int externalId) {
+        final var lap = laps.stream().filter(l -> l.externalId() == externalId).findFirst().orElseThrow();
+        return new TrackConditions(lap.airTemp(), lap.trackTemp(), lap.humidity());
+    }
+
+    private static LapDataPayload payload(int id, Instant time, TrackConditions conditions) {
+        return LapFixtures.payload(id, 1, 101 + id % 4, time)
+            .round(id)
+            .conditions(conditions)
+            .build();
+    }
+}
@@ -1,24 +1,28 @@
 package dev.lukashornych.miatapodium.server.datafetcher.service;
 
 import com.github.javafaker.Faker;
+import dev.lukashornych.miatapodium.server.archive.service.RaceArchivalService;
+import dev.lukashornych.miatapodium.server.conditions.service.TrackConditionsService;
 import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
 import dev.lukashornych.miatapodium.server.datafetcher.model.LapDataPayload;
 import dev.lukashornych.miatapodium.server.lap.model.Lap;
 import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.lap.service.LapMetadataDictionary;
 import dev.lukashornych.miatapodium.server.race.model.Race;
 import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
 import dev.lukashornych.miatapodium.server.racer.model.Racer;
 import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
 import org.jspecify.annotations.NullMarked;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -42,23 +46,17 @@ import static org.mockito.Mockito.when;
  *   <li>Race and racer records are created from incoming lap data without duplicates</li>
  *   <li>All unique laps are persisted with correct field values</li>
  *   <li>Duplicate data is properly ignored on subsequent polls</li>
+ *   <li>Laps of archived races are skipped, and laps missing from the archive are rejected and counted once</li>
  * </ul>
  */
 @NullMarked
 @SpringBootTest(properties = {
     "miatapodium.datafetcher.poll-interval-ms=999999999"
 })
-@Testcontainers
+@IntegrationTest
 class LapDataFetcherServiceIntegrationTest {
 
-    @Container
-    @ServiceConnection
-    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16")
-        .withUsername("miatapodium")
-        .withPassword("miatapodium")
-        .withDatabaseName("miatapodium");
-
-    @MockitoBean
+    @Autowired
     private LapDataWebSocketClient webSocketClient;
 
     @Autowired
@@ -73,6 +71,20 @@ class LapDataFetcherServiceIntegrationTest {
     @Autowired
     private LapRepository lapRepository;
 
+    @Autowired
+    private LapMetadataDictionary lapMetadataDictionary;
+
+    @Autowired
+    private TrackConditionsService trackConditionsService;
+
+    @Autowired
+    private RaceArchivalService raceArchivalService;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("miatapodium.archive.directory", () -> createTempDirectory().toString());
+    }
+
     @Test
     void pollAndPersist_shouldCorrectlyPersistLapData() throws Exception {
         // Generate test data
@@ -137,10 +149,11 @@ class LapDataFetcherServiceIntegrationTest {
         }
         assertNotNull(firstLap, "First lap should be found in database");
         assertEquals(firstPayload.lapTime(), firstLap.lapTimeMs());
-        assertEquals(firstPayload.make(), firstLap.make());
-        assertEquals(firstPayload.model(), firstLap.model());
-        assertEquals(firstPayload.category(), firstLap.category());
-        assertEquals(firstPayload.tag(), firstLap.tag());
+        final var firstLapMetadata = lapMetadataDictionary.decode(firstLap);
+        assertEquals(firstPayload.make(), firstLapMetadata.make());
+        assertEquals(firstPayload.model(), firstLapMetadata.model());
+        assertEquals(firstPayload.category(), firstLapMetadata.category());
+        assertEquals(firstPayload.tag(), firstLapMetadata.tag());
         assertEquals(firstPayload.round(), firstLap.round());
         assertEquals(firstPayload.carNumber(), firstLap.carNumber());
         assertFalse(firstLap.isRaceLap());
@@ -153,10 +166,11 @@ class LapDataFetcherServiceIntegrationTest {
         assertEquals(firstPayload.timeS2(), firstLap.sectorTimes().timeS2());
         assertEquals(firstPayload.timeS3(), firstLap.sectorTimes().timeS3());
 
-        assertNotNull(firstLap.trackConditions());
-        assertEquals(firstPayload.temp1(), firstLap.trackConditions().airTemp());
-        assertEquals(firstPayload.temp2(), firstLap.trackConditions().trackTemp());
-        assertEquals(firstPayload.temp3(), firstLap.trackConditions().humidity());
+        final var firstLapConditions = trackConditionsService.conditionsAt(firstLapRaceId, firstLap.time());
+        assertTrue(firstLapConditions.isPresent(), "Track conditions of the first lap should be recorded");
+        assertEquals(firstPayload.temp1(), firstLapConditions.get().airTemp());
+        assertEquals(firstPayload.temp2(), firstLapConditions.get().trackTemp());
+        assertEquals(firstPayload.temp3(), firstLapConditions.get().humidity());
 
         // Second poll with same data - should not create duplicates
         lapDataFetcherService.pollAndPersist();
@@ -174,6 +188,46 @@ class LapDataFetcherServiceIntegrationTest {
         assertEquals(20, lapsAfterSecondPoll.size(), "Lap count should remain 20 after second poll");
     }
 
+    @Test
+    void pollAndPersist_shouldRejectAndCountLateLapsOfArchivedRaces() {
+        final var payloads = new ArrayList<>(generateTestLapData());
+        when(webSocketClient.fetchLapData()).thenReturn(payloads);
+        lapDataFetcherService.pollAndPersist();
+
+        final var archivedRaceId = raceRepository.findByExternalId(1).orElseThrow().id();
+        assertNotNull(archivedRaceId);
+        assertTrue(raceArchivalService.archiveRace(archivedRaceId));
+        final var rejectedBefore = lapDataFetcherService.rejectedLateLapCount();
+
+        // upstream keeps resending the archived laps, which are expected
+        lapDataFetcherService.pollAndPersist();
+        assertEquals(rejectedBefore, lapDataFetcherService.rejectedLateLapCount(), "Archived laps should not be rejected");
+
+        // a lap of the archived race that never made it into the archive
+        final var archived = payloads.getFirst();
+        payloads.add(new LapDataPayload(
+            1000, archived.raceId(), archived.rfidId(), archived.time().plusSeconds(600), archived.time(), archived.tag(), archived.lapTime(),
+            archived.timeS1(), archived.timeS2(), archived.timeS3(), archived.s1(), archived.s2(), archived.s3(), archived.temp1(), archived.temp2(), archived.temp3(),
+            archived.round() + 1, archived.carNumber(), archived.category(), archived.make(), archived.model(), archived.firstName(), archived.lastName(),
+            archived.name(), archived.date(), archived.isRaceLap()
+        ));
+        lapDataFetcherService.pollAndPersist();
+        lapDataFetcherService.pollAndPersist();
+
+        assertEquals(rejectedBefore + 1, lapDataFetcherService.rejectedLateLapCount(), "Late lap should be counted once");
+        final var laps = new ArrayList<Lap>();
+        lapRepository.findAll().forEach(laps::add);
+        assertEquals(10, laps.size(), "Late lap should not be stored next to the archive");
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("miatapodium-archive");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private List<LapDataPayload> generateTestLapData() {
         Faker faker = new Faker(new Random(42));
 
@@ -0,0 +1,306 @@
+package dev.lukashornych.miatapodium.server.datafetcher.service;
+
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditions;
+import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
+import dev.lukashornych.miatapodium.server.datafetcher.model.LapDataPayload;
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.service.LapHistoryService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.leaderboard.service.StandingsHistoryService;
+import dev.lukashornych.miatapodium.server.performance.PerformanceBaseline;
+import dev.lukashornych.miatapodium.server.performance.PerformanceReport;
+import dev.lukashornych.miatapodium.server.performance.PerformanceReport.PollMeasurement;
+import dev.lukashornych.miatapodium.server.performance.PerformanceReport.ReadMeasurement;
+import dev.lukashornych.miatapodium.server.performance.PerformanceTestConfiguration;
+import dev.lukashornych.miatapodium.server.performance.StatementCountingDataSource;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.simple.JdbcClient;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Performance regression test of the ingestion pipeline and the race reads it feeds, run with
+ * {@code mvn -Pperformance test}. Mirrors upstream behaviour: every poll returns all laps
+ * accumulated so far, so after the initial load most of each payload consists of duplicates.
+ * Measurements of every run are written to {@code target/performance/LapDataFetcherServicePerformanceTest.json}.
+ *
+ * <p>Verifies, for payloads of 1k, 10k and 100k laps, that:
+ * <ul>
+ *   <li>The initial poll and every repeated poll stay within the statement, wall-clock and
+ *       allocation budgets of their scenario</li>
+ *   <li>Standings, lap history and point-in-time standings reads running concurrently with
+ *       polls stay within their latency budget and never fail</li>
+ * </ul>
+ *
+ * <p>Budgets are derived from the committed {@link PerformanceBaseline} of the suite: a poll or
+ * read exceeds its budget once it takes twice its baseline, or executes a quarter more
+ * statements. A scenario without a baseline fails too. Budgets are checked once all
+ * measurements of a payload size are taken, so every run writes a complete report.
+ */
+@NullMarked
+@Slf4j
+@Tag("performance")
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999",
+    "miatapodium.archive.check-interval-ms=999999999"
+})
+@Import(PerformanceTestConfiguration.class)
+@IntegrationTest
+class LapDataFetcherServicePerformanceTest {
+
+    private static final int RACERS = 40;
+    private static final int LAPS_PER_RACE = 2_500;
+    private static final String[] TRACKS = { "Brno Circuit", "Most Circuit", "Slovakia Ring", "Pannonia Ring" };
+    private static final int GROWTH_PERCENT_PER_POLL = 1;
+    private static final int REPEATED_POLLS = 3;
+    private static final int CONCURRENT_POLLS = 2;
+    private static final int READERS = 4;
+
+    // statement counts barely vary between runs of the same code, timings and allocations do
+    private static final double STATEMENT_HEADROOM = 1.25;
+    private static final double HEADROOM = 2.0;
+    private static final long MIN_STATEMENT_SLACK = 10;
+    private static final long MIN_WALL_CLOCK_SLACK_MS = 50;
+    private static final long MIN_ALLOCATION_SLACK_BYTES = 16 * 1024 * 1024;
+    private static final double MIN_READ_SLACK_MS = 5;
+
+    private static final String SUITE = LapDataFetcherServicePerformanceTest.class.getSimpleName();
+    private static final PerformanceBaseline baseline = PerformanceBaseline.load(SUITE);
+    private static final PerformanceReport report = new PerformanceReport(SUITE);
+
+    @Autowired
+    private LapDataWebSocketClient webSocketClient;
+
+    @Autowired
+    private LapDataFetcherService lapDataFetcherService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private LapHistoryService lapHistoryService;
+
+    @Autowired
+    private StandingsHistoryService standingsHistoryService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterAll
+    static void writeReport() {
+        log.info("Performance results written to {}", report.write().toAbsolutePath());
+    }
+
+    @ParameterizedTest(name = "{0} laps")
+    @ValueSource(ints = { 1_000, 10_000, 100_000 })
+    void pollAndPersist_shouldStayWithinBudgets(int initialLaps) throws Exception {
+        final var growth = initialLaps * GROWTH_PERCENT_PER_POLL / 100;
+        final var upstream = generateLaps(initialLaps + growth * (REPEATED_POLLS + CONCURRENT_POLLS));
+
+        // initial load: every lap is new
+        measurePoll("initial", upstream.subList(0, initialLaps), initialLaps);
+        var stored = initialLaps;
+        assertEquals(initialLaps, countLaps(), "Initial poll should store every lap");
+
+        // repeated polls: upstream resends everything and adds a few new laps
+        for (int poll = 0; poll < REPEATED_POLLS; poll++) {
+            measurePoll("repeated", upstream.subList(0, stored + growth), growth);
+            stored += growth;
+        }
+        assertEquals(stored, countLaps(), "Repeated polls should store only new laps");
+
+        // repeated polls while spectators read the races
+        final var races = new ArrayList<Race>();
+        raceRepository.findAll().forEach(races::add);
+        final var latencies = new ConcurrentHashMap<String, ConcurrentLinkedQueue<Long>>();
+        final var failures = new ConcurrentLinkedQueue<Throwable>();
+        final var polling = new AtomicBoolean(true);
+        final var readStart = stored;
+        try (final var readers = Executors.newFixedThreadPool(READERS)) {
+            for (int reader = 0; reader < READERS; reader++) {
+                readers.submit(() -> {
+                    while (polling.get()) {
+                        try {
+                            read(races.get(ThreadLocalRandom.current().nextInt(races.size())), latencies);
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        }
+                    }
+                });
+            }
+            for (int poll = 0; poll < CONCURRENT_POLLS; poll++) {
+                measurePoll("concurrent", upstream.subList(0, stored + growth), growth);
+                stored += growth;
+            }
+            polling.set(false);
+            readers.shutdown();
+            assertTrue(readers.awaitTermination(1, TimeUnit.MINUTES), "Readers should finish");
+        }
+        assertEquals(stored, countLaps(), "Concurrent polls should store only new laps");
+        assertTrue(failures.isEmpty(), () -> "Reads should not fail: " + failures);
+
+        latencies.forEach((operation, samples) -> {
+            final var measurement = readMeasurement(operation, readStart, samples);
+            report.add(measurement);
+            log.info(
+                "{} laps, {}: {} requests, p50 {} ms, p95 {} ms, max {} ms",
+                readStart, operation, measurement.requests(),
+                "%.2f".formatted(measurement.p50Ms()), "%.2f".formatted(measurement.p95Ms()), "%.2f".formatted(measurement.maxMs())
+            );
+            final var expected = baseline.read(measurement);
+            if (expected != null) {
+                baseline.checkWithin(operation + " p95 latency ms", measurement.p95Ms(), expected.p95Ms(), HEADROOM, MIN_READ_SLACK_MS);
+            }
+        });
+        baseline.assertWithinBudgets();
+    }
+
+    private void measurePoll(String scenario, List<LapDataPayload> payload, int newLaps) throws Exception {
+        when(webSocketClient.fetchLapData()).thenReturn(payload);
+        final var statements = (StatementCountingDataSource) dataSource;
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        statements.reset();
+        final var allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        final var start = System.nanoTime();
+        lapDataFetcherService.pollAndPersist();
+        final var wallClockMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        final var allocatedBytes = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        final var executed = statements.executedStatements();
+
+        final var measurement = new PollMeasurement(scenario, payload.size(), newLaps, wallClockMs, executed, allocatedBytes);
+        report.add(measurement);
+        log.info(
+            "{} poll of {} laps ({} new): {} ms, {} statements, {} MB allocated",
+            scenario, payload.size(), newLaps, wallClockMs, executed, allocatedBytes / (1024 * 1024)
+        );
+
+        final var expected = baseline.poll(measurement);
+        if (expected != null) {
+            final var poll = scenario + " poll of " + payload.size() + " laps";
+            baseline.checkWithin(poll + " statements", executed, expected.statements(), STATEMENT_HEADROOM, MIN_STATEMENT_SLACK);
+            baseline.checkWithin(poll + " wall clock ms", wallClockMs, expected.wallClockMs(), HEADROOM, MIN_WALL_CLOCK_SLACK_MS);
+            baseline.checkWithin(poll + " allocated bytes", allocatedBytes, expected.allocatedBytes(), HEADROOM, MIN_ALLOCATION_SLACK_BYTES);
+        }
+    }
+
+    private void read(Race race, Map<String, ConcurrentLinkedQueue<Long>> latencies) {
+        final var raceId = Objects.requireNonNull(race.id());
+        final var random = ThreadLocalRandom.current();
+
+        var start = System.nanoTime();
+        leaderboardService.standings(raceId);
+        record(latencies, "standings", start);
+
+        start = System.nanoTime();
+        final var firstPage = lapHistoryService.findRaceLaps(raceId, null, 100);
+        record(latencies, "race-laps-first-page", start);
+
+        final var nextCursor = firstPage.nextCursor();
+        if (nextCursor != null) {
+            start = System.nanoTime();
+            lapHistoryService.findRaceLaps(raceId, LapCursor.decode(nextCursor), 100);
+            record(latencies, "race-laps-next-page", start);
+        }
+
+        if (!firstPage.laps().isEmpty()) {
+            final var raceStart = firstPage.laps().getFirst().time();
+            final var at = raceStart.plusSeconds(random.nextLong(3_600));
+            start = System.nanoTime();
+            standingsHistoryService.standingsAt(raceId, at);
+            record(latencies, "standings-at", start);
+        }
+    }
+
+    private static void record(Map<String, ConcurrentLinkedQueue<Long>> latencies, String operation, long start) {
+        latencies.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+    }
+
+    private static ReadMeasurement readMeasurement(String operation, int storedLaps, ConcurrentLinkedQueue<Long> samples) {
+        final var sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new ReadMeasurement(
+            operation,
+            storedLaps,
+            sorted.length,
+            sorted[(int) Math.floor((sorted.length - 1) * 0.50)] / 1_000_000.0,
+            sorted[(int) Math.floor((sorted.length - 1) * 0.95)] / 1_000_000.0,
+            sorted[sorted.length - 1] / 1_000_000.0
+        );
+    }
+
+    private int countLaps() {
+        return jdbcClient.sql("SELECT COUNT(*) FROM laps").query(Integer.class).single();
+    }
+
+    /**
+     * Generates laps in the order upstream accumulates them: races of {@link #LAPS_PER_RACE} laps
+     * run one after another, with every racer completing a lap in each round.
+     */
+    private static List<LapDataPayload> generateLaps(int count) {
+        final var random = new Random(42);
+        final var laps = new ArrayList<LapDataPayload>(count);
+        final var seasonStart = Instant.parse("2025-04-05T09:00:00Z");
+        for (int i = 0; i < count; i++) {
+            final var race = i / LAPS_PER_RACE;
+            final var racer = i % RACERS;
+            final var round = (i % LAPS_PER_RACE) / RACERS;
+            final var raceStart = seasonStart.plusSeconds(7L * 24 * 3600 * race);
+
+            final var s1 = 20_000 + random.nextInt(2_000);
+            final var s2 = 35_000 + random.nextInt(2_000);
+            final var s3 = 33_000 + random.nextInt(2_000);
+            final var lapTime = s1 + s2 + s3;
+            final var timePrev = raceStart.plusMillis(95_000L * round + racer * 150L);
+            final var time = timePrev.plusMillis(lapTime);
+
+            laps.add(LapFixtures.payload(i + 1, race + 1, 1_000 + racer, time)
+                .lapTime(lapTime)
+                .sectors(s1, s2)
+                .conditions(new TrackConditions(18.0f + round / 20, 25.0f + round / 10, 60.0f))
+                .round(round)
+                .carNumber(racer + 1)
+                .category(racer % 2 == 0 ? "Open" : "Racing")
+                .driver("Racer" + racer, "Driver" + racer)
+                .race(TRACKS[race % TRACKS.length], raceStart.truncatedTo(ChronoUnit.DAYS))
+                .raceLap()
+                .build());
+        }
+        return laps;
+    }
+}
@@ -0,0 +1,131 @@
+package dev.lukashornych.miatapodium.server.graphql.service;
+
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for the GraphQL request pipeline: persisted queries, the parsed document
+ * cache and the query cost limits.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>A persisted query is executed when only its hash is sent</li>
+ *   <li>An unknown hash is reported as a missing persisted query</li>
+ *   <li>A repeated query is parsed and validated only once</li>
+ *   <li>Greedy and deeply nested queries are rejected before execution</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999"
+})
+@IntegrationTest
+class CachingPreparsedDocumentProviderIntegrationTest {
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private CachingPreparsedDocumentProvider documentProvider;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Test
+    void shouldExecutePersistedQueryByHash() throws Exception {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(1), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var query = new ClassPathResource("graphql/persisted/standings.graphql").getContentAsString(StandardCharsets.UTF_8);
+
+        final var response = execute(
+            "",
+            Map.of("raceId", Objects.requireNonNull(race.id()).toString()),
+            Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", PersistedQueryRegistry.hash(query)))
+        );
+
+        assertTrue(response.getErrors().isEmpty(), () -> "Unexpected errors: " + response.getErrors());
+        assertEquals("Brno Circuit", response.field("race.name").getValue());
+    }
+
+    @Test
+    void shouldReportUnknownPersistedQuery() {
+        final var response = execute(
+            "",
+            Map.of(),
+            Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", "0".repeat(64)))
+        );
+
+        assertEquals(1, response.getErrors().size());
+        assertEquals("PersistedQueryNotFound", response.getErrors().getFirst().getMessage());
+    }
+
+    @Test
+    void shouldParseRepeatedQueryOnce() {
+        final var parses = new AtomicInteger();
+        final var input = ExecutionInput.newExecutionInput("{ races { id name } }").build();
+
+        final var first = documentProvider.getDocumentAsync(input, i -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(Parser.parse(i.getQuery()));
+        }).join();
+        final var second = documentProvider.getDocumentAsync(input, i -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(Parser.parse(i.getQuery()));
+        }).join();
+
+        assertEquals(1, parses.get());
+        assertSame(first, second);
+    }
+
+    @Test
+    void shouldRejectTooComplexQuery() {
+        final var response = execute(
+            "{ races { laps(first: 1000) { laps { racer { laps(first: 1000) { laps { id } } } } } } }",
+            Map.of(),
+            Map.of()
+        );
+
+        assertFalse(response.getErrors().isEmpty());
+        assertTrue(response.getErrors().getFirst().getMessage().contains("complexity"));
+    }
+
+    @Test
+    void shouldRejectTooDeepQuery() {
+        final var response = execute(
+            "{ race(id: 1) { laps(first: 1) { laps { race { laps(first: 1) { laps { race { laps(first: 1) { laps { id } } } } } } } } } }",
+            Map.of(),
+            Map.of()
+        );
+
+        assertFalse(response.getErrors().isEmpty());
+        assertTrue(response.getErrors().getFirst().getMessage().contains("depth"));
+    }
+
+    private ExecutionGraphQlResponse execute(String document, Map<String, Object> variables, Map<String, Object> extensions) {
+        final var request = new DefaultExecutionGraphQlRequest(document, null, variables, extensions, "test", null);
+        return Objects.requireNonNull(graphQlService.execute(request).block());
+    }
+}
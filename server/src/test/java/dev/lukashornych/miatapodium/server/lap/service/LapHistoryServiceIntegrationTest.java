@@ -0,0 +1,122 @@
+package dev.lukashornych.miatapodium.server.lap.service;
+
+import dev.lukashornych.miatapodium.server.lap.model.LapCursor;
+import dev.lukashornych.miatapodium.server.lap.model.LapView;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.model.RacerExternalId;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration test for {@link LapHistoryService} and {@link LapExportService} running against
+ * a real PostgreSQL instance provided by Testcontainers.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>Following cursors visits every lap of a race exactly once in {@code (time, id)} order</li>
+ *   <li>Laps sharing the same time are split across pages without gaps or duplicates</li>
+ *   <li>Racer history spans all races of the racer</li>
+ *   <li>Exports stream every lap of a race</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999"
+})
+@IntegrationTest
+class LapHistoryServiceIntegrationTest {
+
+    @Autowired
+    private LapHistoryService lapHistoryService;
+
+    @Autowired
+    private LapExportService lapExportService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RacerRepository racerRepository;
+
+    @Autowired
+    private LapFixtures lapFixtures;
+
+    @Test
+    void findRaceLaps_shouldVisitAllLapsInOrderAcrossPages() {
+        final var race1 = raceRepository.save(Race.create(new RaceExternalId(1001), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var race2 = raceRepository.save(Race.create(new RaceExternalId(1002), "Most Circuit", LocalDate.of(2025, 9, 20)));
+        final var racer1 = racerRepository.save(Racer.create(new RacerExternalId(2001), 7, "Marco", "Rossi"));
+        final var racer2 = racerRepository.save(Racer.create(new RacerExternalId(2002), 8, "Emma", "Schmidt"));
+
+        // two racers crossing the line at the same moment on every lap exercise the id tie-breaker
+        final var base = Instant.parse("2025-09-13T10:00:00Z");
+        int externalId = 1;
+        for (int round = 0; round < 12; round++) {
+            final var time = base.plusSeconds(90L * round);
+            lapFixtures.saveLap(externalId++, race1, racer1, time, round, 90000);
+            lapFixtures.saveLap(externalId++, race1, racer2, time, round, 90000);
+        }
+        lapFixtures.saveLap(externalId, race2, racer1, base.plusSeconds(7 * 24 * 3600), 0, 90000);
+
+        final var raceId = Objects.requireNonNull(race1.id());
+        final var visited = new ArrayList<LapView>();
+        LapCursor cursor = null;
+        int pages = 0;
+        do {
+            final var page = lapHistoryService.findRaceLaps(raceId, cursor, 10);
+            visited.addAll(page.laps());
+            pages++;
+            cursor = page.nextCursor() == null ? null : LapCursor.decode(page.nextCursor());
+        } while (cursor != null);
+
+        assertEquals(3, pages, "24 laps with page size 10 should take 3 pages");
+        assertEquals(24, visited.size(), "Every lap of the race should be visited");
+        assertEquals(24, visited.stream().map(LapView::id).distinct().count(), "No lap should be visited twice");
+        for (int i = 1; i < visited.size(); i++) {
+            final var previous = visited.get(i - 1);
+            final var current = visited.get(i);
+            assertTrue(
+                previous.time().isBefore(current.time())
+                    || (previous.time().equals(current.time()) && previous.id() < current.id()),
+                "Laps should be ordered by (time, id)"
+            );
+        }
+
+        final var racerPage = lapHistoryService.findRacerLaps(Objects.requireNonNull(racer1.id()), null, 100);
+        assertEquals(13, racerPage.laps().size(), "Racer history should span both races");
+        assertNull(racerPage.nextCursor(), "Single page should have no next cursor");
+
+        final var output = new ByteArrayOutputStream();
+        final var exported = lapExportService.exportRaceLaps(raceId, LapExportFormat.NDJSON, output);
+        assertEquals(24, exported);
+        final List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(24, lines.size(), "Every exported lap should be on its own line");
+        assertTrue(lines.getFirst().contains("\"make\":\"Mazda\""), "Exported metadata should be decoded");
+    }
+
+    @Test
+    void lapCursor_shouldRoundTripThroughToken() {
+        final var cursor = new LapCursor(Instant.parse("2025-09-13T10:00:00.123456Z"), 42);
+        assertEquals(cursor, LapCursor.decode(cursor.encode()));
+    }
+}
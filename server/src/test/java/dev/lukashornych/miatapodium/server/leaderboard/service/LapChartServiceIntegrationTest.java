@@ -0,0 +1,110 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
+import dev.lukashornych.miatapodium.server.datafetcher.model.LapDataPayload;
+import dev.lukashornych.miatapodium.server.datafetcher.service.LapDataFetcherService;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration test for {@link LapChartService} that ingests laps of three cars over two polls
+ * and checks the maintained lap chart.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>Cars are ordered in each round by the moment they completed it, with intervals to the leader</li>
+ *   <li>A lap arriving in a later poll is slotted into the already stored round</li>
+ *   <li>Only the requested range of rounds is returned</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999"
+})
+@IntegrationTest
+class LapChartServiceIntegrationTest {
+
+    private static final Instant START = Instant.parse("2025-09-13T10:00:00Z");
+
+    @Autowired
+    private LapDataWebSocketClient webSocketClient;
+
+    @Autowired
+    private LapDataFetcherService lapDataFetcherService;
+
+    @Autowired
+    private LapChartService lapChartService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RacerRepository racerRepository;
+
+    @Test
+    void shouldMaintainLapChartIncrementally() throws Exception {
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(
+            payload(1, 101, 1, 90000),
+            payload(2, 102, 1, 91500),
+            payload(3, 101, 2, 180000),
+            payload(4, 102, 2, 181000)
+        ));
+        lapDataFetcherService.pollAndPersist();
+
+        // car 103 completes the first round between the other two, but is reported late
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(
+            payload(5, 103, 1, 90700),
+            payload(6, 103, 2, 179500)
+        ));
+        lapDataFetcherService.pollAndPersist();
+
+        final var raceId = raceRepository.findByExternalId(1).orElseThrow().id();
+        final var first = racerId(101);
+        final var second = racerId(102);
+        final var third = racerId(103);
+
+        final var chart = lapChartService.lapChart(raceId, 0, Integer.MAX_VALUE);
+        assertEquals(2, chart.rounds().size());
+
+        final var round1 = chart.rounds().get(0);
+        assertEquals(1, round1.round());
+        assertEquals(START.plusMillis(90000), round1.leaderTime());
+        assertArrayEquals(new long[]{first, third, second}, round1.racerIds());
+        assertArrayEquals(new int[]{0, 700, 1500}, round1.intervalsMs());
+
+        final var round2 = chart.rounds().get(1);
+        assertEquals(2, round2.round());
+        assertArrayEquals(new long[]{third, first, second}, round2.racerIds());
+        assertArrayEquals(new int[]{0, 500, 1500}, round2.intervalsMs());
+
+        final var range = lapChartService.lapChart(raceId, 2, 5);
+        assertEquals(1, range.rounds().size());
+        assertEquals(2, range.rounds().getFirst().round());
+
+        assertThrows(IllegalArgumentException.class, () -> lapChartService.lapChart(raceId, 3, 2));
+    }
+
+    private long racerId(int rfid) {
+        return racerRepository.findByExternalId(rfid).orElseThrow().id();
+    }
+
+    private static LapDataPayload payload(int lapId, int rfid, int round, int finishedAfterMs) {
+        return LapFixtures.payload(lapId, 1, rfid, START.plusMillis(finishedAfterMs))
+            .round(round)
+            .build();
+    }
+}
@@ -0,0 +1,181 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import dev.lukashornych.miatapodium.server.archive.service.LapArchive;
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.StandingsCheckpointRepository;
+import dev.lukashornych.miatapodium.server.leaderboard.repository.StandingsRepository;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.model.RacerExternalId;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration test for {@link StandingsHistoryService} running against a real PostgreSQL instance
+ * provided by Testcontainers, with a small checkpoint interval. Laps are stored and announced
+ * inside a transaction, as the data fetcher does, so checkpoints are written after it commits.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>Checkpoints are created and committed while laps are ingested</li>
+ *   <li>Standings at the end of the race match the standings computed by the aggregate query</li>
+ *   <li>Standings at an earlier moment include exactly the laps completed by then</li>
+ *   <li>A late lap invalidates checkpoints that should have included it</li>
+ *   <li>An invalidation that failed during ingestion is retried by the next query</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999",
+    "miatapodium.leaderboard.checkpoint-interval-laps=7"
+})
+@IntegrationTest
+class StandingsHistoryServiceIntegrationTest {
+
+    @Autowired
+    private StandingsHistoryService standingsHistoryService;
+
+    @Autowired
+    private StandingsRepository standingsRepository;
+
+    @Autowired
+    private StandingsCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private LapRepository lapRepository;
+
+    @Autowired
+    private LapArchive lapArchive;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RacerRepository racerRepository;
+
+    @Autowired
+    private LapFixtures lapFixtures;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void standingsAt_shouldMatchRecomputedStandings() {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(3001), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var racers = new ArrayList<Racer>();
+        for (int i = 0; i < 4; i++) {
+            racers.add(racerRepository.save(Racer.create(new RacerExternalId(4001 + i), 10 + i, "Racer", "No" + i)));
+        }
+        final var raceId = Objects.requireNonNull(race.id());
+
+        final var random = new Random(7);
+        final var base = Instant.parse("2025-09-13T10:00:00Z");
+        final var externalIds = new AtomicInteger(1);
+        // five polls of eight laps each, checkpoints are extended after every poll
+        for (int poll = 0; poll < 5; poll++) {
+            final var rounds = poll * 2;
+            ingest(() -> {
+                final var batch = new ArrayList<Lap>();
+                for (int round = rounds; round < rounds + 2; round++) {
+                    for (final var racer : racers) {
+                        final var time = base.plusSeconds(180L * round + racer.carNumber());
+                        batch.add(lapFixtures.saveLap(externalIds.getAndIncrement(), race, racer, time, 0, 80000 + random.nextInt(10000)));
+                    }
+                }
+                return batch;
+            });
+        }
+        assertTrue(checkpointRepository.findLatest(raceId).isPresent(), "Checkpoints should have been created");
+
+        final var atEnd = standingsHistoryService.standingsAt(raceId, base.plusSeconds(24 * 3600));
+        assertEquals(40, atEnd.lapCount());
+        assertEquals(standingsRepository.findStandings(raceId), atEnd.standings());
+
+        // after the third poll's first round: 2 * 4 * 2 + 4 laps
+        final var midRace = standingsHistoryService.standingsAt(raceId, base.plusSeconds(180L * 4 + 20));
+        assertEquals(20, midRace.lapCount());
+        assertEquals(20, midRace.standings().stream().mapToInt(standing -> standing.lapCount()).sum());
+
+        // a late lap completed before all existing checkpoints
+        ingest(() -> List.of(lapFixtures.saveLap(externalIds.getAndIncrement(), race, racers.getFirst(), base.plusSeconds(1), 0, 60000)));
+        final var afterLateLap = standingsHistoryService.standingsAt(raceId, base.plusSeconds(24 * 3600));
+        assertEquals(41, afterLateLap.lapCount());
+        assertEquals(standingsRepository.findStandings(raceId), afterLateLap.standings());
+        assertEquals(60000, afterLateLap.standings().getFirst().bestLapTimeMs());
+    }
+
+    @Test
+    void standingsAt_shouldRetryFailedInvalidation() {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(3002), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var racers = List.of(
+            racerRepository.save(Racer.create(new RacerExternalId(4101), 21, "Racer", "One")),
+            racerRepository.save(Racer.create(new RacerExternalId(4102), 22, "Racer", "Two"))
+        );
+        final var raceId = Objects.requireNonNull(race.id());
+        final var failingRepository = mock(StandingsCheckpointRepository.class, delegatesTo(checkpointRepository));
+        final var service = new StandingsHistoryService(
+            lapRepository, racerRepository, failingRepository, lapArchive, transactionTemplate, 7
+        );
+
+        final var base = Instant.parse("2025-09-13T10:00:00Z");
+        final var laps = new ArrayList<Lap>();
+        for (int round = 0; round < 7; round++) {
+            for (final var racer : racers) {
+                laps.add(lapFixtures.saveLap(laps.size() + 1, race, racer, base.plusSeconds(180L * round + racer.carNumber()), round, 85000));
+            }
+        }
+        service.onLapsIngested(new LapsIngestedEvent(laps));
+        assertEquals(2, checkpointRepository.count(), "Fourteen laps should fill two checkpoints");
+
+        doThrow(new TransientDataAccessResourceException("Connection lost"))
+            .doAnswer(delegatesTo(checkpointRepository))
+            .when(failingRepository).deleteFromPosition(anyLong(), any(), anyLong());
+        final var lateLap = lapFixtures.saveLap(100, race, racers.getFirst(), base.plusSeconds(1), 0, 60000);
+        service.onLapsIngested(new LapsIngestedEvent(List.of(lateLap)));
+        assertEquals(2, checkpointRepository.count(), "Failed invalidation should leave the checkpoints in place");
+
+        final var standings = service.standingsAt(raceId, base.plusSeconds(24 * 3600));
+        verify(failingRepository, times(2)).deleteFromPosition(anyLong(), any(), anyLong());
+        assertEquals(15, standings.lapCount(), "Query should invalidate the checkpoints missing the late lap");
+        assertEquals(standingsRepository.findStandings(raceId), standings.standings());
+        assertEquals(60000, standings.standings().getFirst().bestLapTimeMs());
+    }
+
+    private void ingest(Supplier<List<Lap>> saveLaps) {
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new LapsIngestedEvent(saveLaps.get())));
+    }
+}
@@ -0,0 +1,120 @@
+package dev.lukashornych.miatapodium.server.leaderboard.service;
+
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.leaderboard.model.CachedResponse;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for {@link VersionedResponseCache} verifying that responses are rendered once per
+ * race data version, also under concurrent requests, and that conditional requests are resolved
+ * from the version alone.
+ */
+@NullMarked
+class VersionedResponseCacheTest {
+
+    private final RaceDataVersions versions = new RaceDataVersions();
+    private final VersionedResponseCache cache = new VersionedResponseCache(versions, 16);
+
+    @Test
+    void get_shouldRenderOncePerVersion() {
+        final var renders = new AtomicInteger();
+        final VersionedResponseCache.VersionRenderer renderer = version -> {
+            renders.incrementAndGet();
+            return ("v" + version).getBytes(StandardCharsets.UTF_8);
+        };
+
+        final var first = cache.get(1, "standings", renderer);
+        final var second = cache.get(1, "standings", renderer);
+        assertEquals(1, renders.get(), "Unchanged version should be served from cache");
+        assertArrayEquals(first.body(), second.body());
+
+        versions.onLapsIngested(ingestedInto(1));
+        final var third = cache.get(1, "standings", renderer);
+        assertEquals(2, renders.get(), "Bumped version should be rendered again");
+        assertEquals(1, third.version());
+        assertNotEquals(first.etag(), third.etag());
+
+        cache.get(2, "standings", renderer);
+        cache.get(1, "standings", renderer);
+        assertEquals(3, renders.get(), "Other races should not share entries");
+    }
+
+    @Test
+    void get_shouldRenderConcurrentRequestsOnce() throws Exception {
+        final var renders = new AtomicInteger();
+        final var release = new CountDownLatch(1);
+        final VersionedResponseCache.VersionRenderer renderer = version -> {
+            renders.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ("v" + version).getBytes(StandardCharsets.UTF_8);
+        };
+
+        try (final var executor = Executors.newFixedThreadPool(8)) {
+            final var responses = new ArrayList<Future<CachedResponse>>();
+            for (int i = 0; i < 32; i++) {
+                responses.add(executor.submit(() -> cache.get(1, "standings", renderer)));
+            }
+            release.countDown();
+            for (final var response : responses) {
+                assertArrayEquals("v0".getBytes(StandardCharsets.UTF_8), response.get(10, TimeUnit.SECONDS).body());
+            }
+        }
+        assertEquals(1, renders.get(), "Requests waiting for or arriving after a rendering should not render again");
+    }
+
+    @Test
+    void get_shouldRenderAgainAfterFailedRendering() {
+        assertThrows(NoSuchElementException.class, () -> cache.get(1, "standings", version -> {
+            throw new NoSuchElementException("Race 1 not found");
+        }));
+
+        final var response = cache.get(1, "standings", version -> new byte[] { 1 });
+        assertArrayEquals(new byte[] { 1 }, response.body(), "Failed rendering should not be cached");
+    }
+
+    @Test
+    void isNotModified_shouldMatchOnlyCurrentVersion() {
+        final var etag = cache.get(1, "standings", version -> new byte[0]).etag();
+
+        assertTrue(cache.isNotModified(1, etag));
+        assertTrue(cache.isNotModified(1, "\"other\", W/" + etag));
+        assertFalse(cache.isNotModified(1, null));
+        assertFalse(cache.isNotModified(2, etag), "Tags of one race should not match another race");
+
+        versions.onLapsIngested(ingestedInto(1));
+        assertFalse(cache.isNotModified(1, etag), "Tags of older versions should not match");
+    }
+
+    private static LapsIngestedEvent ingestedInto(long raceId) {
+        final var now = Instant.now();
+        return new LapsIngestedEvent(List.of(new Lap(
+            1L, 1, AggregateReference.to(raceId), AggregateReference.to(1L), now, now, 0,
+            null, 0, 0, 1, 1, 1, false, false
+        )));
+    }
+}
@@ -0,0 +1,319 @@
+package dev.lukashornych.miatapodium.server.live.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.leaderboard.service.LeaderboardService;
+import dev.lukashornych.miatapodium.server.live.controller.LiveStandingsHandshakeInterceptor;
+import dev.lukashornych.miatapodium.server.live.model.LiveEncoding;
+import dev.lukashornych.miatapodium.server.live.model.LiveMode;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.model.RacerExternalId;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration test for {@link LiveStandingsService} running against a real PostgreSQL instance
+ * provided by Testcontainers. Sessions are Mockito mocks recording the frames sent to them; laps
+ * are stored directly and announced to the service as the data fetcher does after committing.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>A new subscriber receives a snapshot of the current standings</li>
+ *   <li>Published updates carry consecutive sequence numbers, deltas apply to the previous update</li>
+ *   <li>A race whose last subscriber left receives no updates, a new subscriber gets fresh standings</li>
+ *   <li>A session that falls behind is closed without holding up other sessions</li>
+ *   <li>Querying the standings to publish does not hold up new subscribers</li>
+ *   <li>The handshake rejects unknown races and malformed requests</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999",
+    "miatapodium.live.max-pending-messages=2"
+})
+@IntegrationTest
+class LiveStandingsServiceIntegrationTest {
+
+    private static final Instant BASE = Instant.parse("2025-09-13T10:00:00Z");
+
+    @Autowired
+    private LiveStandingsService liveStandingsService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private LiveUpdateEncoder liveUpdateEncoder;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RacerRepository racerRepository;
+
+    @Autowired
+    private LapFixtures lapFixtures;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void subscribe_shouldSendSnapshotFollowedByUpdatesInSequence() throws Exception {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(7001), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var first = racerRepository.save(Racer.create(new RacerExternalId(8001), 11, "Racer", "One"));
+        final var second = racerRepository.save(Racer.create(new RacerExternalId(8002), 12, "Racer", "Two"));
+        lapFixtures.saveLap(1, race, first, BASE, 0, 90000);
+
+        final var deltas = new LinkedBlockingQueue<WebSocketMessage<?>>();
+        final var snapshots = new LinkedBlockingQueue<WebSocketMessage<?>>();
+        final var deltaSession = session("sequence-delta", deltas);
+        final var snapshotSession = session("sequence-snapshot", snapshots);
+        liveStandingsService.subscribe(deltaSession, raceId(race), LiveEncoding.JSON, LiveMode.DELTA);
+        liveStandingsService.subscribe(snapshotSession, raceId(race), LiveEncoding.JSON, LiveMode.SNAPSHOT);
+
+        for (final var queue : List.of(deltas, snapshots)) {
+            final var initial = next(queue);
+            assertEquals("snapshot", initial.get("type").asText(), "Subscribers should start with a snapshot");
+            assertEquals(0, initial.get("sequence").asLong());
+            assertEquals(1, initial.get("standings").size());
+        }
+
+        announce(lapFixtures.saveLap(2, race, second, BASE.plusSeconds(5), 0, 95000));
+        final var delta = next(deltas);
+        assertEquals("delta", delta.get("type").asText());
+        assertEquals(1, delta.get("sequence").asLong());
+        assertEquals(0, delta.get("baseSequence").asLong(), "Delta should apply to the snapshot");
+        assertTrue(racerIds(delta.get("changed")).contains(second.id()), "New racer should be among the changed rows");
+        assertEquals(0, delta.get("removedRacerIds").size());
+        final var snapshot = next(snapshots);
+        assertEquals("snapshot", snapshot.get("type").asText());
+        assertEquals(1, snapshot.get("sequence").asLong());
+        assertEquals(2, snapshot.get("standings").size());
+
+        announce(lapFixtures.saveLap(3, race, first, BASE.plusSeconds(90), 0, 92000));
+        final var nextDelta = next(deltas);
+        assertEquals(2, nextDelta.get("sequence").asLong());
+        assertEquals(1, nextDelta.get("baseSequence").asLong(), "Delta should apply to the previous delta");
+        assertEquals(List.of(first.id()), racerIds(nextDelta.get("changed")), "Only the racer with a new lap should change");
+
+        liveStandingsService.unsubscribe(deltaSession);
+        liveStandingsService.unsubscribe(snapshotSession);
+    }
+
+    @Test
+    void unsubscribe_shouldStopUpdatesOfRaceWithoutSubscribers() throws Exception {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(7002), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var racer = racerRepository.save(Racer.create(new RacerExternalId(8003), 13, "Racer", "Three"));
+        lapFixtures.saveLap(11, race, racer, BASE, 0, 90000);
+
+        final var received = new LinkedBlockingQueue<WebSocketMessage<?>>();
+        final var session = session("unsubscribe-first", received);
+        liveStandingsService.subscribe(session, raceId(race), LiveEncoding.JSON, LiveMode.DELTA);
+        assertEquals(0, next(received).get("sequence").asLong());
+        liveStandingsService.unsubscribe(session);
+
+        announce(lapFixtures.saveLap(12, race, racer, BASE.plusSeconds(90), 0, 89000));
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS), "Unsubscribed session should receive no updates");
+
+        final var rejoined = new LinkedBlockingQueue<WebSocketMessage<?>>();
+        final var rejoinedSession = session("unsubscribe-second", rejoined);
+        liveStandingsService.subscribe(rejoinedSession, raceId(race), LiveEncoding.JSON, LiveMode.DELTA);
+        final var snapshot = next(rejoined);
+        assertEquals(0, snapshot.get("sequence").asLong(), "Channel of a race without subscribers should start over");
+        assertEquals(2, snapshot.get("standings").get(0).get("lapCount").asInt(), "Snapshot should include laps stored meanwhile");
+        liveStandingsService.unsubscribe(rejoinedSession);
+    }
+
+    @Test
+    void publish_shouldCloseSessionThatFallsBehind() throws Exception {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(7003), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var racer = racerRepository.save(Racer.create(new RacerExternalId(8004), 14, "Racer", "Four"));
+        lapFixtures.saveLap(21, race, racer, BASE, 0, 90000);
+
+        // the slow session blocks in sending the snapshot until released
+        final var sending = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var slowSession = mock(WebSocketSession.class);
+        when(slowSession.getId()).thenReturn("slow");
+        when(slowSession.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(slowSession).sendMessage(any());
+        final var received = new LinkedBlockingQueue<WebSocketMessage<?>>();
+        final var healthySession = session("healthy", received);
+
+        try {
+            liveStandingsService.subscribe(slowSession, raceId(race), LiveEncoding.JSON, LiveMode.DELTA);
+            liveStandingsService.subscribe(healthySession, raceId(race), LiveEncoding.JSON, LiveMode.DELTA);
+            assertTrue(sending.await(5, TimeUnit.SECONDS), "Snapshot of the slow session should be sent");
+
+            // at most two messages may wait for the slow session, the third one drops it
+            for (int i = 1; i <= 3; i++) {
+                announce(lapFixtures.saveLap(21 + i, race, racer, BASE.plusSeconds(90L * i), 0, 90000 - i));
+            }
+            verify(slowSession, timeout(5000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            verify(healthySession, never()).close(any());
+
+            for (int sequence = 0; sequence <= 3; sequence++) {
+                assertEquals(sequence, next(received).get("sequence").asLong(), "Healthy session should receive every update");
+            }
+        } finally {
+            release.countDown();
+            liveStandingsService.unsubscribe(healthySession);
+        }
+    }
+
+    @Test
+    void publish_shouldNotHoldUpSubscribersWhileQueryingStandings() throws Exception {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(7005), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var first = racerRepository.save(Racer.create(new RacerExternalId(8005), 15, "Racer", "Five"));
+        final var second = racerRepository.save(Racer.create(new RacerExternalId(8006), 16, "Racer", "Six"));
+        lapFixtures.saveLap(31, race, first, BASE, 0, 90000);
+
+        // the second query of the standings blocks until released, the others pass through
+        final var querying = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var queries = new AtomicInteger();
+        final var leaderboard = mock(LeaderboardService.class);
+        when(leaderboard.findStandings(raceId(race))).thenAnswer(invocation -> {
+            if (queries.incrementAndGet() == 2) {
+                querying.countDown();
+                release.await();
+            }
+            return leaderboardService.findStandings(raceId(race));
+        });
+        final var executor = Executors.newVirtualThreadPerTaskExecutor();
+        final var service = new LiveStandingsService(leaderboard, liveUpdateEncoder, executor, 2);
+
+        try {
+            final var received = new LinkedBlockingQueue<WebSocketMessage<?>>();
+            service.subscribe(session("query-first", received), raceId(race), LiveEncoding.JSON, LiveMode.SNAPSHOT);
+            assertEquals(1, next(received).get("standings").size());
+
+            final var lap = lapFixtures.saveLap(32, race, second, BASE.plusSeconds(5), 0, 95000);
+            final var publishing = executor.submit(() -> service.onLapsIngested(new LapsIngestedEvent(List.of(lap))));
+            assertTrue(querying.await(5, TimeUnit.SECONDS), "Publishing should query the standings");
+
+            final var joined = new LinkedBlockingQueue<WebSocketMessage<?>>();
+            final var joiningSession = session("query-second", joined);
+            final var joining = executor.submit(() -> service.subscribe(joiningSession, raceId(race), LiveEncoding.JSON, LiveMode.SNAPSHOT));
+            joining.get(5, TimeUnit.SECONDS);
+            assertEquals(0, next(joined).get("sequence").asLong(), "Subscriber should join without waiting for the query");
+
+            release.countDown();
+            publishing.get(5, TimeUnit.SECONDS);
+            for (final var queue : List.of(received, joined)) {
+                final var update = next(queue);
+                assertEquals(1, update.get("sequence").asLong());
+                assertEquals(2, update.get("standings").size(), "Update should carry the standings of the query");
+            }
+        } finally {
+            release.countDown();
+            service.close();
+        }
+    }
+
+    @Test
+    void beforeHandshake_shouldRejectUnknownRaces() {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(7004), "Brno Circuit", LocalDate.of(2025, 9, 13)));
+        final var interceptor = new LiveStandingsHandshakeInterceptor(raceRepository);
+
+        assertEquals(200, handshake(interceptor, "/ws/live/races/" + raceId(race), "delta"));
+        assertEquals(404, handshake(interceptor, "/ws/live/races/" + (raceId(race) + 1000), "delta"));
+        assertEquals(400, handshake(interceptor, "/ws/live/races/brno", "delta"));
+        assertEquals(400, handshake(interceptor, "/ws/live/races/" + raceId(race), "diff"));
+    }
+
+    private void announce(Lap lap) {
+        liveStandingsService.onLapsIngested(new LapsIngestedEvent(List.of(lap)));
+    }
+
+    private JsonNode next(BlockingQueue<WebSocketMessage<?>> queue) throws Exception {
+        final var message = queue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message, "Expected a message to be sent");
+        return objectMapper.readTree(((TextMessage) message).getPayload());
+    }
+
+    private static WebSocketSession session(String id, BlockingQueue<WebSocketMessage<?>> received) throws IOException {
+        final var session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            received.add(invocation.getArgument(0));
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static int handshake(LiveStandingsHandshakeInterceptor interceptor, String path, String mode) {
+        final var servletRequest = new MockHttpServletRequest("GET", path);
+        servletRequest.setParameter("mode", mode);
+        servletRequest.setQueryString("mode=" + mode);
+        final var servletResponse = new MockHttpServletResponse();
+        final var accepted = interceptor.beforeHandshake(
+            new ServletServerHttpRequest(servletRequest),
+            new ServletServerHttpResponse(servletResponse),
+            mock(WebSocketHandler.class),
+            new HashMap<>()
+        );
+        assertEquals(accepted, servletResponse.getStatus() == 200);
+        return servletResponse.getStatus();
+    }
+
+    private static List<Long> racerIds(JsonNode standings) {
+        return StreamSupport.stream(standings.spliterator(), false)
+            .map(standing -> standing.get("racerId").asLong())
+            .toList();
+    }
+
+    private static long raceId(Race race) {
+        return Objects.requireNonNull(race.id());
+    }
+}
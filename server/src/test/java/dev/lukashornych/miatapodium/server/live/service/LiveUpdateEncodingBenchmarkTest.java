@@ -0,0 +1,155 @@
+package dev.lukashornych.miatapodium.server.live.service;
+
+import dev.lukashornych.miatapodium.server.leaderboard.model.Standing;
+import dev.lukashornych.miatapodium.server.leaderboard.model.StandingsState;
+import dev.lukashornych.miatapodium.server.live.model.LiveEncoding;
+import dev.lukashornych.miatapodium.server.live.model.LiveMode;
+import dev.lukashornych.miatapodium.server.live.model.StandingsDeltaMessage;
+import dev.lukashornych.miatapodium.server.live.model.StandingsSnapshotMessage;
+import dev.lukashornych.miatapodium.server.performance.PerformanceReport;
+import dev.lukashornych.miatapodium.server.performance.PerformanceReport.EncodingMeasurement;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of live update encodings: replays a simulated race of 40 cars and encodes every
+ * standings update in each combination of encoding and mode, reporting the average size and
+ * encode CPU time per update. Runs with {@code mvn -Pperformance test}; measurements are written
+ * to {@code target/performance/LiveUpdateEncodingBenchmarkTest.json}.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>Binary encodings produce smaller snapshots than JSON</li>
+ *   <li>Delta updates are smaller than snapshots in every encoding</li>
+ * </ul>
+ */
+@NullMarked
+@Slf4j
+@Tag("performance")
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999"
+})
+@IntegrationTest
+class LiveUpdateEncodingBenchmarkTest {
+
+    private static final int CARS = 40;
+    private static final int UPDATES = 500;
+    private static final int LAPS_PER_UPDATE = 2;
+    private static final int ROUNDS = 5;
+
+    private static final PerformanceReport report = new PerformanceReport(LiveUpdateEncodingBenchmarkTest.class.getSimpleName());
+
+    @Autowired
+    private LiveUpdateEncoder encoder;
+
+    @AfterAll
+    static void writeReport() {
+        log.info("Performance results written to {}", report.write().toAbsolutePath());
+    }
+
+    @Test
+    void shouldEncodeUpdatesCompactly() {
+        final var updates = simulateUpdates();
+        final var results = new EnumMap<LiveMode, Map<LiveEncoding, EncodingMeasurement>>(LiveMode.class);
+
+        for (final var mode : LiveMode.values()) {
+            final var messages = messages(updates, mode);
+            final var byEncoding = new EnumMap<LiveEncoding, EncodingMeasurement>(LiveEncoding.class);
+            for (final var encoding : LiveEncoding.values()) {
+                // the first rounds warm up the serializers, only the last one is reported
+                for (int round = 1; round < ROUNDS; round++) {
+                    measure(mode, encoding, messages);
+                }
+                final var measurement = measure(mode, encoding, messages);
+                report.add(measurement);
+                log.info(
+                    "{} {}: {} bytes/update, {} cpu ns/update",
+                    mode, encoding, "%.1f".formatted(measurement.bytesPerUpdate()), "%.1f".formatted(measurement.cpuNanosPerUpdate())
+                );
+                byEncoding.put(encoding, measurement);
+            }
+            results.put(mode, byEncoding);
+        }
+
+        final var snapshots = results.get(LiveMode.SNAPSHOT);
+        final var deltas = results.get(LiveMode.DELTA);
+        assertTrue(snapshots.get(LiveEncoding.CBOR).bytesPerUpdate() < snapshots.get(LiveEncoding.JSON).bytesPerUpdate());
+        assertTrue(snapshots.get(LiveEncoding.SMILE).bytesPerUpdate() < snapshots.get(LiveEncoding.JSON).bytesPerUpdate());
+        for (final var encoding : LiveEncoding.values()) {
+            assertTrue(deltas.get(encoding).bytesPerUpdate() < snapshots.get(encoding).bytesPerUpdate());
+        }
+    }
+
+    private EncodingMeasurement measure(LiveMode mode, LiveEncoding encoding, List<Object> messages) {
+        final var threadMXBean = ManagementFactory.getThreadMXBean();
+        var bytes = 0L;
+        final var cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        for (final var message : messages) {
+            bytes += encoder.encode(encoding, message).length;
+        }
+        final var cpuNanos = threadMXBean.getCurrentThreadCpuTime() - cpuStart;
+        return new EncodingMeasurement(
+            mode.name(),
+            encoding.name(),
+            messages.size(),
+            (double) bytes / messages.size(),
+            (double) cpuNanos / messages.size()
+        );
+    }
+
+    private static List<Object> messages(List<List<Standing>> updates, LiveMode mode) {
+        final var messages = new ArrayList<Object>(updates.size());
+        for (int i = 1; i < updates.size(); i++) {
+            messages.add(mode == LiveMode.DELTA
+                ? StandingsDeltaMessage.between(1, i, i - 1, updates.get(i - 1), updates.get(i))
+                : new StandingsSnapshotMessage(1, i, updates.get(i)));
+        }
+        return messages;
+    }
+
+    private static List<List<Standing>> simulateUpdates() {
+        final var random = new Random(42);
+        final var racers = new HashMap<Long, Racer>();
+        final var paces = new int[CARS];
+        for (int i = 0; i < CARS; i++) {
+            final var racerId = (long) i + 1;
+            racers.put(racerId, new Racer(racerId, 100 + i, 10 + i, "Driver" + i, "Surname" + i));
+            paces[i] = 88000 + random.nextInt(6000);
+        }
+
+        final var state = new StandingsState();
+        var time = Instant.parse("2025-09-13T10:00:00Z");
+        final var updates = new ArrayList<List<Standing>>(UPDATES + 1);
+        updates.add(state.rank(racers));
+        for (int update = 0; update < UPDATES; update++) {
+            for (int lap = 0; lap < LAPS_PER_UPDATE; lap++) {
+                final var car = random.nextInt(CARS);
+                final var lapTimeMs = paces[car] + random.nextInt(2500);
+                final var s1 = lapTimeMs / 3;
+                final var s2 = lapTimeMs / 3;
+                time = time.plusMillis(1000 + random.nextInt(2000));
+                state.apply(car + 1L, time, lapTimeMs, s1, s2, lapTimeMs - s1 - s2);
+            }
+            updates.add(state.rank(racers));
+        }
+        return updates;
+    }
+}
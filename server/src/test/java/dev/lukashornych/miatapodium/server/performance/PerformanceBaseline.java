@@ -0,0 +1,130 @@
+package dev.lukashornych.miatapodium.server.performance;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dev.lukashornych.miatapodium.server.performance.PerformanceReport.PollMeasurement;
+import dev.lukashornych.miatapodium.server.performance.PerformanceReport.ReadMeasurement;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Reference measurements of a performance test suite, the budgets of a run are derived from. The
+ * baseline is a {@link PerformanceReport} of a run on the reference machine, committed as
+ * {@code src/test/resources/performance/<suite>.json}; to move the baseline, replace it with the
+ * report from {@code target/performance} and commit it together with the change that moved it.
+ *
+ * <p>A measurement violates its budget when it exceeds its baseline by more than the headroom of
+ * its metric, or when the baseline has no entry for it.
+ */
+@NullMarked
+public final class PerformanceBaseline {
+
+    private final String suite;
+    private final List<PollMeasurement> polls;
+    private final List<ReadMeasurement> reads;
+    private final List<String> violations = new ArrayList<>();
+
+    private PerformanceBaseline(String suite, List<PollMeasurement> polls, List<ReadMeasurement> reads) {
+        this.suite = suite;
+        this.polls = polls;
+        this.reads = reads;
+    }
+
+    /**
+     * Loads the committed baseline of the suite. A missing baseline is treated as empty, so that
+     * every measurement of the suite is reported with a pointer to this class.
+     *
+     * @param suite the name of the suite, as passed to {@link PerformanceReport}
+     * @return the baseline
+     */
+    public static PerformanceBaseline load(String suite) {
+        final var resource = "/performance/" + suite + ".json";
+        try (final var input = PerformanceBaseline.class.getResourceAsStream(resource)) {
+            if (input == null) {
+                return new PerformanceBaseline(suite, List.of(), List.of());
+            }
+            final var baseline = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build()
+                .readValue(input, Baseline.class);
+            return new PerformanceBaseline(suite, baseline.polls(), baseline.reads());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the baseline of a poll of the same scenario and payload size.
+     *
+     * @param measurement the measured poll
+     * @return the baseline poll, or {@code null} if there is none, which is recorded as a violation
+     */
+    public @Nullable PollMeasurement poll(PollMeasurement measurement) {
+        return polls.stream()
+            .filter(poll -> poll.scenario().equals(measurement.scenario()) && poll.payloadLaps() == measurement.payloadLaps())
+            .findFirst()
+            .orElseGet(() -> missing(measurement.scenario() + " poll of " + measurement.payloadLaps() + " laps"));
+    }
+
+    /**
+     * Returns the baseline of a read operation at the same number of stored laps.
+     *
+     * @param measurement the measured read operation
+     * @return the baseline read operation, or {@code null} if there is none, which is recorded as a violation
+     */
+    public @Nullable ReadMeasurement read(ReadMeasurement measurement) {
+        return reads.stream()
+            .filter(read -> read.operation().equals(measurement.operation()) && read.storedLaps() == measurement.storedLaps())
+            .findFirst()
+            .orElseGet(() -> missing(measurement.operation() + " at " + measurement.storedLaps() + " laps"));
+    }
+
+    /**
+     * Checks that a measured value does not exceed its baseline multiplied by the headroom and
+     * records a violation otherwise. Values within the minimum slack of the baseline always pass,
+     * so that measurements of a few milliseconds do not fail on scheduling noise.
+     *
+     * @param metric       the description of the measured value
+     * @param measured     the measured value
+     * @param baseline     the baseline value
+     * @param headroom     the allowed multiple of the baseline
+     * @param minimumSlack the allowed difference regardless of the headroom
+     */
+    public synchronized void checkWithin(String metric, double measured, double baseline, double headroom, double minimumSlack) {
+        final var budget = Math.max(baseline * headroom, baseline + minimumSlack);
+        if (measured > budget) {
+            violations.add("%s is %.2f, budget is %.2f (baseline %.2f)".formatted(metric, measured, budget, baseline));
+        }
+    }
+
+    /**
+     * Fails with every violation recorded since the previous call. Violations are collected
+     * rather than failing right away, so that a run always completes and writes its report,
+     * which is what a new baseline is recorded from.
+     */
+    public synchronized void assertWithinBudgets() {
+        final var recorded = List.copyOf(violations);
+        violations.clear();
+        if (!recorded.isEmpty()) {
+            fail(recorded.size() + " measurements exceeded their budgets:\n" + String.join("\n", recorded));
+        }
+    }
+
+    private synchronized <T> @Nullable T missing(String measurement) {
+        violations.add(
+            "No baseline for " + measurement + " in src/test/resources/performance/" + suite + ".json, " +
+            "record one on the reference machine as described in " + PerformanceBaseline.class.getSimpleName()
+        );
+        return null;
+    }
+
+    private record Baseline(List<PollMeasurement> polls, List<ReadMeasurement> reads) {
+    }
+}
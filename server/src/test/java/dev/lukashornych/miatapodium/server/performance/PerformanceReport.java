@@ -0,0 +1,171 @@
+package dev.lukashornych.miatapodium.server.performance;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.jspecify.annotations.NullMarked;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Machine-readable results of a performance test suite, written as JSON to
+ * {@code target/performance/<suite>.json}. Each report records the commit it was measured on,
+ * so reports of different commits can be compared side by side.
+ */
+@NullMarked
+public final class PerformanceReport {
+
+    private static final Path OUTPUT_DIRECTORY = Path.of("target", "performance");
+
+    private final String suite;
+    private final List<PollMeasurement> polls = new ArrayList<>();
+    private final List<ReadMeasurement> reads = new ArrayList<>();
+    private final List<EncodingMeasurement> encodings = new ArrayList<>();
+
+    public PerformanceReport(String suite) {
+        this.suite = suite;
+    }
+
+    /**
+     * Records a measured ingestion poll.
+     *
+     * @param measurement the measurement
+     */
+    public synchronized void add(PollMeasurement measurement) {
+        polls.add(measurement);
+    }
+
+    /**
+     * Records measured latencies of a read operation.
+     *
+     * @param measurement the measurement
+     */
+    public synchronized void add(ReadMeasurement measurement) {
+        reads.add(measurement);
+    }
+
+    /**
+     * Records the measured cost of encoding live updates.
+     *
+     * @param measurement the measurement
+     */
+    public synchronized void add(EncodingMeasurement measurement) {
+        encodings.add(measurement);
+    }
+
+    /**
+     * Writes the report, replacing the report of a previous run.
+     *
+     * @return the written file
+     */
+    public synchronized Path write() {
+        final var file = OUTPUT_DIRECTORY.resolve(suite + ".json");
+        final var mapper = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build();
+        try {
+            Files.createDirectories(OUTPUT_DIRECTORY);
+            mapper.writeValue(file.toFile(), new Report(
+                suite,
+                commit(),
+                Runtime.version().toString(),
+                Runtime.getRuntime().availableProcessors(),
+                Instant.now().toString(),
+                List.copyOf(polls),
+                List.copyOf(reads),
+                List.copyOf(encodings)
+            ));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+
+    private static String commit() {
+        try {
+            final var process = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            final var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0 ? output : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    /**
+     * A single measured ingestion poll.
+     *
+     * @param scenario       the name of the scenario
+     * @param payloadLaps    the number of laps in the upstream payload
+     * @param newLaps        the number of laps in the payload not stored yet
+     * @param wallClockMs    the duration of the poll
+     * @param statements     the number of SQL statements executed by the poll
+     * @param allocatedBytes the bytes allocated by the polling thread
+     */
+    public record PollMeasurement(
+        String scenario,
+        int payloadLaps,
+        int newLaps,
+        long wallClockMs,
+        long statements,
+        long allocatedBytes
+    ) {
+    }
+
+    /**
+     * Latencies of a read operation measured while ingestion was running.
+     *
+     * @param operation   the name of the read operation
+     * @param storedLaps  the number of stored laps when the reads started
+     * @param requests    the number of completed requests
+     * @param p50Ms       the median latency
+     * @param p95Ms       the 95th percentile latency
+     * @param maxMs       the maximum latency
+     */
+    public record ReadMeasurement(
+        String operation,
+        int storedLaps,
+        int requests,
+        double p50Ms,
+        double p95Ms,
+        double maxMs
+    ) {
+    }
+
+    /**
+     * Average cost of encoding a live update in one combination of mode and encoding.
+     *
+     * @param mode              the shape of the updates
+     * @param encoding          the encoding of the updates
+     * @param updates           the number of encoded updates
+     * @param bytesPerUpdate    the average encoded size
+     * @param cpuNanosPerUpdate the average CPU time of encoding
+     */
+    public record EncodingMeasurement(
+        String mode,
+        String encoding,
+        int updates,
+        double bytesPerUpdate,
+        double cpuNanosPerUpdate
+    ) {
+    }
+
+    private record Report(
+        String suite,
+        String commit,
+        String javaVersion,
+        int availableProcessors,
+        String recordedAt,
+        List<PollMeasurement> polls,
+        List<ReadMeasurement> reads,
+        List<EncodingMeasurement> encodings
+    ) {
+    }
+}
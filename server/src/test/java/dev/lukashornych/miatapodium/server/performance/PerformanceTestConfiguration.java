@@ -0,0 +1,30 @@
+package dev.lukashornych.miatapodium.server.performance;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Test configuration for performance tests. Wraps the application data source into a
+ * {@link StatementCountingDataSource}, so tests can assert on the number of executed statements.
+ */
+@NullMarked
+@TestConfiguration(proxyBeanMethods = false)
+public class PerformanceTestConfiguration {
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package dev.lukashornych.miatapodium.server.performance;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Data source wrapper counting the SQL statements executed through its connections. Every
+ * {@code execute*} call of a statement counts once, so a JDBC batch counts as a single
+ * round trip regardless of its size. Statements are counted per thread, so work measured
+ * on one thread is not skewed by concurrent readers.
+ */
+@NullMarked
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final ThreadLocal<long[]> executedStatements = ThreadLocal.withInitial(() -> new long[1]);
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * Returns the number of statements executed by the current thread since its last {@link #reset()}.
+     *
+     * @return the statement count
+     */
+    public long executedStatements() {
+        return executedStatements.get()[0];
+    }
+
+    /**
+     * Resets the statement count of the current thread.
+     */
+    public void reset() {
+        executedStatements.get()[0] = 0;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (Connection) wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return (Connection) wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Object wrap(Class<?> type, Object target) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    final var result = invoke(method, target, args);
+                    if (target instanceof Statement && method.getName().startsWith("execute")) {
+                        executedStatements.get()[0]++;
+                    }
+                    if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        return wrap(method.getReturnType(), result);
+                    }
+                    return result;
+                }
+            }
+        });
+    }
+
+    private static @Nullable Object invoke(Method method, Object target, Object @Nullable [] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package dev.lukashornych.miatapodium.server.racer.service;
+
+import dev.lukashornych.miatapodium.server.archive.service.RaceArchivalService;
+import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
+import dev.lukashornych.miatapodium.server.datafetcher.model.LapDataPayload;
+import dev.lukashornych.miatapodium.server.datafetcher.service.LapDataFetcherService;
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.LapsIngestedEvent;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.race.model.RaceExternalId;
+import dev.lukashornych.miatapodium.server.race.repository.RaceRepository;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import dev.lukashornych.miatapodium.server.racer.model.RacerCareerResponse;
+import dev.lukashornych.miatapodium.server.racer.model.RacerExternalId;
+import dev.lukashornych.miatapodium.server.racer.repository.RacerRepository;
+import dev.lukashornych.miatapodium.server.support.IntegrationTest;
+import dev.lukashornych.miatapodium.server.support.LapFixtures;
+import org.jspecify.annotations.NullMarked;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.simple.JdbcClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration test for {@link CareerStatsService} that ingests laps of one racer at two
+ * trackdays held at the same track and checks the maintained career statistics.
+ *
+ * <p>Verifies that:
+ * <ul>
+ *   <li>Laps are flagged as personal bests only when they beat all earlier laps at the track</li>
+ *   <li>Statistics of both trackdays are merged into a single per-track record</li>
+ *   <li>Rebuilding from lap history, archived races included, yields the same statistics and flags</li>
+ *   <li>Best sectors stay empty until a lap with sector times is ingested</li>
+ * </ul>
+ */
+@NullMarked
+@SpringBootTest(properties = {
+    "miatapodium.datafetcher.poll-interval-ms=999999999"
+})
+@IntegrationTest
+class CareerStatsServiceIntegrationTest {
+
+    private static final String TRACK = "Brno Circuit";
+    private static final Instant FIRST_DAY = Instant.parse("2025-09-13T10:00:00Z");
+    private static final Instant SECOND_DAY = Instant.parse("2025-10-11T10:00:00Z");
+
+    @Autowired
+    private LapDataWebSocketClient webSocketClient;
+
+    @Autowired
+    private LapDataFetcherService lapDataFetcherService;
+
+    @Autowired
+    private CareerStatsService careerStatsService;
+
+    @Autowired
+    private RacerRepository racerRepository;
+
+    @Autowired
+    private LapRepository lapRepository;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RaceArchivalService raceArchivalService;
+
+    @Autowired
+    private LapFixtures lapFixtures;
+
+    @Autowired
+    private JdbcClient jdbcClient;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("miatapodium.archive.directory", () -> createTempDirectory().toString());
+    }
+
+    @Test
+    void shouldMaintainPersonalBestsAcrossTrackdays() throws Exception {
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(
+            payload(1, 1, FIRST_DAY, 0, 95000, 31000),
+            payload(2, 1, FIRST_DAY, 1, 93000, 30500),
+            payload(3, 1, FIRST_DAY, 2, 94000, 30000)
+        ));
+        lapDataFetcherService.pollAndPersist();
+
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(
+            payload(1, 2, SECOND_DAY, 0, 92500, 30200),
+            payload(2, 2, SECOND_DAY, 1, 93500, 29800)
+        ));
+        lapDataFetcherService.pollAndPersist();
+
+        final var expectedFlags = List.of(true, true, false, true, false);
+        assertEquals(expectedFlags, personalBestFlags());
+
+        final var racerId = racerRepository.findByExternalId(101).orElseThrow().id();
+        final var career = careerStatsService.career(racerId);
+        assertCareer(career);
+
+        careerStatsService.rebuild();
+
+        assertEquals(expectedFlags, personalBestFlags());
+        assertEquals(career, careerStatsService.career(racerId));
+    }
+
+    @Test
+    void rebuild_shouldCountLapsOfArchivedRaces() {
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(
+            payload(1, 1, FIRST_DAY, 0, 95000, 31000),
+            payload(2, 1, FIRST_DAY, 1, 93000, 30500),
+            payload(3, 1, FIRST_DAY, 2, 94000, 30000)
+        ));
+        lapDataFetcherService.pollAndPersist();
+        final var firstDayRaceId = raceRepository.findByExternalId(1).orElseThrow().id();
+        assertTrue(raceArchivalService.archiveRace(Objects.requireNonNull(firstDayRaceId)));
+
+        when(webSocketClient.fetchLapData()).thenReturn(List.of(
+            payload(1, 2, SECOND_DAY, 0, 93500, 30200),
+            payload(2, 2, SECOND_DAY, 1, 92500, 29800)
+        ));
+        lapDataFetcherService.pollAndPersist();
+        final var racerId = racerRepository.findByExternalId(101).orElseThrow().id();
+        final var career = careerStatsService.career(racerId);
+
+        // wipe the derived state so that the rebuild has to recompute it from history
+        jdbcClient.sql("DELETE FROM racer_track_stats").update();
+        jdbcClient.sql("UPDATE laps SET personal_best = NOT personal_best").update();
+        careerStatsService.rebuild();
+
+        // the first lap of the second day is slower than the archived best of the first day
+        assertEquals(List.of(false, true), personalBestFlags());
+        assertEquals(career, careerStatsService.career(racerId));
+        assertEquals(5, career.lapCount());
+        assertEquals(92500, career.tracks().getFirst().bestLapTimeMs());
+        assertEquals(29800, career.tracks().getFirst().bestS1Ms());
+    }
+
+    @Test
+    void onLapsIngested_shouldKeepBestSectorsEmptyForLapsWithoutSectors() {
+        final var race = raceRepository.save(Race.create(new RaceExternalId(1), TRACK, LocalDate.of(2025, 9, 13)));
+        final var racer = racerRepository.save(Racer.create(new RacerExternalId(101), 50, "Jan", "Novak"));
+        final var lap = lapFixtures.saveLap(1, race, racer, FIRST_DAY, 0, 93000);
+        final var withoutSectors = new Lap(
+            lap.id(), lap.externalId(), lap.raceId(), lap.racerId(), lap.time(), lap.timePrev(), lap.lapTimeMs(), null,
+            lap.round(), lap.carNumber(), lap.categoryId(), lap.carId(), lap.tagId(), lap.isRaceLap(), lap.personalBest()
+        );
+
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new LapsIngestedEvent(List.of(withoutSectors))));
+
+        final var racerId = Objects.requireNonNull(racer.id());
+        final var stats = careerStatsService.trackStats(racerId).getFirst();
+        assertEquals(1, stats.lapCount());
+        assertEquals(93000, stats.bestLapTimeMs());
+        assertNull(stats.bestS1Ms(), "Laps without sectors should not set best sectors");
+        assertNull(stats.bestS2Ms());
+        assertNull(stats.bestS3Ms());
+
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new LapsIngestedEvent(List.of(lap))));
+        assertEquals(93000 / 4, careerStatsService.trackStats(racerId).getFirst().bestS1Ms(), "Sectors of a later lap should fill the best sectors");
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("miatapodium-archive");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void assertCareer(RacerCareerResponse career) {
+        assertEquals(5, career.lapCount());
+        assertEquals(1, career.tracks().size());
+
+        final var stats = career.tracks().getFirst();
+        assertEquals(TRACK, stats.trackName());
+        assertEquals(5, stats.lapCount());
+        assertEquals(92500, stats.bestLapTimeMs());
+        assertEquals(SECOND_DAY.plusSeconds(92).plusMillis(500), stats.bestLapAt());
+        assertEquals(29800, stats.bestS1Ms());
+    }
+
+    private List<Boolean> personalBestFlags() {
+        final var laps = new ArrayList<Lap>();
+        lapRepository.findAll().forEach(laps::add);
+        return laps.stream()
+            .sorted(Comparator.comparing(Lap::time))
+            .map(Lap::personalBest)
+            .toList();
+    }
+
+    private static LapDataPayload payload(int lapId, int raceId, Instant day, int lapNumber, int lapTimeMs, int s1) {
+        final var time = day.plusSeconds(lapNumber * 100L).plusMillis(lapTimeMs);
+        return LapFixtures.payload(lapId, raceId, 101, time)
+            .lapTime(lapTimeMs)
+            .sectors(s1, (lapTimeMs - s1) / 2)
+            .round(lapNumber)
+            .carNumber(50)
+            .driver("Jan", "Novak")
+            .race(TRACK, day)
+            .build();
+    }
+}
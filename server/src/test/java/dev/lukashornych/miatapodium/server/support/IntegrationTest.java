@@ -0,0 +1,31 @@
+package dev.lukashornych.miatapodium.server.support;
+
+import dev.lukashornych.miatapodium.server.datafetcher.client.LapDataWebSocketClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code @SpringBootTest} class as an integration test running against the PostgreSQL
+ * container of {@link TestcontainersConfiguration}.
+ *
+ * <p>The upstream {@link LapDataWebSocketClient} is replaced by a Mockito mock, which tests
+ * stub after autowiring it. Because test classes with the same configuration share the
+ * application context and its database, races and racers, together with everything that
+ * references them, are truncated before each test. Surrogate ID sequences are not restarted, so
+ * in-memory state keyed by race or racer ID never sees a reused ID.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import({ TestcontainersConfiguration.class, LapFixtures.class })
+@MockitoBean(types = LapDataWebSocketClient.class)
+@Sql(statements = "TRUNCATE races, racers CASCADE")
+public @interface IntegrationTest {
+}
@@ -0,0 +1,197 @@
+package dev.lukashornych.miatapodium.server.support;
+
+import dev.lukashornych.miatapodium.server.conditions.model.TrackConditions;
+import dev.lukashornych.miatapodium.server.datafetcher.model.LapDataPayload;
+import dev.lukashornych.miatapodium.server.lap.model.Lap;
+import dev.lukashornych.miatapodium.server.lap.model.SectorTimes;
+import dev.lukashornych.miatapodium.server.lap.repository.LapRepository;
+import dev.lukashornych.miatapodium.server.lap.service.LapMetadataDictionary;
+import dev.lukashornych.miatapodium.server.race.model.Race;
+import dev.lukashornych.miatapodium.server.racer.model.Racer;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.data.jdbc.core.mapping.AggregateReference;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * Lap fixtures shared by integration tests: upstream payloads to feed the mocked WebSocket client
+ * with, and laps stored directly, bypassing ingestion.
+ */
+@NullMarked
+@TestComponent
+@RequiredArgsConstructor
+public class LapFixtures {
+
+    private final LapRepository lapRepository;
+    private final LapMetadataDictionary lapMetadataDictionary;
+
+    /**
+     * Starts an upstream payload of a lap finished at the given time. Unless overridden, the lap
+     * takes 90 seconds of racing at Brno Circuit in an open category Mazda MX-5.
+     *
+     * @param id the upstream lap ID
+     * @param raceId the upstream race ID
+     * @param rfidId the upstream racer ID
+     * @param time the moment the lap was finished
+     * @return the payload builder
+     */
+    public static PayloadBuilder payload(int id, int raceId, int rfidId, Instant time) {
+        return new PayloadBuilder(id, raceId, rfidId, time);
+    }
+
+    /**
+     * Stores a lap of the racer finished at the given time, with sectors of a quarter, a third
+     * and the rest of the lap time.
+     *
+     * @return the stored lap
+     */
+    public Lap saveLap(int externalId, Race race, Racer racer, Instant time, int round, int lapTimeMs) {
+        final var timePrev = time.minusMillis(lapTimeMs);
+        final var s1 = lapTimeMs / 4;
+        final var s2 = lapTimeMs / 3;
+        return lapRepository.save(new Lap(
+            null,
+            externalId,
+            AggregateReference.to(Objects.requireNonNull(race.id())),
+            AggregateReference.to(Objects.requireNonNull(racer.id())),
+            time,
+            timePrev,
+            lapTimeMs,
+            new SectorTimes(s1, s2, lapTimeMs - s1 - s2, timePrev.plusMillis(s1), timePrev.plusMillis(s1 + s2), time),
+            round,
+            racer.carNumber(),
+            lapMetadataDictionary.categoryId("Open"),
+            lapMetadataDictionary.carId("Mazda", "MX-5"),
+            lapMetadataDictionary.tagId(tagOf(racer.carNumber())),
+            false,
+            false
+        ));
+    }
+
+    private static String tagOf(int number) {
+        return String.format("E552021070400000000%05d", number);
+    }
+
+    /**
+     * Builder of {@link LapDataPayload} filling every field not relevant to a test with defaults.
+     */
+    public static final class PayloadBuilder {
+
+        private final int id;
+        private final int raceId;
+        private final int rfidId;
+        private final Instant time;
+        private int lapTimeMs = 90000;
+        private int s1 = -1;
+        private int s2 = -1;
+        private TrackConditions conditions = new TrackConditions(18.0f, 24.0f, 60.0f);
+        private int round;
+        private int carNumber;
+        private String category = "Open";
+        private String firstName = "Racer";
+        private String lastName;
+        private String raceName = "Brno Circuit";
+        private Instant raceDate;
+        private boolean raceLap;
+
+        private PayloadBuilder(int id, int raceId, int rfidId, Instant time) {
+            this.id = id;
+            this.raceId = raceId;
+            this.rfidId = rfidId;
+            this.time = time;
+            this.carNumber = rfidId % 1000;
+            this.lastName = "No" + rfidId;
+            this.raceDate = time.truncatedTo(ChronoUnit.DAYS);
+        }
+
+        public PayloadBuilder lapTime(int lapTimeMs) {
+            this.lapTimeMs = lapTimeMs;
+            return this;
+        }
+
+        /**
+         * Sets the first two sector times, the third one is the rest of the lap time. Sectors
+         * default to a quarter, a third and the rest of the lap time.
+         */
+        public PayloadBuilder sectors(int s1, int s2) {
+            this.s1 = s1;
+            this.s2 = s2;
+            return this;
+        }
+
+        public PayloadBuilder conditions(TrackConditions conditions) {
+            this.conditions = conditions;
+            return this;
+        }
+
+        public PayloadBuilder round(int round) {
+            this.round = round;
+            return this;
+        }
+
+        public PayloadBuilder carNumber(int carNumber) {
+            this.carNumber = carNumber;
+            return this;
+        }
+
+        public PayloadBuilder category(String category) {
+            this.category = category;
+            return this;
+        }
+
+        public PayloadBuilder driver(String firstName, String lastName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            return this;
+        }
+
+        public PayloadBuilder race(String raceName, Instant raceDate) {
+            this.raceName = raceName;
+            this.raceDate = raceDate;
+            return this;
+        }
+
+        public PayloadBuilder raceLap() {
+            this.raceLap = true;
+            return this;
+        }
+
+        public LapDataPayload build() {
+            final var timePrev = time.minusMillis(lapTimeMs);
+            final var sector1 = s1 < 0 ? lapTimeMs / 4 : s1;
+            final var sector2 = s2 < 0 ? lapTimeMs / 3 : s2;
+            return new LapDataPayload(
+                id,
+                raceId,
+                rfidId,
+                time,
+                timePrev,
+                tagOf(rfidId),
+                lapTimeMs,
+                timePrev.plusMillis(sector1),
+                timePrev.plusMillis(sector1 + sector2),
+                time,
+                sector1,
+                sector2,
+                lapTimeMs - sector1 - sector2,
+                conditions.airTemp(),
+                conditions.trackTemp(),
+                conditions.humidity(),
+                round,
+                carNumber,
+                category,
+                "Mazda",
+                "MX-5",
+                firstName,
+                lastName,
+                raceName,
+                raceDate,
+                raceLap ? 1 : 0
+            );
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dev.lukashornych.miatapodium.server.support;
+
+import org.jspecify.annotations.NullMarked;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Test configuration providing the PostgreSQL instance of integration tests. The container is a
+ * bean of the test application context, so it is started once per cached context and shared by
+ * all test classes using that context.
+ */
+@NullMarked
+@TestConfiguration(proxyBeanMethods = false)
+public class TestcontainersConfiguration {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer postgresContainer() {
+        return new PostgreSQLContainer("postgres:16")
+            .withUsername("miatapodium")
+            .withPassword("miatapodium")
+            .withDatabaseName("miatapodium");
+    }
+}